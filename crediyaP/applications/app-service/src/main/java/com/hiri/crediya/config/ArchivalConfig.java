@@ -0,0 +1,27 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.r2dbc.archive.PersonArchiver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+public class ArchivalConfig {
+
+    // Requiere V8__persons_partitioning aplicada; seguro en varias instancias (los lotes usan SKIP LOCKED).
+    // Con sharding no arranca: solo archivaría la base principal, que ya no guarda personas
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "archival", name = "enabled", havingValue = "true")
+    public PersonArchiver personArchiver(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                                         ArchivalProperties properties, ShardingProperties sharding,
+                                         MeterRegistry registry) {
+        if (sharding.isEnabled()) {
+            throw new IllegalStateException("archival.enabled is not supported with persistence.sharding.enabled");
+        }
+        return new PersonArchiver(databaseClient, transactionalOperator, properties.getInactiveAfter(),
+                properties.getBatchSize(), properties.getInterval(), properties.getPauseBetweenBatches(), registry);
+    }
+}
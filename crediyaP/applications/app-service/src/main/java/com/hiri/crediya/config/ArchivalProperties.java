@@ -0,0 +1,20 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "archival")
+public class ArchivalProperties {
+    private boolean enabled = false;
+    // Personas sin alta ni actualización en este período pasan a persons_archive
+    private Duration inactiveAfter = Duration.ofDays(365);
+    private int batchSize = 500;
+    private Duration interval = Duration.ofHours(1);
+    // Pausa entre lotes para no competir con el tráfico ni atrasar la replicación
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+}
@@ -0,0 +1,85 @@
+package com.hiri.crediya.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Health indicator que calcula el estado en segundo plano cada {@code interval} y responde a los probes
+ * con el último resultado, así un probe nunca toca la base ni el servicio de auth. Si el resultado
+ * queda viejo (el chequeo dejó de correr) se reporta DOWN: UNKNOWN pesa menos que UP al agregar y el
+ * estado general seguiría en UP.
+ */
+@Slf4j
+public class CachedHealthIndicator implements ReactiveHealthIndicator {
+
+    private final String name;
+    private final Supplier<Mono<Health>> check;
+    private final Duration interval;
+    private final Duration timeout;
+    private final Clock clock;
+    private volatile Health last = Health.unknown().withDetail("reason", "first check pending").build();
+    private volatile Instant checkedAt;
+    private Disposable schedule;
+
+    public CachedHealthIndicator(String name, Supplier<Mono<Health>> check, Duration interval, Duration timeout) {
+        this(name, check, interval, timeout, Clock.systemUTC());
+    }
+
+    CachedHealthIndicator(String name, Supplier<Mono<Health>> check, Duration interval, Duration timeout, Clock clock) {
+        this.name = name;
+        this.check = check;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.clock = clock;
+    }
+
+    public void start() {
+        schedule = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh(), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    Mono<Health> refresh() {
+        return Mono.defer(check)
+                .timeout(timeout)
+                .onErrorResume(error -> Mono.just(Health.down().withDetail("error", String.valueOf(error.getMessage())).build()))
+                .doOnNext(health -> {
+                    if (!health.getStatus().equals(last.getStatus())) {
+                        log.warn("Health of {} changed from {} to {}", name, last.getStatus(), health.getStatus());
+                    }
+                    last = health;
+                    checkedAt = clock.instant();
+                });
+    }
+
+    @Override
+    public Mono<Health> health() {
+        Instant at = checkedAt;
+        if (at == null) {
+            return Mono.just(last);
+        }
+        if (Duration.between(at, clock.instant()).compareTo(interval.multipliedBy(3)) > 0) {
+            return Mono.just(Health.down().withDetail("reason", "stale result").withDetail("checkedAt", at.toString()).build());
+        }
+        return Mono.just(Health.status(last.getStatus())
+                .withDetails(last.getDetails())
+                .withDetail("checkedAt", at.toString())
+                .build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.model.creditscore.gateways.CreditScoringRepository;
+import com.hiri.crediya.usecase.creditscore.CreditScoringUseCase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Requiere V10__credit_scores aplicada. Con sharding no arranca: lee persons de la base principal y al cerrar
+// la corrida borraría los puntajes de todas las personas que viven en los shards
+@Configuration
+@ConditionalOnProperty(prefix = "credit-scoring", name = "enabled", havingValue = "true")
+public class CreditScoringConfig {
+
+    // Scheduler propio y acotado: el cálculo no compite con Schedulers.parallel() que usan las peticiones
+    @Bean(destroyMethod = "dispose")
+    Scheduler creditScoringScheduler(CreditScoringProperties properties) {
+        return Schedulers.newParallel("credit-scoring", properties.getConcurrency());
+    }
+
+    @Bean
+    public CreditScoringUseCase creditScoringUseCase(CreditScoringRepository repository, Scheduler creditScoringScheduler,
+                                                     CreditScoringProperties properties, ShardingProperties sharding) {
+        if (sharding.isEnabled()) {
+            throw new IllegalStateException("credit-scoring.enabled is not supported with persistence.sharding.enabled");
+        }
+        return new CreditScoringUseCase(repository, creditScoringScheduler, properties.getConcurrency(),
+                properties.getBatchSize(), properties.getStaleAfter());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public CreditScoringJob creditScoringJob(CreditScoringUseCase useCase, CreditScoringProperties properties) {
+        return new CreditScoringJob(useCase, properties.getSchedule());
+    }
+
+    @Bean
+    public CreditScoringEndpoint creditScoringEndpoint(CreditScoringJob job) {
+        return new CreditScoringEndpoint(job);
+    }
+}
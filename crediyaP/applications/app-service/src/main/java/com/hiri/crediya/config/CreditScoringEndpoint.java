@@ -0,0 +1,33 @@
+package com.hiri.crediya.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * Endpoint de actuator (/actuator/scoring, solo ADMIN): GET estado y último reporte del scoring de crédito,
+ * POST inicia una corrida en segundo plano (o reanuda la interrumpida) y responde sin esperar a que termine.
+ */
+@Endpoint(id = "scoring")
+public class CreditScoringEndpoint {
+
+    private final CreditScoringJob job;
+
+    public CreditScoringEndpoint(CreditScoringJob job) {
+        this.job = job;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return job.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> run() {
+        Map<String, Object> status = job.status();
+        status.put("started", job.trigger());
+        return status;
+    }
+}
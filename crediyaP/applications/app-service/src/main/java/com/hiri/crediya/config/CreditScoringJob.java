@@ -0,0 +1,94 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.model.creditscore.ScoringReport;
+import com.hiri.crediya.usecase.creditscore.CreditScoringUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.support.CronExpression;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dispara el scoring de crédito según el cron configurado o a pedido desde /actuator/scoring.
+ * Una sola ejecución por instancia; entre instancias lo garantiza la corrida abierta en la base.
+ */
+@Slf4j
+public class CreditScoringJob {
+
+    private final CreditScoringUseCase useCase;
+    private final CronExpression schedule;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ScoringReport lastReport;
+    private volatile String lastError;
+    private volatile Disposable execution;
+    private Disposable scheduler;
+
+    public CreditScoringJob(CreditScoringUseCase useCase, String schedule) {
+        this.useCase = useCase;
+        this.schedule = schedule == null || schedule.isBlank() ? null : CronExpression.parse(schedule);
+    }
+
+    public void start() {
+        if (schedule == null) {
+            return;
+        }
+        scheduler = Mono.defer(() -> Mono.delay(untilNextRun()))
+                .doOnNext(tick -> trigger())
+                .repeat()
+                .subscribe();
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+        Disposable current = execution;
+        if (current != null) {
+            // La corrida queda abierta con su checkpoint y se reanuda en la próxima ejecución
+            current.dispose();
+        }
+    }
+
+    public boolean trigger() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        log.info("Credit scoring started");
+        execution = useCase.run()
+                .doOnNext(report -> {
+                    lastReport = report;
+                    lastError = null;
+                    log.info("Credit scoring run {} scored {} persons ({} total) in {} ms, {} rows/s{}",
+                            report.getRunId(), report.getScored(), report.getTotal(), report.getElapsedMillis(),
+                            Math.round(report.getRowsPerSecond()), report.isResumed() ? ", resumed from checkpoint" : "");
+                })
+                .doOnError(error -> {
+                    lastError = error.getMessage();
+                    log.warn("Credit scoring failed: {}", error.getMessage());
+                })
+                .doFinally(signal -> running.set(false))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("schedule", schedule != null ? schedule.toString() : null);
+        status.put("lastReport", lastReport);
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private Duration untilNextRun() {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime next = schedule.next(now);
+        return next != null ? Duration.between(now, next) : Duration.ofDays(1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "credit-scoring")
+public class CreditScoringProperties {
+    private boolean enabled = false;
+    // Hilos del scheduler de scoring y lotes puntuándose a la vez
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    // Filas por upsert; 5 parámetros por fila, lejos del máximo de 65535 de PostgreSQL
+    private int batchSize = 500;
+    // Una corrida sin avanzar su checkpoint en este tiempo se considera abandonada y otra instancia la reanuda
+    private Duration staleAfter = Duration.ofMinutes(5);
+    // Cron de Spring (segundos incluidos); vacío para correr solo desde /actuator/scoring
+    private String schedule = "";
+}
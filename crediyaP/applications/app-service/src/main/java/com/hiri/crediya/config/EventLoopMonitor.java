@@ -0,0 +1,200 @@
+package com.hiri.crediya.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Vigila en producción que nadie bloquee los event loops de reactor-netty ni los schedulers no bloqueantes de Reactor.
+ * <ul>
+ *   <li>Cada loop ejecuta una sonda periódica; su retraso es el lag del loop y la cola pendiente se expone como gauge.</li>
+ *   <li>Un hilo watchdog detecta sondas atrasadas más allá del umbral y registra la pila del hilo del loop bloqueado.</li>
+ *   <li>Una muestra de las tareas de los schedulers de Reactor se cronometra; en parallel/single una tarea larga es un bloqueo.</li>
+ * </ul>
+ */
+@Slf4j
+public class EventLoopMonitor {
+
+    static final String SCHEDULE_HOOK = EventLoopMonitor.class.getName();
+
+    private final Supplier<? extends EventExecutorGroup> eventLoops;
+    private final EventLoopMonitorProperties properties;
+    private final MeterRegistry registry;
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private final Map<String, SchedulerMeters> schedulers = new ConcurrentHashMap<>();
+    private final AtomicLong lastLogAt = new AtomicLong();
+    private ScheduledExecutorService watchdog;
+    private volatile boolean running;
+
+    public EventLoopMonitor(Supplier<? extends EventExecutorGroup> eventLoops, EventLoopMonitorProperties properties,
+                            MeterRegistry registry) {
+        this.eventLoops = eventLoops;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public void start() {
+        running = true;
+        int index = 0;
+        for (EventExecutor executor : eventLoops.get()) {
+            LoopProbe probe = new LoopProbe(String.valueOf(index++), executor);
+            probes.add(probe);
+            probe.scheduleNext();
+        }
+        if (properties.getSchedulerSampleRate() > 0) {
+            Schedulers.onScheduleHook(SCHEDULE_HOOK, this::decorate);
+        }
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-loop-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = properties.getProbeInterval().toNanos();
+        watchdog.scheduleAtFixedRate(this::checkStalls, period, period, TimeUnit.NANOSECONDS);
+        log.info("Event loop monitor watching {} loops", probes.size());
+    }
+
+    public void stop() {
+        running = false;
+        Schedulers.resetOnScheduleHook(SCHEDULE_HOOK);
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    void checkStalls() {
+        long now = System.nanoTime();
+        long threshold = properties.getBlockedThreshold().toNanos();
+        for (LoopProbe probe : probes) {
+            long stalled = now - probe.expectedAt;
+            if (stalled > threshold && !probe.reported && probe.thread != null) {
+                probe.reported = true;
+                probe.blocked.increment();
+                if (shouldLog(now)) {
+                    log.warn("Event loop {} ({}) blocked for more than {} ms at:{}", probe.loop, probe.thread.getName(),
+                            stalled / 1_000_000, format(probe.thread.getStackTrace()));
+                }
+            }
+        }
+    }
+
+    private Runnable decorate(Runnable task) {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSchedulerSampleRate()) {
+            return task;
+        }
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                SchedulerMeters meters = schedulers.computeIfAbsent(schedulerOf(Thread.currentThread().getName()), this::newSchedulerMeters);
+                meters.duration.record(elapsed, TimeUnit.NANOSECONDS);
+                if (meters.nonBlocking && elapsed > properties.getBlockedThreshold().toNanos()) {
+                    meters.blocking.increment();
+                    if (shouldLog(System.nanoTime())) {
+                        log.warn("Task on non-blocking scheduler {} ran {} ms: {}", meters.name, elapsed / 1_000_000, task);
+                    }
+                }
+            }
+        };
+    }
+
+    private boolean shouldLog(long now) {
+        long last = lastLogAt.get();
+        return (last == 0 || now - last > properties.getLogCooldown().toNanos()) && lastLogAt.compareAndSet(last, now);
+    }
+
+    // "parallel-3" -> "parallel", "boundedElastic-12" -> "boundedElastic"
+    static String schedulerOf(String threadName) {
+        int dash = threadName.indexOf('-');
+        return dash > 0 ? threadName.substring(0, dash) : threadName;
+    }
+
+    private SchedulerMeters newSchedulerMeters(String name) {
+        return new SchedulerMeters(name, "parallel".equals(name) || "single".equals(name),
+                Timer.builder("reactor.scheduler.task.duration")
+                        .description("Sampled run time of tasks on Reactor schedulers")
+                        .tag("scheduler", name)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                Counter.builder("reactor.scheduler.blocking")
+                        .description("Sampled tasks that exceeded the blocked threshold on a non-blocking scheduler")
+                        .tag("scheduler", name)
+                        .register(registry));
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement element : stack) {
+            sb.append(System.lineSeparator()).append("\tat ").append(element);
+        }
+        return sb.toString();
+    }
+
+    private record SchedulerMeters(String name, boolean nonBlocking, Timer duration, Counter blocking) {
+    }
+
+    private final class LoopProbe implements Runnable {
+        private final String loop;
+        private final EventExecutor executor;
+        private final Timer lag;
+        private final Counter blocked;
+        private volatile long expectedAt;
+        private volatile Thread thread;
+        private volatile boolean reported;
+
+        LoopProbe(String loop, EventExecutor executor) {
+            this.loop = loop;
+            this.executor = executor;
+            this.lag = Timer.builder("reactor.netty.eventloop.lag")
+                    .description("Delay between the scheduled and actual run of the event loop probe")
+                    .tag("loop", loop)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.blocked = Counter.builder("reactor.netty.eventloop.blocked")
+                    .description("Times the event loop missed its probe by more than the blocked threshold")
+                    .tag("loop", loop)
+                    .register(registry);
+            if (executor instanceof SingleThreadEventExecutor single) {
+                Gauge.builder("reactor.netty.eventloop.pending.tasks", single, SingleThreadEventExecutor::pendingTasks)
+                        .description("Tasks waiting in the event loop queue")
+                        .tag("loop", loop)
+                        .register(registry);
+            }
+        }
+
+        void scheduleNext() {
+            long interval = properties.getProbeInterval().toNanos();
+            expectedAt = System.nanoTime() + interval;
+            executor.schedule(this, interval, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            lag.record(Math.max(0, System.nanoTime() - expectedAt), TimeUnit.NANOSECONDS);
+            thread = Thread.currentThread();
+            reported = false;
+            if (running) {
+                scheduleNext();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hiri.crediya.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+@Configuration
+public class EventLoopMonitorConfig {
+
+    // Spring Boot usa los recursos globales de reactor-netty: es el mismo grupo que atiende al servidor HTTP
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "event-loop-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EventLoopMonitor eventLoopMonitor(EventLoopMonitorProperties properties, MeterRegistry registry) {
+        return new EventLoopMonitor(() -> HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE), properties, registry);
+    }
+}
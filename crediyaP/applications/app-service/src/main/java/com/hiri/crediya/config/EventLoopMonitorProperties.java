@@ -0,0 +1,22 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "event-loop-monitor")
+public class EventLoopMonitorProperties {
+    private boolean enabled = true;
+    // Cada cuánto se agenda la tarea sonda en cada event loop (su retraso es el lag del loop)
+    private Duration probeInterval = Duration.ofMillis(100);
+    // Un loop sin atender su sonda por más de esto, o una tarea de parallel que corre más, se reporta como bloqueo
+    private Duration blockedThreshold = Duration.ofMillis(200);
+    // Fracción de tareas de los schedulers de Reactor que se cronometran
+    private double schedulerSampleRate = 0.01;
+    // Evita inundar el log con el mismo bloqueo bajo carga
+    private Duration logCooldown = Duration.ofSeconds(30);
+}
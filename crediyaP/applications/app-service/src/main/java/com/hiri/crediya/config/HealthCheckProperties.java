@@ -0,0 +1,20 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "health-check")
+public class HealthCheckProperties {
+    // Cada cuánto se refresca el estado en segundo plano (los probes leen el valor en caché)
+    private Duration interval = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofSeconds(2);
+    // Ruta del servicio de auth usada solo para medir alcance y latencia
+    private String authPath = "/actuator/health";
+    // Por encima de esta latencia el servicio de auth se marca como lento (sigue UP)
+    private Duration authSlowThreshold = Duration.ofMillis(500);
+}
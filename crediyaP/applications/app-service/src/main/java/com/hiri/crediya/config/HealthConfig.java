@@ -0,0 +1,85 @@
+package com.hiri.crediya.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ValidationDepth;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reemplaza el indicador r2dbc de Spring Boot (una consulta por probe) por indicadores en caché
+ * que además exponen la saturación del pool y la latencia del servicio de auth.
+ */
+@Configuration
+public class HealthConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public CachedHealthIndicator postgresHealthIndicator(@Qualifier("primaryConnectionPool") ConnectionPool pool,
+                                                         HealthCheckProperties properties) {
+        return new CachedHealthIndicator("postgres", () -> poolHealth(pool), properties.getInterval(), properties.getTimeout());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "persistence.replica", name = "enabled", havingValue = "true")
+    public CachedHealthIndicator postgresReplicaHealthIndicator(@Qualifier("replicaConnectionPool") ConnectionPool pool,
+                                                                HealthCheckProperties properties) {
+        return new CachedHealthIndicator("postgresReplica", () -> poolHealth(pool), properties.getInterval(), properties.getTimeout());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public CachedHealthIndicator authServiceHealthIndicator(WebClient webClient, HealthCheckProperties properties,
+                                                            @Value("${auth.service.url}") String authServiceUrl) {
+        String url = authServiceUrl + properties.getAuthPath();
+        return new CachedHealthIndicator("authService", () -> authHealth(webClient, url, properties.getAuthSlowThreshold()),
+                properties.getInterval(), properties.getTimeout());
+    }
+
+    static Mono<Health> poolHealth(ConnectionPool pool) {
+        return Mono.usingWhen(pool.create(),
+                        connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+                        Connection::close)
+                .map(valid -> withPoolDetails(valid ? Health.up() : Health.down().withDetail("error", "validation failed"), pool).build());
+    }
+
+    private static Health.Builder withPoolDetails(Health.Builder builder, ConnectionPool pool) {
+        pool.getMetrics().ifPresent(metrics -> builder
+                .withDetail("acquired", metrics.acquiredSize())
+                .withDetail("idle", metrics.idleSize())
+                .withDetail("pendingAcquire", metrics.pendingAcquireSize())
+                .withDetail("max", metrics.getMaxAllocatedSize())
+                .withDetail("saturation", saturation(metrics)));
+        return builder;
+    }
+
+    static double saturation(PoolMetrics metrics) {
+        int max = metrics.getMaxAllocatedSize();
+        return max <= 0 ? 0 : Math.round(metrics.acquiredSize() * 100.0 / max) / 100.0;
+    }
+
+    // Cualquier respuesta que no sea 5xx cuenta como alcanzable: solo interesa la conectividad y la latencia
+    static Mono<Health> authHealth(WebClient webClient, String url, Duration slowThreshold) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(url)
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                    .map(status -> {
+                        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+                        Health.Builder builder = status.is5xxServerError() ? Health.down() : Health.up();
+                        return builder.withDetail("httpStatus", status.value())
+                                .withDetail("latencyMs", latencyMs)
+                                .withDetail("slow", latencyMs > slowThreshold.toMillis())
+                                .build();
+                    });
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.hiri.crediya.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class NativeHintsConfig {
+}
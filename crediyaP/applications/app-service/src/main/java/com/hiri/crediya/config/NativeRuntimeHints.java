@@ -0,0 +1,56 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.api.dto.DeleteResponse;
+import com.hiri.crediya.api.dto.ImportResponse;
+import com.hiri.crediya.api.dto.PersonRequest;
+import com.hiri.crediya.api.dto.PersonResponse;
+import com.hiri.crediya.api.dto.SyncResponse;
+import com.hiri.crediya.model.auth.RoleValidationResponse;
+import com.hiri.crediya.model.creditscore.ScoringReport;
+import com.hiri.crediya.model.events.DomainEvent;
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.personimport.ImportReject;
+import com.hiri.crediya.model.personimport.ImportReport;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import com.hiri.crediya.r2dbc.entity.PersonEntity;
+import com.hiri.crediya.rsocket.dto.PersonMessage;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Hints de reflexión para la imagen nativa. Los handlers funcionales y los adaptadores serializan estos tipos
+ * con Jackson o los mapean por reflexión (entidades R2DBC, esquemas de springdoc), algo que el análisis AOT
+ * no descubre por sí solo. Se incluyen las clases anidadas para cubrir los builders de Lombok.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> TYPES = List.of(
+            Person.class, PersonChange.class, PersonSyncEntry.class, RoleValidationResponse.class,
+            DomainEvent.class, IdempotentResponse.class, ScoringReport.class,
+            PersonImportRow.class, ImportReject.class, ImportReport.class,
+            PersonRequest.class, PersonResponse.class, DeleteResponse.class, ImportResponse.class, SyncResponse.class,
+            PersonEntity.class, PersonMessage.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : TYPES) {
+            register(hints, type);
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                register(hints, nested);
+            }
+        }
+    }
+
+    private void register(RuntimeHints hints, Class<?> type) {
+        hints.reflection().registerType(type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.infrastructure.drivenadapters.httpclient.events.HttpEventPublisher;
+import com.hiri.crediya.infrastructure.drivenadapters.httpclient.events.InMemoryEventPublisher;
+import com.hiri.crediya.model.events.gateways.EventPublisher;
+import com.hiri.crediya.r2dbc.outbox.OutboxRelay;
+import com.hiri.crediya.r2dbc.shard.Shard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox", name = "publisher", havingValue = "memory", matchIfMissing = true)
+    public EventPublisher inMemoryEventPublisher(OutboxProperties properties) {
+        return new InMemoryEventPublisher(properties.getMemoryCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox", name = "publisher", havingValue = "http")
+    public EventPublisher httpEventPublisher(WebClient webClient, OutboxProperties properties) {
+        return new HttpEventPublisher(webClient, properties.getPublisherUrl(), properties.getPublishTimeout());
+    }
+
+    // Encendido por defecto: el trigger escribe la outbox en cada alta y sin relay la tabla crece sin límite.
+    // Con sharding las altas (y su outbox) viven en los shards: se drena cada uno y no la base principal
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    OutboxRelays outboxRelays(DatabaseClient databaseClient, ObjectProvider<ShardConnections> shardConnections,
+                              EventPublisher eventPublisher, OutboxProperties properties, MeterRegistry registry,
+                              Environment environment) {
+        // El publisher en memoria marca los eventos como publicados y los pierde al reiniciar: solo dev y test
+        if ("memory".equals(properties.getPublisher()) && !environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+            throw new IllegalStateException(
+                    "outbox.relay.enabled with outbox.publisher=memory is only supported with the dev or test profile");
+        }
+        ShardConnections shards = shardConnections.getIfAvailable();
+        List<DatabaseClient> clients = shards == null
+                ? List.of(databaseClient)
+                : shards.shards().stream().map(Shard::getClient).toList();
+        OutboxProperties.Relay relay = properties.getRelay();
+        return new OutboxRelays(clients.stream()
+                .map(client -> new OutboxRelay(client, eventPublisher, relay.getBatchSize(), relay.getPollInterval(),
+                        relay.getLease(), registry))
+                .toList());
+    }
+}
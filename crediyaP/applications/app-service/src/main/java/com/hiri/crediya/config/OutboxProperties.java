@@ -0,0 +1,29 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+    // memory (log + buffer local) | http (POST del lote a publisher-url)
+    private String publisher = "memory";
+    private String publisherUrl;
+    private Duration publishTimeout = Duration.ofSeconds(5);
+    private int memoryCapacity = 1000;
+    private Relay relay = new Relay();
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private boolean enabled = true;
+        private int batchSize = 100;
+        private Duration pollInterval = Duration.ofMillis(500);
+        // Debe superar publish-timeout: vencida, otra instancia vuelve a publicar el lote
+        private Duration lease = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,23 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.r2dbc.outbox.OutboxRelay;
+
+import java.util.List;
+
+/** Un relay por base que escribe la outbox: la principal o, con sharding, cada shard (el trigger corre donde vive persons). */
+class OutboxRelays {
+
+    private final List<OutboxRelay> relays;
+
+    OutboxRelays(List<OutboxRelay> relays) {
+        this.relays = relays;
+    }
+
+    void start() {
+        relays.forEach(OutboxRelay::start);
+    }
+
+    void stop() {
+        relays.forEach(OutboxRelay::stop);
+    }
+}
@@ -0,0 +1,38 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import com.hiri.crediya.r2dbc.bloom.ExistenceFilterProperties;
+import com.hiri.crediya.r2dbc.bloom.PersonExistenceFilter;
+import com.hiri.crediya.r2dbc.notify.PostgresPersonChangeFeed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+@Configuration
+public class PersonChangeFeedConfig {
+
+    // LISTEN necesita una conexión propia y de larga vida: no se toma del pool ni pasa por el ruteo a réplica
+    @Bean(destroyMethod = "stop")
+    public PostgresPersonChangeFeed personChangeFeed(R2dbcProperties properties,
+                                                     ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers) {
+        ConnectionFactory listenerConnectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .configure(options -> customizers.orderedStream().forEach(c -> c.customize(options)))
+                .build();
+        return new PostgresPersonChangeFeed(listenerConnectionFactory);
+    }
+
+    // start() no hace nada con el filtro apagado: el adaptador lo consulta igual y todo va a Postgres
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public PersonExistenceFilter personExistenceFilter(ExistenceFilterProperties properties, DatabaseClient databaseClient,
+                                                       PersonChangeFeed feed, MeterRegistry registry) {
+        return new PersonExistenceFilter(properties, databaseClient, feed, registry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.r2dbc.routing.ReadWriteRoutingConnectionFactory;
+import com.hiri.crediya.r2dbc.routing.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class R2dbcConnectionConfig {
+
+    // Con Flyway activo el pool y todo lo que lo usa (DatabaseClient, repositorios, LISTEN, warm-up) se crean después
+    // de flywayInitializer; sin Flyway la anotación no agrega dependencias
+    @Bean(destroyMethod = "dispose")
+    @DependsOnDatabaseInitialization
+    public ConnectionPool primaryConnectionPool(R2dbcProperties properties,
+                                                ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers) {
+        return R2dbcPools.create("primary", properties.getUrl(), properties.getUsername(), properties.getPassword(),
+                properties.getPool(), customizers);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(prefix = "persistence.replica", name = "enabled", havingValue = "true")
+    public ConnectionPool replicaConnectionPool(ReplicaProperties replica, R2dbcProperties properties,
+                                                ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers) {
+        return R2dbcPools.create("replica", replica.getUrl(), replica.getUsername(), replica.getPassword(),
+                properties.getPool(), customizers);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "persistence.replica", name = "enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaConnectionPool") ConnectionPool replicaConnectionPool,
+                                               ReplicaProperties replica) {
+        return new ReplicaLagMonitor(replicaConnectionPool, replica.getMaxLag(), replica.getLagCheckInterval());
+    }
+
+    // Sin réplica configurada todas las operaciones van al primario
+    @Bean
+    @Primary
+    @DependsOnDatabaseInitialization
+    public ConnectionFactory connectionFactory(@Qualifier("primaryConnectionPool") ConnectionPool primaryConnectionPool,
+                                               @Qualifier("replicaConnectionPool") ObjectProvider<ConnectionPool> replicaConnectionPool,
+                                               ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                               MeterRegistry registry) {
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        ConnectionPool replica = replicaConnectionPool.getIfAvailable();
+        return new ReadWriteRoutingConnectionFactory(
+                new InstrumentedConnectionFactory("primary", primaryConnectionPool, registry),
+                replica != null ? new InstrumentedConnectionFactory("replica", replica, registry) : null,
+                () -> monitor != null && monitor.isAvailable());
+    }
+}
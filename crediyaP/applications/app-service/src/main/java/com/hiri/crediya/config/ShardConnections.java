@@ -0,0 +1,36 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.r2dbc.shard.Shard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Un pool por shard configurado en {@code persistence.sharding.shards}, con la misma configuración que el primario. */
+class ShardConnections {
+
+    private final List<ConnectionPool> pools = new ArrayList<>();
+    private final List<Shard> shards = new ArrayList<>();
+
+    ShardConnections(ShardingProperties properties, R2dbcProperties r2dbc,
+                     ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers, MeterRegistry registry) {
+        for (ShardingProperties.Node node : properties.getShards()) {
+            ConnectionPool pool = R2dbcPools.create("shard-" + node.getName(), node.getUrl(), node.getUsername(),
+                    node.getPassword(), r2dbc.getPool(), customizers);
+            pools.add(pool);
+            shards.add(new Shard(node.getName(), new InstrumentedConnectionFactory("shard-" + node.getName(), pool, registry)));
+        }
+    }
+
+    List<Shard> shards() {
+        return shards;
+    }
+
+    void dispose() {
+        pools.forEach(ConnectionPool::dispose);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.model.person.gateways.PersonRepository;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import com.hiri.crediya.model.personimport.gateways.PersonImportRepository;
+import com.hiri.crediya.r2dbc.shard.ShardDirectory;
+import com.hiri.crediya.r2dbc.shard.ShardRebalancer;
+import com.hiri.crediya.r2dbc.shard.ShardedPersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+// El directorio vive en la base principal; persons se lee y escribe en los shards. La outbox se drena en cada
+// shard (OutboxConfig); la importación masiva responde 501 y el archivado no arranca (ArchivalConfig)
+@Configuration
+@ConditionalOnProperty(prefix = "persistence.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "dispose")
+    ShardConnections shardConnections(ShardingProperties properties, R2dbcProperties r2dbc,
+                                      ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers,
+                                      MeterRegistry registry) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("persistence.sharding.enabled requires at least one entry in persistence.sharding.shards");
+        }
+        if (properties.getDrainGrace().compareTo(properties.getMapRefreshInterval()) <= 0) {
+            throw new IllegalStateException("persistence.sharding.drain-grace must be longer than map-refresh-interval");
+        }
+        return new ShardConnections(properties, r2dbc, customizers, registry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ShardDirectory shardDirectory(DatabaseClient databaseClient, ShardingProperties properties) {
+        return new ShardDirectory(databaseClient, properties.getBuckets(), properties.getShards().get(0).getName(),
+                properties.getMapRefreshInterval());
+    }
+
+    @Bean
+    @Primary
+    public PersonRepository shardedPersonRepository(ShardDirectory directory, ShardConnections connections) {
+        return new ShardedPersonRepository(directory, connections.shards());
+    }
+
+    // El COPY y el merge de la importación escriben en una sola base, sin pasar por el directorio de buckets
+    @Bean
+    @Primary
+    public PersonImportRepository shardedPersonImportRepository() {
+        return rows -> Flux.error(new PersonImportRow.ImportUnavailableException(
+                "Bulk import is not available with sharded persons"));
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(DatabaseClient databaseClient, ShardDirectory directory,
+                                           ShardConnections connections, ShardingProperties properties) {
+        return new ShardRebalancer(databaseClient, directory, connections.shards(), properties.getDrainGrace(),
+                properties.getBatchSize());
+    }
+
+    @Bean
+    public ShardsEndpoint shardsEndpoint(ShardRebalancer rebalancer, ShardDirectory directory) {
+        return new ShardsEndpoint(rebalancer, directory);
+    }
+}
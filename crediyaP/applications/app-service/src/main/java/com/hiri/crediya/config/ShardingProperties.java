@@ -0,0 +1,33 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "persistence.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    // Fijo una vez creado el directorio: cambiarlo re-hashea todos los documentos
+    private int buckets = 1024;
+    // El primero recibe todos los buckets en el primer arranque
+    private List<Node> shards = new ArrayList<>();
+    private Duration mapRefreshInterval = Duration.ofSeconds(5);
+    // Debe superar map-refresh-interval y la duración de cualquier escritura
+    private Duration drainGrace = Duration.ofSeconds(15);
+    private int batchSize = 500;
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
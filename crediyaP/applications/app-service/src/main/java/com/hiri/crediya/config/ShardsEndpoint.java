@@ -0,0 +1,55 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.r2dbc.shard.ShardDirectory;
+import com.hiri.crediya.r2dbc.shard.ShardRebalancer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator (/actuator/shards, solo ADMIN) para operar el sharding de persons:
+ * GET reparto de buckets, POST /actuator/shards reparte en partes iguales entre los shards configurados
+ * (p. ej. tras agregar uno), POST /actuator/shards/{shard} registra en el directorio las filas previas
+ * de ese shard y POST /actuator/shards/{bucket}/{shard} mueve un bucket.
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardRebalancer rebalancer;
+    private final ShardDirectory directory;
+
+    public ShardsEndpoint(ShardRebalancer rebalancer, ShardDirectory directory) {
+        this.rebalancer = rebalancer;
+        this.directory = directory;
+    }
+
+    @ReadOperation
+    public Mono<Map<String, Map<String, Long>>> distribution() {
+        return rebalancer.distribution();
+    }
+
+    @WriteOperation
+    public Mono<Map<String, Object>> rebalance() {
+        return withDistribution("moved", rebalancer.rebalance());
+    }
+
+    @WriteOperation
+    public Mono<Map<String, Object>> adopt(@Selector String shard) {
+        return withDistribution("adopted", rebalancer.adopt(shard));
+    }
+
+    @WriteOperation
+    public Mono<Map<String, Object>> move(@Selector int bucket, @Selector String shard) {
+        return withDistribution("moved", Mono.defer(() -> rebalancer.move(directory.ownerOf(bucket), shard, List.of(bucket))));
+    }
+
+    private Mono<Map<String, Object>> withDistribution(String key, Mono<Long> operation) {
+        return operation.flatMap(count -> rebalancer.distribution()
+                .map(distribution -> Map.of(key, count, "distribution", distribution)));
+    }
+}
@@ -1,8 +1,13 @@
 package com.hiri.crediya.config;
 
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
 import com.hiri.crediya.model.auth.gateways.AuthRepository;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
 import com.hiri.crediya.model.person.gateways.PersonRepository;
+import com.hiri.crediya.model.personimport.gateways.PersonImportRepository;
 import com.hiri.crediya.usecase.auth.AuthUseCase;
+import com.hiri.crediya.usecase.personchanges.PersonChangesUseCase;
+import com.hiri.crediya.usecase.personimport.PersonImportUseCase;
 import com.hiri.crediya.usecase.personregistry.PersonUseCase;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +20,17 @@ public class UseCasesConfig {
         return new PersonUseCase(repository);
     }
 
+    @Bean
+    public PersonImportUseCase personImportUseCase(PersonUseCase personUseCase, PersonImportRepository importRepository,
+                                                   AuditTrail auditTrail) {
+        return new PersonImportUseCase(personUseCase, importRepository, auditTrail);
+    }
+
+    @Bean
+    public PersonChangesUseCase personChangesUseCase(PersonChangeFeed feed) {
+        return new PersonChangesUseCase(feed);
+    }
+
     @Bean
     public AuthUseCase authUseCase(AuthRepository authRepository) {
         return new AuthUseCase(authRepository);
@@ -0,0 +1,23 @@
+package com.hiri.crediya.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiri.crediya.usecase.auth.AuthUseCase;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WarmUpConfig {
+
+    // El pool de LISTEN no es un ConnectionPool, así que solo se calientan primario y réplica
+    @Bean
+    @ConditionalOnProperty(prefix = "warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public WarmUpRunner warmUpRunner(ObjectProvider<ConnectionPool> pools, AuthUseCase authUseCase,
+                                     PersonUseCase personUseCase, ObjectMapper objectMapper,
+                                     WarmUpProperties properties) {
+        return new WarmUpRunner(pools.orderedStream().toList(), authUseCase, personUseCase, objectMapper, properties);
+    }
+}
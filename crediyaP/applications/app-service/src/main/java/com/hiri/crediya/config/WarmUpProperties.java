@@ -0,0 +1,20 @@
+package com.hiri.crediya.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warm-up")
+public class WarmUpProperties {
+    private boolean enabled = true;
+    // Conexiones que se abren (y se devuelven al pool) antes de aceptar tráfico
+    private int connections = 10;
+    // Vueltas por los caminos de lectura/serialización para que el JIT compile lo caliente
+    private int iterations = 200;
+    // Pasado este tiempo el pod se declara listo igual: el warm-up nunca debe bloquear el despliegue
+    private Duration timeout = Duration.ofSeconds(20);
+}
@@ -0,0 +1,117 @@
+package com.hiri.crediya.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiri.crediya.api.dto.PersonRequest;
+import com.hiri.crediya.api.dto.PersonResponse;
+import com.hiri.crediya.usecase.auth.AuthUseCase;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Calienta el pod antes de que reciba tráfico: abre conexiones del pool, abre la conexión HTTP
+ * al servicio de auth y recorre los caminos de PersonUseCase y la serialización de Jackson.
+ * Spring Boot publica ReadinessState.ACCEPTING_TRAFFIC solo después de que terminan los
+ * ApplicationRunner, así que mientras este corre el probe de readiness responde OUT_OF_SERVICE.
+ */
+@Slf4j
+public class WarmUpRunner implements ApplicationRunner {
+
+    // Documento que no existe: recorre la consulta completa sin depender de datos reales
+    private static final String SYNTHETIC_DOCUMENT = "warm-up-0";
+    private static final String SYNTHETIC_TOKEN = "warm-up";
+
+    private final List<ConnectionPool> pools;
+    private final AuthUseCase authUseCase;
+    private final PersonUseCase personUseCase;
+    private final ObjectMapper objectMapper;
+    private final WarmUpProperties properties;
+
+    public WarmUpRunner(List<ConnectionPool> pools, AuthUseCase authUseCase, PersonUseCase personUseCase,
+                        ObjectMapper objectMapper, WarmUpProperties properties) {
+        this.pools = pools;
+        this.authUseCase = authUseCase;
+        this.personUseCase = personUseCase;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        warmUp()
+                .timeout(properties.getTimeout())
+                .doOnError(error -> log.warn("Warm-up did not finish: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .block();
+        log.info("Warm-up finished in {} ms, accepting traffic", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    Mono<Void> warmUp() {
+        return Mono.when(Flux.fromIterable(pools).flatMap(this::openConnections), primeAuthClient())
+                .then(exercisePersonPaths());
+    }
+
+    private Mono<Void> openConnections(ConnectionPool pool) {
+        // Se toman todas a la vez para forzar que el pool cree conexiones nuevas en lugar de reutilizar una.
+        // usingWhen devuelve cada conexión al pool aunque el ping falle o el timeout cancele el warm-up
+        return pool.warmup()
+                .thenMany(Flux.range(0, properties.getConnections())
+                        .flatMap(i -> Mono.usingWhen(pool.create(), this::ping, Connection::close),
+                                properties.getConnections()))
+                .then()
+                .doOnSuccess(v -> log.info("Warm-up opened {} pool connections", properties.getConnections()))
+                .onErrorResume(error -> skip("pool connections", error));
+    }
+
+    private Mono<Void> ping(Connection connection) {
+        return Flux.from(connection.createStatement("SELECT 1").execute())
+                .flatMap(result -> result.map((row, meta) -> 1))
+                .then();
+    }
+
+    // La respuesta no importa: solo se abre (y deja en el pool de Netty) la conexión al servicio de auth
+    private Mono<Void> primeAuthClient() {
+        return Mono.defer(() -> authUseCase.isAdmin(SYNTHETIC_TOKEN))
+                .then()
+                .onErrorResume(error -> skip("auth client", error));
+    }
+
+    private Mono<Void> exercisePersonPaths() {
+        return Flux.range(0, properties.getIterations())
+                .concatMap(i -> Mono.defer(() -> personUseCase.findByDocument(SYNTHETIC_DOCUMENT))
+                        .onErrorResume(error -> Mono.empty())
+                        .then(Mono.fromRunnable(this::roundTripJson)))
+                .then()
+                .onErrorResume(error -> skip("person paths", error));
+    }
+
+    private void roundTripJson() {
+        try {
+            PersonResponse response = PersonResponse.builder()
+                    .id(UUID.randomUUID())
+                    .names("Warm")
+                    .lastnames("Up")
+                    .document(SYNTHETIC_DOCUMENT)
+                    .email("warm-up@crediya.com")
+                    .build();
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            objectMapper.readValue(json, PersonRequest.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Jackson warm-up failed", e);
+        }
+    }
+
+    private Mono<Void> skip(String step, Throwable error) {
+        log.warn("Warm-up step '{}' skipped: {}", step, error.getMessage());
+        return Mono.empty();
+    }
+}
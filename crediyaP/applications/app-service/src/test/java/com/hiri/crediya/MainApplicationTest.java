@@ -7,7 +7,7 @@ import org.springframework.test.context.ActiveProfiles;
 /**
  * Basic integration test to verify Spring context loads successfully.
  */
-@SpringBootTest
+@SpringBootTest(properties = "spring.flyway.enabled=false")
 @ActiveProfiles("test")
 class MainApplicationTest {
 
@@ -0,0 +1,96 @@
+package com.hiri.crediya.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CachedHealthIndicator.
+ * Uses a counting check supplier and a mutable Clock instead of a real database.
+ */
+class CachedHealthIndicatorTest {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(10);
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    void shouldServeCachedResultWithoutRunningTheCheck() {
+        // Given
+        AtomicInteger checks = new AtomicInteger();
+        CachedHealthIndicator indicator = new CachedHealthIndicator("postgres",
+                () -> Mono.fromSupplier(() -> {
+                    checks.incrementAndGet();
+                    return Health.up().withDetail("saturation", 0.25).build();
+                }), INTERVAL, Duration.ofSeconds(1), clock);
+        StepVerifier.create(indicator.refresh()).expectNextCount(1).verifyComplete();
+
+        // When
+        Health first = indicator.health().block();
+        Health second = indicator.health().block();
+
+        // Then
+        assertThat(checks).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(Status.UP);
+        assertThat(second.getDetails()).containsEntry("saturation", 0.25).containsKey("checkedAt");
+    }
+
+    @Test
+    void shouldReportDownWhenCheckFailsOrTimesOut() {
+        // Given
+        CachedHealthIndicator failing = new CachedHealthIndicator("authService",
+                () -> Mono.error(new IllegalStateException("connection refused")), INTERVAL, Duration.ofSeconds(1), clock);
+        CachedHealthIndicator hanging = new CachedHealthIndicator("authService",
+                Mono::never, INTERVAL, Duration.ofMillis(50), clock);
+
+        // When
+        failing.refresh().block();
+        hanging.refresh().block();
+
+        // Then
+        assertThat(failing.health().block().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(hanging.health().block().getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void shouldReportDownWhenResultIsStale() {
+        // Given
+        CachedHealthIndicator indicator = new CachedHealthIndicator("postgres",
+                () -> Mono.just(Health.up().build()), INTERVAL, Duration.ofSeconds(1), clock);
+        indicator.refresh().block();
+
+        // When
+        now = now.plus(INTERVAL.multipliedBy(4));
+
+        // Then
+        assertThat(indicator.health().block().getStatus()).isEqualTo(Status.DOWN);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hiri.crediya.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for EventLoopMonitor.
+ * Uses a single-threaded Netty loop group and busy-spin tasks (BlockHound would reject a sleep on these threads).
+ */
+class EventLoopMonitorTest {
+
+    private DefaultEventLoopGroup group;
+    private SimpleMeterRegistry registry;
+    private EventLoopMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        group = new DefaultEventLoopGroup(1);
+        registry = new SimpleMeterRegistry();
+        EventLoopMonitorProperties properties = new EventLoopMonitorProperties();
+        properties.setProbeInterval(Duration.ofMillis(10));
+        properties.setBlockedThreshold(Duration.ofMillis(50));
+        properties.setSchedulerSampleRate(1.0);
+        monitor = new EventLoopMonitor(() -> group, properties, registry);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+        group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void shouldDetectBlockedEventLoop() {
+        // Given - la sonda ya corrió al menos una vez
+        assertThat(eventually(() -> registry.get("reactor.netty.eventloop.lag").tag("loop", "0").timer().count() > 0)).isTrue();
+
+        // When
+        group.execute(() -> spin(Duration.ofMillis(300)));
+
+        // Then
+        assertThat(eventually(() -> registry.get("reactor.netty.eventloop.blocked").tag("loop", "0").counter().count() >= 1))
+                .isTrue();
+    }
+
+    @Test
+    void shouldCountLongTasksOnParallelScheduler() {
+        // When
+        Mono.fromRunnable(() -> spin(Duration.ofMillis(100)))
+                .subscribeOn(Schedulers.parallel())
+                .block(Duration.ofSeconds(2));
+
+        // Then
+        assertThat(eventually(() -> registry.find("reactor.scheduler.blocking").tag("scheduler", "parallel").counter() != null
+                && registry.get("reactor.scheduler.blocking").tag("scheduler", "parallel").counter().count() >= 1))
+                .isTrue();
+    }
+
+    @Test
+    void shouldNameSchedulerFromThread() {
+        assertThat(EventLoopMonitor.schedulerOf("boundedElastic-12")).isEqualTo("boundedElastic");
+        assertThat(EventLoopMonitor.schedulerOf("parallel-3")).isEqualTo("parallel");
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    private static void spin(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hiri.crediya.config;
+
+import com.hiri.crediya.api.dto.PersonRequest;
+import com.hiri.crediya.api.dto.SyncResponse;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.r2dbc.entity.PersonEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for NativeRuntimeHints.
+ * Uses RuntimeHintsPredicates to check the registered reflection hints without building a native image.
+ */
+class NativeRuntimeHintsTest {
+
+    @Test
+    void shouldRegisterSerializedTypesAndTheirBuilders() {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(PersonRequest.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PersonEntity.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Person.PersonBuilder.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(SyncResponse.Entry.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hiri.crediya.config;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.hiri.crediya.usecase.auth.AuthUseCase;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for WarmUpRunner.
+ * Uses mocks for the pool and use cases; failing steps must never block readiness.
+ */
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+
+    @Mock
+    private ConnectionPool pool;
+    @Mock
+    private AuthUseCase authUseCase;
+    @Mock
+    private PersonUseCase personUseCase;
+
+    private WarmUpProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WarmUpProperties();
+        properties.setIterations(3);
+        properties.setTimeout(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void shouldExercisePersonPathsEvenWhenDependenciesFail() {
+        // Given - base y servicio de auth caídos
+        when(pool.warmup()).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+        when(authUseCase.isAdmin(anyString())).thenReturn(Mono.error(new IllegalStateException("auth down")));
+        when(personUseCase.findByDocument(anyString()))
+                .thenReturn(Mono.error(new PersonUseCase.PersonUseCaseException("Person not found")));
+
+        // When & Then
+        StepVerifier.create(runner().warmUp()).verifyComplete();
+        verify(personUseCase, times(3)).findByDocument(anyString());
+    }
+
+    @Test
+    void shouldReturnWhenWarmUpExceedsTimeout() {
+        // Given
+        properties.setTimeout(Duration.ofMillis(100));
+        when(pool.warmup()).thenReturn(Mono.never());
+        when(authUseCase.isAdmin(anyString())).thenReturn(Mono.just(false));
+
+        // When
+        long start = System.nanoTime();
+        runner().run(new DefaultApplicationArguments());
+
+        // Then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    private WarmUpRunner runner() {
+        return new WarmUpRunner(List.of(pool), authUseCase, personUseCase,
+                JsonMapper.builder().propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE).build(), properties);
+    }
+}
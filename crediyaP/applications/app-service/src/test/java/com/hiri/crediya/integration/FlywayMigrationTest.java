@@ -0,0 +1,67 @@
+package com.hiri.crediya.integration;
+
+import com.hiri.crediya.MainApplication;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the Flyway migrations applied on startup.
+ * Uses a full application context against a local, disposable Postgres (CREDIYA_IT_R2DBC_URL);
+ * skipped when the variable is not set.
+ */
+@EnabledIfEnvironmentVariable(named = "CREDIYA_IT_R2DBC_URL", matches = ".+")
+class FlywayMigrationTest {
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void shouldApplyEveryMigrationBeforeTheR2dbcPoolIsUsed() {
+        // Given
+        String url = System.getenv("CREDIYA_IT_R2DBC_URL");
+        String username = System.getenv().getOrDefault("CREDIYA_IT_R2DBC_USERNAME", "postgres");
+        String password = System.getenv().getOrDefault("CREDIYA_IT_R2DBC_PASSWORD", "1234@");
+
+        // When
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .run("--server.port=0",
+                        "--spring.profiles.active=test",
+                        "--spring.r2dbc.url=" + url,
+                        "--spring.r2dbc.username=" + username,
+                        "--spring.r2dbc.password=" + password,
+                        "--spring.flyway.url=" + url.replaceFirst("^r2dbc:", "jdbc:"),
+                        "--spring.flyway.user=" + username,
+                        "--spring.flyway.password=" + password,
+                        "--persistence.replica.enabled=false");
+
+        // Then - no queda ninguna versión pendiente
+        MigrationInfo[] applied = context.getBean(Flyway.class).info().applied();
+        assertThat(context.getBean(Flyway.class).info().pending()).isEmpty();
+        assertThat(Arrays.stream(applied).map(info -> info.getVersion().getVersion()))
+                .contains("1", "5", "8", "11");
+
+        // Then - el esquema que leen los repositorios R2DBC ya existe
+        Long personKeys = context.getBean(DatabaseClient.class)
+                .sql("SELECT count(*) AS total FROM information_schema.tables WHERE table_name = 'person_keys'")
+                .map((row, metadata) -> row.get("total", Long.class))
+                .one()
+                .block();
+        assertThat(personKeys).isEqualTo(1L);
+    }
+}
@@ -31,7 +31,7 @@ import static org.mockito.Mockito.when;
  * This avoids consuming real external services that may be down.
  * All external service calls are mocked to prevent dependency on external services.
  */
-@SpringBootTest
+@SpringBootTest(properties = "spring.flyway.enabled=false")
 @AutoConfigureWebTestClient
 @ActiveProfiles("test")
 class PersonIntegrationTest {
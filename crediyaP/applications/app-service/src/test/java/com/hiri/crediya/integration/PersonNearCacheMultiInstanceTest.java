@@ -0,0 +1,132 @@
+package com.hiri.crediya.integration;
+
+import com.hiri.crediya.MainApplication;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.gateways.PersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the person near cache across two application instances.
+ * Uses two application contexts against one local Postgres (CREDIYA_IT_R2DBC_URL) that Flyway migrates on
+ * startup; skipped when the variable is not set.
+ */
+@EnabledIfEnvironmentVariable(named = "CREDIYA_IT_R2DBC_URL", matches = ".+")
+class PersonNearCacheMultiInstanceTest {
+
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(10);
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+
+    @BeforeAll
+    static void startInstances() {
+        instanceA = start();
+        instanceB = start();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (instanceA != null) {
+            instanceA.close();
+        }
+        if (instanceB != null) {
+            instanceB.close();
+        }
+    }
+
+    @Test
+    void shouldInvalidateCachedPersonWhenAnotherInstanceWrites() {
+        // Given - B da de alta y A la deja en su caché
+        PersonRepository repositoryA = instanceA.getBean(PersonRepository.class);
+        PersonRepository repositoryB = instanceB.getBean(PersonRepository.class);
+        String document = String.valueOf(ThreadLocalRandom.current().nextLong(10_000_000_000L, 99_999_999_999L));
+        Person created = repositoryB.save(newPerson(document)).block();
+        assertThat(created).isNotNull();
+        eventually(() -> {
+            repositoryA.findByDocument(document).block();
+            return hits(instanceA) > 0;
+        });
+
+        // When - B actualiza la fila
+        Person current = repositoryB.findByDocument(document).block();
+        current.setNames("Actualizado");
+        repositoryB.save(current).block();
+
+        // Then - A deja de servir la versión vieja
+        eventually(() -> "Actualizado".equals(repositoryA.findByDocument(document).map(Person::getNames).block()));
+
+        // When - B la elimina
+        repositoryB.deletePerson(created.getId()).block();
+
+        // Then
+        eventually(() -> repositoryA.findByDocument(document).blockOptional().isEmpty()
+                && repositoryA.findById(created.getId()).blockOptional().isEmpty());
+    }
+
+    private static ConfigurableApplicationContext start() {
+        String url = System.getenv("CREDIYA_IT_R2DBC_URL");
+        String username = System.getenv().getOrDefault("CREDIYA_IT_R2DBC_USERNAME", "postgres");
+        String password = System.getenv().getOrDefault("CREDIYA_IT_R2DBC_PASSWORD", "1234@");
+        return new SpringApplicationBuilder(MainApplication.class)
+                .run("--server.port=0",
+                        "--spring.profiles.active=test",
+                        "--spring.r2dbc.url=" + url,
+                        "--spring.r2dbc.username=" + username,
+                        "--spring.r2dbc.password=" + password,
+                        // Misma base por JDBC: sin esto Flyway migraría la URL por defecto y no la del test
+                        "--spring.flyway.url=" + url.replaceFirst("^r2dbc:", "jdbc:"),
+                        "--spring.flyway.user=" + username,
+                        "--spring.flyway.password=" + password,
+                        "--persistence.replica.enabled=false",
+                        "--persistence.near-cache.enabled=true",
+                        "--warm-up.enabled=false");
+    }
+
+    private static double hits(ConfigurableApplicationContext instance) {
+        return instance.getBean(MeterRegistry.class).get("persons.near.cache.requests")
+                .tag("result", "hit").counter().count();
+    }
+
+    private static Person newPerson(String document) {
+        return Person.builder()
+                .names("Multi")
+                .lastnames("Instancia")
+                .document(document)
+                .password("password123")
+                .email("near-cache-" + document + "@crediya.com")
+                .birthdate(LocalDate.of(1990, 1, 1))
+                .address("Calle 1")
+                .phone("3000000000")
+                .baseSalary(new BigDecimal("2000000"))
+                .role(BigInteger.valueOf(3))
+                .build();
+    }
+
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", PROPAGATION_TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
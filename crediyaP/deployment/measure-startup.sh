@@ -0,0 +1,64 @@
+#!/bin/sh
+# Mide el tiempo hasta la primera respuesta HTTP (/actuator/health, aunque la base no esté disponible)
+# para tres variantes: JVM, JVM + archivo AppCDS e imagen nativa.
+# Uso: deployment/measure-startup.sh <crediya.jar> [binario-nativo]   (RUNS=5 PORT=18240 para ajustar)
+set -eu
+
+JAR="$1"
+NATIVE="${2:-}"
+RUNS="${RUNS:-3}"
+PORT="${PORT:-18240}"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+# Arranca el comando en segundo plano y espera a que el puerto HTTP responda
+measure() {
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > "$WORK/app.log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health" || true)" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited before answering, see log:" >&2
+            tail -20 "$WORK/app.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(now_ms)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $((end - start))
+}
+
+report() {
+    name="$1"
+    shift
+    total=0
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        ms=$(measure "$@")
+        total=$((total + ms))
+        i=$((i + 1))
+    done
+    printf '%-8s %6d ms (promedio de %d)\n' "$name" $((total / RUNS)) "$RUNS"
+}
+
+# AppCDS: se extrae el jar (el archivo CDS no funciona con el jar anidado) y se entrena una vez
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" > /dev/null
+EXTRACTED_JAR="$WORK/extracted/$(basename "$JAR")"
+# Mismo entrenamiento que deployment/Dockerfile: sin migraciones ni relay del outbox
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+    -Dspring.flyway.enabled=false -Doutbox.relay.enabled=false -Dwarm-up.enabled=false \
+    -jar "$EXTRACTED_JAR" > /dev/null 2>&1
+
+report jvm java -jar "$JAR"
+report appcds java -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$EXTRACTED_JAR"
+if [ -n "$NATIVE" ] && [ -x "$NATIVE" ]; then
+    report native "$NATIVE"
+else
+    echo "native   omitido (compilar con ./gradlew :app-service:nativeCompile -Pnative)"
+fi
@@ -0,0 +1,20 @@
+package com.hiri.crediya.model.audit;
+
+public enum AuditAction {
+    VIEW(false),
+    LIST(false),
+    EXPORT(false),
+    CREATE(true),
+    UPDATE(true),
+    DELETE(true);
+
+    private final boolean write;
+
+    AuditAction(boolean write) {
+        this.write = write;
+    }
+
+    public boolean isWrite() {
+        return write;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hiri.crediya.model.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class AuditEvent {
+    // Identificador opaco del cliente (hash del token), nunca el token
+    private String actor;
+    private AuditAction action;
+    // Nulos en listados y exportaciones, que no apuntan a un solicitante concreto
+    private UUID personId;
+    private String document;
+    private Instant occurredAt;
+}
@@ -0,0 +1,9 @@
+package com.hiri.crediya.model.audit.gateways;
+
+import com.hiri.crediya.model.audit.AuditEvent;
+import reactor.core.publisher.Mono;
+
+public interface AuditTrail {
+    // Completa al aceptar el evento, no al persistirlo: la escritura puede ser diferida (write-behind)
+    Mono<Void> record(AuditEvent event);
+}
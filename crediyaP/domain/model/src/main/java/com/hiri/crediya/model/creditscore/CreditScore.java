@@ -0,0 +1,26 @@
+package com.hiri.crediya.model.creditscore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class CreditScore {
+    private UUID personId;
+    // Cuota mensual máxima que el salario base puede sostener
+    private BigDecimal monthlyCapacity;
+    // Monto máximo de crédito cuya cuota cabe en monthlyCapacity
+    private BigDecimal maxLoanAmount;
+    private UUID runId;
+    private Instant scoredAt;
+}
@@ -0,0 +1,24 @@
+package com.hiri.crediya.model.creditscore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ScoringReport {
+    private UUID runId;
+    private boolean resumed;
+    // Filas puntuadas en esta ejecución; total incluye las de ejecuciones previas de la misma corrida
+    private long scored;
+    private long total;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
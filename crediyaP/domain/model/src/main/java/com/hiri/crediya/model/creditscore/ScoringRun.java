@@ -0,0 +1,27 @@
+package com.hiri.crediya.model.creditscore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Corrida de scoring y su checkpoint: las personas se recorren en orden de id, así que una corrida
+ * interrumpida se reanuda desde {@code lastPersonId} sin repetir ni saltear filas.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ScoringRun {
+    private UUID runId;
+    // Nulo hasta que se confirma el primer lote
+    private UUID lastPersonId;
+    private long scored;
+    private Instant startedAt;
+}
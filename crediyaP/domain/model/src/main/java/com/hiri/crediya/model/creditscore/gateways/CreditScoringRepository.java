@@ -0,0 +1,21 @@
+package com.hiri.crediya.model.creditscore.gateways;
+
+import com.hiri.crediya.model.creditscore.CreditScore;
+import com.hiri.crediya.model.creditscore.ScoringRun;
+import com.hiri.crediya.model.person.Person;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+public interface CreditScoringRepository {
+    // Reanuda la corrida sin latido en staleAfter o abre una nueva; vacío si otra instancia tiene una en curso
+    Mono<ScoringRun> claimRun(Duration staleAfter);
+    // Personas con id mayor a afterId (todas si es nulo) en orden de id, leídas por páginas
+    Flux<Person> personsAfter(UUID afterId);
+    // Upsert de los puntajes y avance del checkpoint en la misma transacción; emite la corrida actualizada
+    Mono<ScoringRun> saveBatch(ScoringRun run, List<CreditScore> scores);
+    Mono<Void> finishRun(ScoringRun run);
+}
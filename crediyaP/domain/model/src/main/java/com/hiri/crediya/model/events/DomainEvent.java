@@ -0,0 +1,25 @@
+package com.hiri.crediya.model.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DomainEvent {
+    // Único por evento: la entrega es al menos una vez y los consumidores deduplican con él
+    private UUID eventId;
+    private String type;
+    private UUID aggregateId;
+    // JSON del evento tal como se guardó en la outbox
+    private String payload;
+    private Instant occurredAt;
+}
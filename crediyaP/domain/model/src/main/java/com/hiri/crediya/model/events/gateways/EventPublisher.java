@@ -0,0 +1,11 @@
+package com.hiri.crediya.model.events.gateways;
+
+import com.hiri.crediya.model.events.DomainEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface EventPublisher {
+    // Completa solo cuando todo el lote fue aceptado; un error hace que el lote se reintente completo
+    Mono<Void> publish(List<DomainEvent> events);
+}
@@ -0,0 +1,21 @@
+package com.hiri.crediya.model.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class IdempotentResponse {
+    private String fingerprint;
+    private int status;
+    private String location;
+    private String body;
+    // Reservada por una ejecución que todavía no terminó: no hay respuesta para reproducir
+    private boolean pending;
+}
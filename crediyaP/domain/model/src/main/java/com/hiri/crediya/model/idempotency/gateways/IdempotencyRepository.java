@@ -0,0 +1,17 @@
+package com.hiri.crediya.model.idempotency.gateways;
+
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface IdempotencyRepository {
+    // Toma la llave con una reserva pendiente antes de ejecutar; false si otra ejecución vigente ya la tiene
+    Mono<Boolean> reserve(String key, String fingerprint, Duration lease);
+    // Respuesta guardada o reserva pendiente vigente
+    Mono<IdempotentResponse> find(String key);
+    // Completa la reserva con la respuesta
+    Mono<Void> save(String key, IdempotentResponse response, Duration ttl);
+    // Quita la reserva pendiente de una ejecución fallida para que un reintento vuelva a ejecutar
+    Mono<Void> release(String key);
+}
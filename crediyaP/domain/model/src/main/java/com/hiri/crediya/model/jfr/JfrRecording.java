@@ -0,0 +1,55 @@
+package com.hiri.crediya.model.jfr;
+
+import jdk.jfr.Event;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Envuelve un Mono o Flux en un evento JFR que dura desde la suscripción hasta la señal terminal.
+ * Cada evento aporta su instancia (con sus campos de contexto) y cómo registrar el resultado;
+ * si no hay una grabación con el evento habilitado no se crea nada más que la instancia.
+ */
+public final class JfrRecording {
+
+    private JfrRecording() {
+    }
+
+    // onSuccess recibe el valor emitido o null si el Mono terminó vacío
+    public static <E extends Event, T> Mono<T> mono(Supplier<E> events, BiConsumer<E, String> outcome,
+                                                    BiConsumer<E, T> onSuccess, Mono<T> source) {
+        return Mono.defer(() -> {
+            E event = events.get();
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.begin();
+            return source
+                    .doOnSuccess(value -> onSuccess.accept(event, value))
+                    .doOnError(error -> outcome.accept(event, error.getClass().getSimpleName()))
+                    .doOnCancel(() -> outcome.accept(event, "cancelled"))
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    // onNext cuenta los elementos; al completar el resultado es "ok"
+    public static <E extends Event, T> Flux<T> flux(Supplier<E> events, BiConsumer<E, String> outcome,
+                                                    Consumer<E> onNext, Flux<T> source) {
+        return Flux.defer(() -> {
+            E event = events.get();
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.begin();
+            return source
+                    .doOnNext(value -> onNext.accept(event))
+                    .doOnComplete(() -> outcome.accept(event, "ok"))
+                    .doOnError(error -> outcome.accept(event, error.getClass().getSimpleName()))
+                    .doOnCancel(() -> outcome.accept(event, "cancelled"))
+                    .doFinally(signal -> event.commit());
+        });
+    }
+}
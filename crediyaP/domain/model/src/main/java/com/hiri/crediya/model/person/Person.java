@@ -24,4 +24,6 @@ public class Person {
     private String email;
     private BigDecimal baseSalary;
     private BigInteger role;
+    // Se incrementa en cada actualización de la fila; base de los ETag
+    private Long version;
 }
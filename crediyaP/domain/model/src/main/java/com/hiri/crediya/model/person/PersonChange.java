@@ -0,0 +1,32 @@
+package com.hiri.crediya.model.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PersonChange {
+    private Type type;
+    private UUID id;
+    private String document;
+    private Long version;
+    // Momento del cambio en la base; permite medir el retraso hasta cada suscriptor
+    private Instant at;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // Carga masiva: no se notifica fila por fila, los consumidores deben resincronizar
+        BULK_IMPORT
+    }
+}
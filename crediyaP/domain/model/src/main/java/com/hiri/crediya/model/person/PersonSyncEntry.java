@@ -0,0 +1,33 @@
+package com.hiri.crediya.model.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PersonSyncEntry {
+    // Transacción que escribió el cambio y su posición en persons_change_seq (ver PersonSyncToken)
+    private long transaction;
+    private long sequence;
+    private boolean deleted;
+    // En las bajas solo trae id y documento
+    private Person person;
+
+    // El consumidor guarda el token de la última entrada para pedir la siguiente página
+    public PersonSyncToken token() {
+        return new PersonSyncToken(transaction, sequence);
+    }
+
+    // El almacenamiento no puede dar un único token ordenado (p. ej. personas repartidas en shards)
+    public static class SyncUnavailableException extends RuntimeException {
+        public SyncUnavailableException(String msg) {
+            super(msg);
+        }
+    }
+}
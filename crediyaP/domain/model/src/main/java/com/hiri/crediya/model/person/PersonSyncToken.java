@@ -0,0 +1,42 @@
+package com.hiri.crediya.model.person;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Posición en el flujo de cambios de /sync: transacción que escribió el cambio y su secuencia.
+ * Se ordena primero por transacción porque el orden de secuencia no es el de commit: una transacción
+ * abierta puede tener secuencias menores que otra ya confirmada. Se serializa como "transaccion.secuencia".
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class PersonSyncToken {
+    public static final PersonSyncToken START = new PersonSyncToken(0L, 0L);
+
+    private final long transaction;
+    private final long sequence;
+
+    // Un número solo es un token del formato anterior (solo secuencia): se resincroniza desde el inicio
+    public static PersonSyncToken parse(String token) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            if (Long.parseLong(token) < 0) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            return START;
+        }
+        long transaction = Long.parseLong(token.substring(0, dot));
+        long sequence = Long.parseLong(token.substring(dot + 1));
+        if (transaction < 0 || sequence < 0) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+        return new PersonSyncToken(transaction, sequence);
+    }
+
+    @Override
+    public String toString() {
+        return transaction + "." + sequence;
+    }
+}
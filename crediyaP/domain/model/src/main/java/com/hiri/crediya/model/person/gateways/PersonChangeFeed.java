@@ -0,0 +1,14 @@
+package com.hiri.crediya.model.person.gateways;
+
+import com.hiri.crediya.model.person.PersonChange;
+import reactor.core.publisher.Flux;
+
+public interface PersonChangeFeed {
+    // Flujo caliente: solo recibe los cambios ocurridos mientras se está suscrito
+    Flux<PersonChange> changes();
+
+    // true mientras los cambios llegan; un false indica que se pudieron perder cambios hasta el próximo true
+    default Flux<Boolean> listening() {
+        return Flux.just(true);
+    }
+}
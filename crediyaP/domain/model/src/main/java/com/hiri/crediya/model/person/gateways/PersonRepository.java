@@ -1,6 +1,8 @@
 package com.hiri.crediya.model.person.gateways;
 
 import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -13,6 +15,10 @@ public interface PersonRepository {
     Mono<Person> findById(UUID id);
     Flux<Person> getAllPersons(int page, int size);
     Mono<Void> deletePerson(UUID id);
+    // Recorre toda la tabla con cursor; el consumidor controla el ritmo (backpressure)
+    Flux<Person> streamAll();
+    // Altas, cambios y bajas posteriores a after, en orden de token (transacción, secuencia)
+    Flux<PersonSyncEntry> changesSince(PersonSyncToken after, int limit);
 }
 
 
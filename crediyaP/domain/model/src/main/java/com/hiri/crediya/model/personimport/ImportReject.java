@@ -0,0 +1,18 @@
+package com.hiri.crediya.model.personimport;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ImportReject {
+    private long lineNumber;
+    private String document;
+    private String reason;
+}
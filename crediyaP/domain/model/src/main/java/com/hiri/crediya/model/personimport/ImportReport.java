@@ -0,0 +1,48 @@
+package com.hiri.crediya.model.personimport;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva. Solo se guardan los primeros {@code maxRejects} rechazos;
+ * el resto únicamente se cuenta, para que el reporte no crezca con el tamaño del archivo.
+ */
+@Getter
+public class ImportReport {
+    private long total;
+    private long imported;
+    private long rejected;
+    private boolean rejectsTruncated;
+    private final List<ImportReject> rejects = new ArrayList<>();
+    private final int maxRejects;
+
+    public ImportReport(int maxRejects) {
+        this.maxRejects = maxRejects;
+    }
+
+    public void countRow() {
+        total++;
+    }
+
+    public void reject(PersonImportRow row) {
+        rejected++;
+        if (rejects.size() < maxRejects) {
+            String document = row.getPerson() != null ? row.getPerson().getDocument() : null;
+            rejects.add(new ImportReject(row.getLineNumber(), document, row.getError()));
+        } else {
+            rejectsTruncated = true;
+        }
+    }
+
+    public ImportReport finish() {
+        imported = total - rejected;
+        return this;
+    }
+
+    public List<ImportReject> getRejects() {
+        return Collections.unmodifiableList(rejects);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hiri.crediya.model.personimport;
+
+import com.hiri.crediya.model.person.Person;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PersonImportRow {
+    // Línea del archivo original, para poder ubicar el rechazo
+    private long lineNumber;
+    private Person person;
+    // null mientras la fila sea válida
+    private String error;
+
+    public boolean isRejected() {
+        return error != null;
+    }
+
+    // El almacenamiento no puede cargar en bloque (p. ej. personas repartidas en shards)
+    public static class ImportUnavailableException extends RuntimeException {
+        public ImportUnavailableException(String msg) {
+            super(msg);
+        }
+    }
+}
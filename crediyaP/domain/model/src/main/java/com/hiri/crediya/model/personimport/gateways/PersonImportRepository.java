@@ -0,0 +1,10 @@
+package com.hiri.crediya.model.personimport.gateways;
+
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import reactor.core.publisher.Flux;
+
+public interface PersonImportRepository {
+    // Escribe las filas válidas en bloque y emite cada una con su resultado: las importadas con el id
+    // asignado y las que la base rechaza (duplicados, longitudes) con el motivo
+    Flux<PersonImportRow> importPersons(Flux<PersonImportRow> rows);
+}
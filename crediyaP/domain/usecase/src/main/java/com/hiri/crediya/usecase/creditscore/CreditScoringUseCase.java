@@ -0,0 +1,104 @@
+package com.hiri.crediya.usecase.creditscore;
+
+import com.hiri.crediya.model.creditscore.CreditScore;
+import com.hiri.crediya.model.creditscore.ScoringReport;
+import com.hiri.crediya.model.creditscore.ScoringRun;
+import com.hiri.crediya.model.creditscore.gateways.CreditScoringRepository;
+import com.hiri.crediya.model.person.Person;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scoring de capacidad de crédito de todas las personas. Los lotes se puntúan en paralelo en un
+ * scheduler acotado pero se escriben en orden de id, uno a la vez, junto con su checkpoint: si la
+ * corrida se interrumpe, la siguiente ejecución continúa desde el último lote confirmado.
+ */
+@RequiredArgsConstructor
+public class CreditScoringUseCase {
+    // Parte del salario que puede comprometerse en cuotas
+    static final BigDecimal MAX_DEBT_TO_INCOME = new BigDecimal("0.35");
+    // Tasa mensual y plazo de referencia con los que se estima el monto máximo
+    static final BigDecimal REFERENCE_MONTHLY_RATE = new BigDecimal("0.015");
+    static final int REFERENCE_TERM_MONTHS = 60;
+    // (1 - (1 + r)^-n) / r: valor presente de una cuota de 1 al plazo y tasa de referencia
+    private static final BigDecimal ANNUITY_FACTOR = BigDecimal.ONE
+            .subtract(BigDecimal.ONE.add(REFERENCE_MONTHLY_RATE).pow(-REFERENCE_TERM_MONTHS, MathContext.DECIMAL64))
+            .divide(REFERENCE_MONTHLY_RATE, MathContext.DECIMAL64);
+
+    private final CreditScoringRepository repository;
+    private final Scheduler scheduler;
+    private final int concurrency;
+    private final int batchSize;
+    private final Duration staleAfter;
+
+    public Mono<ScoringReport> run() {
+        return repository.claimRun(staleAfter)
+                .switchIfEmpty(Mono.error(new CreditScoringException("A credit scoring run is already in progress")))
+                .flatMap(this::resume);
+    }
+
+    private Mono<ScoringReport> resume(ScoringRun claimed) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicReference<ScoringRun> checkpoint = new AtomicReference<>(claimed);
+            // flatMapSequential puntúa hasta `concurrency` lotes a la vez y los entrega en el orden del cursor
+            return repository.personsAfter(claimed.getLastPersonId())
+                    .buffer(batchSize)
+                    .flatMapSequential(batch -> Mono.fromCallable(() -> scoreAll(batch, claimed.getRunId()))
+                            .subscribeOn(scheduler), concurrency)
+                    .concatMap(scores -> repository.saveBatch(checkpoint.get(), scores))
+                    .doOnNext(checkpoint::set)
+                    .then(Mono.defer(() -> repository.finishRun(checkpoint.get())))
+                    .then(Mono.fromSupplier(() -> report(claimed, checkpoint.get(), System.nanoTime() - start)));
+        });
+    }
+
+    private static List<CreditScore> scoreAll(List<Person> batch, UUID runId) {
+        Instant now = Instant.now();
+        return batch.stream().map(person -> score(person, runId, now)).toList();
+    }
+
+    // Cuota = salario * DTI; monto = valor presente de esa cuota al plazo y tasa de referencia
+    public static CreditScore score(Person person, UUID runId, Instant scoredAt) {
+        BigDecimal salary = person.getBaseSalary() != null && person.getBaseSalary().signum() > 0
+                ? person.getBaseSalary()
+                : BigDecimal.ZERO;
+        BigDecimal monthly = salary.multiply(MAX_DEBT_TO_INCOME);
+        return CreditScore.builder()
+                .personId(person.getId())
+                .monthlyCapacity(monthly.setScale(2, RoundingMode.DOWN))
+                .maxLoanAmount(monthly.multiply(ANNUITY_FACTOR).setScale(2, RoundingMode.DOWN))
+                .runId(runId)
+                .scoredAt(scoredAt)
+                .build();
+    }
+
+    private static ScoringReport report(ScoringRun claimed, ScoringRun finished, long elapsedNanos) {
+        long scored = finished.getScored() - claimed.getScored();
+        long elapsedMillis = Duration.ofNanos(elapsedNanos).toMillis();
+        return ScoringReport.builder()
+                .runId(claimed.getRunId())
+                .resumed(claimed.getLastPersonId() != null)
+                .scored(scored)
+                .total(finished.getScored())
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(elapsedNanos > 0 ? scored * 1_000_000_000d / elapsedNanos : 0)
+                .build();
+    }
+
+    public static class CreditScoringException extends RuntimeException {
+        public CreditScoringException(String msg) {
+            super(msg);
+        }
+    }
+}
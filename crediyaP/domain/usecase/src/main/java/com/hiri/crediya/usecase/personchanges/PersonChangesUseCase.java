@@ -0,0 +1,15 @@
+package com.hiri.crediya.usecase.personchanges;
+
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class PersonChangesUseCase {
+    private final PersonChangeFeed feed;
+
+    public Flux<PersonChange> changes() {
+        return feed.changes();
+    }
+}
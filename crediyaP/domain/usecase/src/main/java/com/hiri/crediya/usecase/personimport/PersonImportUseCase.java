@@ -0,0 +1,60 @@
+package com.hiri.crediya.usecase.personimport;
+
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.personimport.ImportReport;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import com.hiri.crediya.model.personimport.gateways.PersonImportRepository;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class PersonImportUseCase {
+    private static final int MAX_REPORTED_REJECTS = 1000;
+
+    private final PersonUseCase personUseCase;
+    private final PersonImportRepository repository;
+    private final AuditTrail auditTrail;
+
+    public Mono<ImportReport> importPersons(Flux<PersonImportRow> rows, String actor) {
+        return Mono.defer(() -> {
+            ImportReport report = new ImportReport(MAX_REPORTED_REJECTS);
+            // La validación es síncrona y barata: en línea, sin saltar de hilo por fila; concatMap mantiene el orden
+            Flux<PersonImportRow> valid = rows
+                    .concatMap(this::validate)
+                    .doOnNext(row -> report.countRow())
+                    .filter(row -> {
+                        if (row.isRejected()) {
+                            report.reject(row);
+                            return false;
+                        }
+                        return true;
+                    });
+            // Cada alta del lote queda auditada como un alta individual, con el mismo actor
+            return repository.importPersons(valid)
+                    .concatMap(row -> row.isRejected()
+                            ? Mono.<Void>fromRunnable(() -> report.reject(row))
+                            : auditTrail.record(AuditEvent.builder()
+                                    .actor(actor)
+                                    .action(AuditAction.CREATE)
+                                    .personId(row.getPerson().getId())
+                                    .document(row.getPerson().getDocument())
+                                    .build()))
+                    .then(Mono.fromSupplier(report::finish));
+        });
+    }
+
+    // Mismas reglas que el alta individual; la unicidad se resuelve en bloque en la base
+    private Mono<PersonImportRow> validate(PersonImportRow row) {
+        if (row.isRejected()) {
+            return Mono.just(row);
+        }
+        return personUseCase.validatePerson(row.getPerson())
+                .thenReturn(row)
+                .onErrorResume(PersonUseCase.PersonUseCaseException.class,
+                        e -> Mono.just(row.toBuilder().error(e.getMessage()).build()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.hiri.crediya.usecase.personregistry;
 
 import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
 import com.hiri.crediya.model.person.gateways.PersonRepository;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
@@ -11,46 +13,58 @@ import java.util.UUID;
 
 @RequiredArgsConstructor
 public class PersonUseCase {
+    public static final int MAX_SYNC_BATCH = 1000;
     private final PersonRepository repository;
 
     public Mono<Person> execute(Person person) {
-        return validatePerson(person)
+        return PersonUseCaseEvent.mono("execute", validatePerson(person)
                 .flatMap(p -> repository.existsByEmailOrDocument(p.getEmail(), p.getDocument())
                         .flatMap(exist -> exist
                                 ? Mono.error(new PersonUseCaseException("Person document or email already registered " + p.getEmail() + "-" + p.getDocument()))
                                 : repository.save(p))
-                );
+                ));
     }
 
     public Mono<Person> findByDocument(String document) {
-        return repository.findByDocument(document)
-                .switchIfEmpty(Mono.error(new PersonUseCaseException("Person not found: " + document)));
+        return PersonUseCaseEvent.mono("findByDocument", repository.findByDocument(document)
+                .switchIfEmpty(Mono.error(new PersonUseCaseException("Person not found: " + document))));
     }
 
     public Flux<Person> getList(int page, int size) {
-        return repository.getAllPersons(page, size)
-                .switchIfEmpty(Mono.error(new PersonUseCaseException("There are no persons in the system")));
+        return PersonUseCaseEvent.flux("getList", repository.getAllPersons(page, size)
+                .switchIfEmpty(Mono.error(new PersonUseCaseException("There are no persons in the system"))));
+    }
+
+    public Flux<Person> exportAll() {
+        return PersonUseCaseEvent.flux("exportAll", repository.streamAll());
+    }
+
+    public Flux<PersonSyncEntry> changesSince(PersonSyncToken after, int limit) {
+        if (after == null || after.getTransaction() < 0 || after.getSequence() < 0) {
+            return Flux.error(new PersonUseCaseException("Sync token must be zero or positive"));
+        }
+        return PersonUseCaseEvent.flux("changesSince", repository.changesSince(after, Math.max(1, Math.min(limit, MAX_SYNC_BATCH))));
     }
 
     public Mono<Person> findById(UUID id) {
-        return repository.findById(id)
-                .switchIfEmpty(Mono.error(new PersonUseCaseException("User not found: " + id)));
+        return PersonUseCaseEvent.mono("findById", repository.findById(id)
+                .switchIfEmpty(Mono.error(new PersonUseCaseException("User not found: " + id))));
     }
 
     public Mono<UUID> delete(UUID id) {
-        return findById(id)
+        return PersonUseCaseEvent.mono("delete", findById(id)
                 .flatMap(p -> repository.deletePerson(p.getId()))
-                .then(Mono.just(id));
+                .then(Mono.just(id)));
     }
 
     public Mono<Person> update(Person p) {
-        return repository.existsByEmailOrDocument(p.getEmail(), p.getDocument())
+        return PersonUseCaseEvent.mono("update", repository.existsByEmailOrDocument(p.getEmail(), p.getDocument())
                 .flatMap(exist -> exist
                         ? Mono.error(new PersonUseCaseException("Person document or email already registered " + p.getEmail() + " - " + p.getDocument()))
-                        : repository.save(p));
+                        : repository.save(p)));
     }
 
-    private Mono<Person> validatePerson(Person u) {
+    public Mono<Person> validatePerson(Person u) {
         if (u == null) return Mono.error(new PersonUseCaseException("User Object required"));
         if (invalidField(u.getNames())) return Mono.error(new PersonUseCaseException("Names required"));
         if (invalidField(u.getLastnames())) return Mono.error(new PersonUseCaseException("Last names required"));
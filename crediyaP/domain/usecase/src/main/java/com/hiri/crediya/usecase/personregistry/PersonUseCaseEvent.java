@@ -0,0 +1,46 @@
+package com.hiri.crediya.usecase.personregistry;
+
+import com.hiri.crediya.model.jfr.JfrRecording;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evento JFR por operación de PersonUseCase: dura desde la suscripción hasta la señal terminal.
+ * Si no hay una grabación con el evento habilitado no se crea nada más que la instancia.
+ */
+@Name("com.hiri.crediya.PersonUseCase")
+@Label("Person Use Case")
+@Category({"Crediya", "Use Case"})
+@Description("Person use case operation from subscription to terminal signal")
+@StackTrace(false)
+class PersonUseCaseEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Items")
+    long items;
+
+    PersonUseCaseEvent(String operation) {
+        this.operation = operation;
+    }
+
+    static <T> Mono<T> mono(String operation, Mono<T> source) {
+        return JfrRecording.mono(() -> new PersonUseCaseEvent(operation), (event, outcome) -> event.outcome = outcome,
+                (event, value) -> event.outcome = value == null ? "empty" : "ok", source);
+    }
+
+    static <T> Flux<T> flux(String operation, Flux<T> source) {
+        return JfrRecording.flux(() -> new PersonUseCaseEvent(operation), (event, outcome) -> event.outcome = outcome,
+                event -> event.items++, source);
+    }
+}
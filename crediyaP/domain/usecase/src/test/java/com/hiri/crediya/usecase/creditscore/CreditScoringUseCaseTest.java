@@ -0,0 +1,170 @@
+package com.hiri.crediya.usecase.creditscore;
+
+import com.hiri.crediya.model.creditscore.CreditScore;
+import com.hiri.crediya.model.creditscore.ScoringRun;
+import com.hiri.crediya.model.creditscore.gateways.CreditScoringRepository;
+import com.hiri.crediya.model.person.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CreditScoringUseCase following hexagonal architecture.
+ * Uses an in-memory repository instead of mocks to keep domain layer clean.
+ */
+class CreditScoringUseCaseTest {
+
+    private final Scheduler scheduler = Schedulers.newParallel("credit-scoring-test", 4);
+    private final List<Person> persons = IntStream.range(0, 10)
+            .mapToObj(i -> Person.builder()
+                    .id(new UUID(0L, i + 1))
+                    .baseSalary(new BigDecimal(1_000_000 + i))
+                    .build())
+            .toList();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    // Simula la base: personas en orden de id y checkpoint que avanza con cada lote
+    private static class InMemoryRepository implements CreditScoringRepository {
+        private final List<Person> persons;
+        private final List<CreditScore> saved = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private ScoringRun run;
+        private boolean finished;
+
+        InMemoryRepository(List<Person> persons, ScoringRun run) {
+            this.persons = persons;
+            this.run = run;
+        }
+
+        @Override
+        public Mono<ScoringRun> claimRun(Duration staleAfter) {
+            return Mono.justOrEmpty(run);
+        }
+
+        @Override
+        public Flux<Person> personsAfter(UUID afterId) {
+            return Flux.fromIterable(persons).filter(p -> afterId == null || p.getId().compareTo(afterId) > 0);
+        }
+
+        @Override
+        public Mono<ScoringRun> saveBatch(ScoringRun current, List<CreditScore> scores) {
+            saved.addAll(scores);
+            batchSizes.add(scores.size());
+            run = current.toBuilder()
+                    .lastPersonId(scores.get(scores.size() - 1).getPersonId())
+                    .scored(current.getScored() + scores.size())
+                    .build();
+            return Mono.just(run);
+        }
+
+        @Override
+        public Mono<Void> finishRun(ScoringRun finishedRun) {
+            finished = true;
+            return Mono.empty();
+        }
+    }
+
+    private CreditScoringUseCase useCase(CreditScoringRepository repository) {
+        return new CreditScoringUseCase(repository, scheduler, 4, 3, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldScoreEveryPersonInIdOrderAndFinishRun() {
+        // Given
+        ScoringRun run = ScoringRun.builder().runId(UUID.randomUUID()).build();
+        InMemoryRepository repository = new InMemoryRepository(persons, run);
+
+        // When & Then
+        StepVerifier.create(useCase(repository).run())
+                .assertNext(report -> {
+                    assertThat(report.getScored()).isEqualTo(10);
+                    assertThat(report.getTotal()).isEqualTo(10);
+                    assertThat(report.isResumed()).isFalse();
+                    assertThat(report.getRowsPerSecond()).isPositive();
+                })
+                .verifyComplete();
+        assertThat(repository.batchSizes).containsExactly(3, 3, 3, 1);
+        assertThat(repository.saved).extracting(CreditScore::getPersonId)
+                .containsExactlyElementsOf(persons.stream().map(Person::getId).toList());
+        assertThat(repository.saved).allSatisfy(score -> assertThat(score.getRunId()).isEqualTo(run.getRunId()));
+        assertThat(repository.finished).isTrue();
+    }
+
+    @Test
+    void shouldResumeFromCheckpoint() {
+        // Given - una ejecución anterior confirmó las primeras 6 personas
+        ScoringRun run = ScoringRun.builder()
+                .runId(UUID.randomUUID())
+                .lastPersonId(persons.get(5).getId())
+                .scored(6)
+                .build();
+        InMemoryRepository repository = new InMemoryRepository(persons, run);
+
+        // When & Then
+        StepVerifier.create(useCase(repository).run())
+                .assertNext(report -> {
+                    assertThat(report.isResumed()).isTrue();
+                    assertThat(report.getScored()).isEqualTo(4);
+                    assertThat(report.getTotal()).isEqualTo(10);
+                })
+                .verifyComplete();
+        assertThat(repository.saved).extracting(CreditScore::getPersonId)
+                .containsExactlyElementsOf(persons.subList(6, 10).stream().map(Person::getId).toList());
+    }
+
+    @Test
+    void shouldFailWhenAnotherRunIsInProgress() {
+        // Given
+        InMemoryRepository repository = new InMemoryRepository(persons, null);
+
+        // When & Then
+        StepVerifier.create(useCase(repository).run())
+                .expectError(CreditScoringUseCase.CreditScoringException.class)
+                .verify();
+        assertThat(repository.saved).isEmpty();
+    }
+
+    @Test
+    void shouldComputeCapacityFromBaseSalary() {
+        // Given
+        Person person = Person.builder().id(UUID.randomUUID()).baseSalary(new BigDecimal("1000000")).build();
+
+        // When
+        CreditScore score = CreditScoringUseCase.score(person, UUID.randomUUID(), Instant.now());
+
+        // Then - 35% del salario como cuota, 60 meses al 1.5% mensual
+        assertThat(score.getMonthlyCapacity()).isEqualByComparingTo("350000.00");
+        assertThat(score.getMaxLoanAmount()).isEqualByComparingTo("13783094.10");
+    }
+
+    @Test
+    void shouldGiveZeroCapacityWithoutSalary() {
+        // Given
+        Person person = Person.builder().id(UUID.randomUUID()).build();
+
+        // When
+        CreditScore score = CreditScoringUseCase.score(person, UUID.randomUUID(), Instant.now());
+
+        // Then
+        assertThat(score.getMonthlyCapacity()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(score.getMaxLoanAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+}
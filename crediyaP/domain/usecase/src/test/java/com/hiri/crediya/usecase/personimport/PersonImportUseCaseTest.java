@@ -0,0 +1,95 @@
+package com.hiri.crediya.usecase.personimport;
+
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import com.hiri.crediya.model.personimport.gateways.PersonImportRepository;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonImportUseCase following hexagonal architecture.
+ * Uses test implementations instead of mocks to keep domain layer clean.
+ */
+class PersonImportUseCaseTest {
+
+    private final List<Long> written = new ArrayList<>();
+    private final List<AuditEvent> audited = new ArrayList<>();
+    private final AuditTrail auditTrail = event -> Mono.fromRunnable(() -> audited.add(event));
+
+    private PersonImportRow row(long line, String document, String email) {
+        return PersonImportRow.builder()
+                .lineNumber(line)
+                .person(Person.builder()
+                        .names("Juan")
+                        .lastnames("Pérez")
+                        .password("password123")
+                        .document(document)
+                        .email(email)
+                        .baseSalary(new BigDecimal("5000000"))
+                        .role(BigInteger.valueOf(3))
+                        .build())
+                .build();
+    }
+
+    // Simula la base: rechaza como duplicado el documento "dup" y asigna id al resto
+    private PersonImportRepository testRepository() {
+        return rows -> rows
+                .doOnNext(r -> written.add(r.getLineNumber()))
+                .map(r -> "dup".equals(r.getPerson().getDocument())
+                        ? r.toBuilder().error("Document or email already registered").build()
+                        : r.toBuilder().person(r.getPerson().toBuilder().id(UUID.randomUUID()).build()).build());
+    }
+
+    @Test
+    void shouldImportValidRowsAndReportRejects() {
+        // Given
+        PersonImportUseCase useCase = new PersonImportUseCase(new PersonUseCase(null), testRepository(), auditTrail);
+        Flux<PersonImportRow> rows = Flux.just(
+                row(2, "100", "a@example.com"),
+                row(3, "101", "not-an-email"),
+                row(4, "dup", "b@example.com"),
+                PersonImportRow.builder().lineNumber(5).error("Malformed line").build(),
+                row(6, "102", "c@example.com"));
+
+        // When & Then
+        StepVerifier.create(useCase.importPersons(rows, "token:importer"))
+                .expectNextMatches(report -> report.getTotal() == 5
+                        && report.getImported() == 2
+                        && report.getRejected() == 3
+                        && report.getRejects().get(0).getLineNumber() == 3
+                        && report.getRejects().get(0).getReason().equals("Invalid email format"))
+                .verifyComplete();
+        assertThat(written).containsExactly(2L, 4L, 6L);
+        assertThat(audited).extracting(AuditEvent::getDocument).containsExactly("100", "102");
+        assertThat(audited).allMatch(event -> event.getAction() == AuditAction.CREATE
+                && "token:importer".equals(event.getActor()) && event.getPersonId() != null);
+    }
+
+    @Test
+    void shouldCapRejectsListButCountAll() {
+        // Given
+        PersonImportUseCase useCase = new PersonImportUseCase(new PersonUseCase(null), testRepository(), auditTrail);
+        Flux<PersonImportRow> rows = Flux.range(0, 1500).map(i -> row(i + 2, "doc" + i, "bad-email"));
+
+        // When & Then
+        StepVerifier.create(useCase.importPersons(rows, "token:importer"))
+                .expectNextMatches(report -> report.getRejected() == 1500
+                        && report.getRejects().size() == 1000
+                        && report.isRejectsTruncated())
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,36 @@
+package com.hiri.crediya.infrastructure.drivenadapters.httpclient;
+
+import com.hiri.crediya.model.jfr.JfrRecording;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evento JFR por llamada al servicio de auth (validación de rol), con su resultado.
+ */
+@Name("com.hiri.crediya.AuthCall")
+@Label("Auth Service Call")
+@Category({"Crediya", "Auth"})
+@Description("Role validation call to the auth service")
+@StackTrace(false)
+class AuthCallEvent extends Event {
+
+    @Label("Role")
+    String role;
+
+    @Label("Outcome")
+    String outcome;
+
+    AuthCallEvent(String role) {
+        this.role = role;
+    }
+
+    static Mono<Boolean> record(String role, Mono<Boolean> call) {
+        return JfrRecording.mono(() -> new AuthCallEvent(role), (event, outcome) -> event.outcome = outcome,
+                (event, authorized) -> event.outcome = Boolean.TRUE.equals(authorized) ? "authorized" : "denied", call);
+    }
+}
@@ -23,39 +23,39 @@ public class AuthServiceClient implements AuthRepository {
     @Override
     public Mono<Boolean> validateAdminRole(String token) {
         log.info("Calling auth service to validate admin role at: {}", authServiceUrl);
-        return webClient.get()
+        return AuthCallEvent.record("admin", webClient.get()
                 .uri(authServiceUrl + "/api/v1/validate/admin")
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
                 .retrieve()
                 .bodyToMono(RoleValidationResponse.class)
                 .map(RoleValidationResponse::isAuthorized)
                 .doOnSuccess(authorized -> log.info("Admin validation successful: {}", authorized))
-                .doOnError(error -> log.error("Admin validation failed: {}", error.getMessage()));
+                .doOnError(error -> log.error("Admin validation failed: {}", error.getMessage())));
     }
 
     @Override
     public Mono<Boolean> validateAdvisorRole(String token) {
         log.info("Calling auth service to validate advisor role at: {}", authServiceUrl);
-        return webClient.get()
+        return AuthCallEvent.record("advisor", webClient.get()
                 .uri(authServiceUrl + "/api/v1/validate/advisor")
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
                 .retrieve()
                 .bodyToMono(RoleValidationResponse.class)
                 .map(RoleValidationResponse::isAuthorized)
                 .doOnSuccess(authorized -> log.info("Advisor validation successful: {}", authorized))
-                .doOnError(error -> log.error("Advisor validation failed: {}", error.getMessage()));
+                .doOnError(error -> log.error("Advisor validation failed: {}", error.getMessage())));
     }
     
     @Override
     public Mono<Boolean> validateClientRole(String token) {
         log.info("Calling auth service to validate client role at: {}", authServiceUrl);
-        return webClient.get()
+        return AuthCallEvent.record("client", webClient.get()
                 .uri(authServiceUrl + "/api/v1/validate/client")
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
                 .retrieve()
                 .bodyToMono(RoleValidationResponse.class)
                 .map(RoleValidationResponse::isAuthorized)
                 .doOnSuccess(authorized -> log.info("Client validation successful: {}", authorized))
-                .doOnError(error -> log.error("Client validation failed: {}", error.getMessage()));
+                .doOnError(error -> log.error("Client validation failed: {}", error.getMessage())));
     }
 }
@@ -0,0 +1,43 @@
+package com.hiri.crediya.infrastructure.drivenadapters.httpclient.events;
+
+import com.hiri.crediya.model.events.DomainEvent;
+import com.hiri.crediya.model.events.gateways.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publica cada lote como un arreglo JSON en un único POST; cualquier respuesta que no sea 2xx
+ * hace fallar el lote para que la outbox lo reintente.
+ */
+@Slf4j
+public class HttpEventPublisher implements EventPublisher {
+
+    private final WebClient webClient;
+    private final String url;
+    private final Duration timeout;
+
+    public HttpEventPublisher(WebClient webClient, String url, Duration timeout) {
+        this.webClient = webClient;
+        this.url = url;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<Void> publish(List<DomainEvent> events) {
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(events)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeout)
+                .doOnSuccess(response -> log.debug("Published {} events to {}", events.size(), url))
+                .doOnError(error -> log.error("Event publication to {} failed: {}", url, error.getMessage()))
+                .then();
+    }
+}
@@ -0,0 +1,46 @@
+package com.hiri.crediya.infrastructure.drivenadapters.httpclient.events;
+
+import com.hiri.crediya.model.events.DomainEvent;
+import com.hiri.crediya.model.events.gateways.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in local del broker: registra los eventos en log y guarda los últimos {@code capacity}
+ * para inspección. Útil en desarrollo y pruebas mientras no existe el consumidor real.
+ */
+@Slf4j
+public class InMemoryEventPublisher implements EventPublisher {
+
+    private final int capacity;
+    private final Deque<DomainEvent> recent = new ArrayDeque<>();
+
+    public InMemoryEventPublisher(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public Mono<Void> publish(List<DomainEvent> events) {
+        return Mono.fromRunnable(() -> {
+            synchronized (recent) {
+                for (DomainEvent event : events) {
+                    if (recent.size() == capacity) {
+                        recent.removeFirst();
+                    }
+                    recent.addLast(event);
+                }
+            }
+            log.info("Published {} events in memory", events.size());
+        });
+    }
+
+    public List<DomainEvent> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
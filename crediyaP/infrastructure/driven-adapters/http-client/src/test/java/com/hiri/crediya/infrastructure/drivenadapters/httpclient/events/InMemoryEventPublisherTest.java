@@ -0,0 +1,44 @@
+package com.hiri.crediya.infrastructure.drivenadapters.httpclient.events;
+
+import com.hiri.crediya.model.events.DomainEvent;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for InMemoryEventPublisher.
+ * Uses plain domain events; no broker or HTTP endpoint is involved.
+ */
+class InMemoryEventPublisherTest {
+
+    @Test
+    void shouldKeepOnlyMostRecentEventsUpToCapacity() {
+        // Given
+        InMemoryEventPublisher publisher = new InMemoryEventPublisher(2);
+        DomainEvent first = event();
+        DomainEvent second = event();
+        DomainEvent third = event();
+
+        // When
+        StepVerifier.create(publisher.publish(List.of(first, second))).verifyComplete();
+        StepVerifier.create(publisher.publish(List.of(third))).verifyComplete();
+
+        // Then
+        assertThat(publisher.recent()).containsExactly(second, third);
+    }
+
+    private DomainEvent event() {
+        return DomainEvent.builder()
+                .eventId(UUID.randomUUID())
+                .type("PersonRegistered")
+                .aggregateId(UUID.randomUUID())
+                .payload("{}")
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
@@ -18,6 +18,13 @@ public interface PersonReactiveRepository extends R2dbcRepository<PersonEntity,
     Mono<Void> deleteById(UUID id);
     Mono<Person> getById(UUID id);
 
+    // archived = false poda la consulta a persons_hot (ver V8__persons_partitioning)
+    @Query("SELECT * FROM persons WHERE document = :document AND archived = false")
+    Mono<Person> findActiveByDocument(@Param("document") String document);
+
+    @Query("SELECT * FROM persons WHERE id = :id AND archived = false")
+    Mono<Person> findActiveById(@Param("id") UUID id);
+
     @Query("SELECT * FROM persons ORDER BY id LIMIT :limit OFFSET :offset")
     Flux<Person> getAllPersons(@Param("offset")int page, @Param("limit")int size);
 }
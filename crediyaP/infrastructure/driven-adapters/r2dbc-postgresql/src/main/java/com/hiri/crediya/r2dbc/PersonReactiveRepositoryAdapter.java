@@ -1,55 +1,138 @@
 package com.hiri.crediya.r2dbc;
 
 import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
 import com.hiri.crediya.model.person.gateways.PersonRepository;
+import com.hiri.crediya.r2dbc.batch.PersonWriteCoalescer;
+import com.hiri.crediya.r2dbc.bloom.PersonExistenceFilter;
+import com.hiri.crediya.r2dbc.cache.PersonNearCache;
 import com.hiri.crediya.r2dbc.entity.PersonEntity;
+import com.hiri.crediya.r2dbc.routing.ReadWriteRoutingConnectionFactory;
 import lombok.RequiredArgsConstructor;
+import io.r2dbc.spi.Row;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Repository
 @RequiredArgsConstructor
 public class PersonReactiveRepositoryAdapter implements PersonRepository {
+    // Sin ORDER BY: un seq scan no necesita ordenar ni materializar la tabla en el servidor
+    private static final String EXPORT_QUERY = """
+            SELECT id, names, lastnames, document, birthdate, address, phone, email, base_salary, role, version
+            FROM persons""";
+    private static final int EXPORT_FETCH_SIZE = 500;
+    // Orden por (transacción, secuencia) y solo transacciones anteriores al xmin actual: toda transacción
+    // aún abierta o futura tiene un xid mayor o igual, así que nunca queda detrás del token del consumidor
+    // aunque haya tomado una secuencia menor que otra ya confirmada
+    private static final String CHANGES_SINCE_QUERY = """
+            SELECT * FROM (
+                SELECT change_xid, change_xid::text::bigint AS change_tx, change_seq, false AS deleted, id, names,
+                       lastnames, document, birthdate, address, phone, email, base_salary, role, version
+                FROM persons
+                WHERE (change_xid, change_seq) > (CAST(CAST(:tx AS text) AS xid8), :seq)
+                  AND change_xid < pg_snapshot_xmin(pg_current_snapshot())
+                UNION ALL
+                SELECT change_xid, change_xid::text::bigint, change_seq, true, id, NULL, NULL, document, NULL, NULL,
+                       NULL, NULL, NULL, NULL, NULL
+                FROM persons_tombstones
+                WHERE (change_xid, change_seq) > (CAST(CAST(:tx AS text) AS xid8), :seq)
+                  AND change_xid < pg_snapshot_xmin(pg_current_snapshot())
+            ) changes
+            ORDER BY change_xid, change_seq
+            LIMIT :limit""";
+
     private final TransactionalOperator tx; // ← transacción en INFRA
     private final PersonReactiveRepository r2dbc;
+    private final PersonWriteCoalescer coalescer;
+    private final DatabaseClient client;
+    private final PersonExistenceFilter existenceFilter;
+    private final PersonNearCache nearCache;
 
     @Override
     public Mono<Boolean> existsByEmailOrDocument(String email, String document) {
-        return r2dbc.existsByEmailOrDocument(email, document);
+        // Se mantiene en el primario: es la verificación previa a una escritura. El filtro solo la evita con un
+        // negativo definitivo, es decir construido y sin notificaciones perdidas desde entonces
+        return existenceFilter.exists(email, document,
+                () -> RepositoryQueryEvent.mono("existsByEmailOrDocument", false, r2dbc.existsByEmailOrDocument(email, document)));
     }
 
+    // Primero solo la partición caliente; ante un fallo se consulta la tabla completa y no solo persons_archive,
+    // así una persona que el archivador devuelve a persons_hot entre ambas consultas no se pierde
     @Override
     public Mono<Person> findByDocument(String document) {
-        return r2dbc.findByDocument(document);
+        return nearCache.byDocument(document, () -> RepositoryQueryEvent.mono("findByDocument", true, r2dbc.findActiveByDocument(document))
+                .switchIfEmpty(Mono.defer(() -> RepositoryQueryEvent.mono("findByDocument.fallback", true, r2dbc.findByDocument(document))))
+                .contextWrite(ReadWriteRoutingConnectionFactory::readOnly));
     }
 
     @Override
     public Mono<Person> findById(UUID id) {
-        return r2dbc.getById(id);
+        return nearCache.byId(id, () -> RepositoryQueryEvent.mono("findById", true, r2dbc.findActiveById(id))
+                .switchIfEmpty(Mono.defer(() -> RepositoryQueryEvent.mono("findById.fallback", true, r2dbc.getById(id))))
+                .contextWrite(ReadWriteRoutingConnectionFactory::readOnly));
     }
 
     @Override
     public Flux<Person> getAllPersons(int page, int size) {
-        return r2dbc.getAllPersons(page, size);
+        return RepositoryQueryEvent.flux("getAllPersons", true, r2dbc.getAllPersons(page, size))
+                .contextWrite(ReadWriteRoutingConnectionFactory::readOnly);
     }
 
     @Override
     public Mono<Void> deletePerson(UUID id) {
-        return r2dbc.deleteById(id)
-                .as(tx::transactional);
+        return RepositoryQueryEvent.mono("deletePerson", false, r2dbc.deleteById(id)
+                .as(tx::transactional))
+                .doOnSuccess(done -> nearCache.evict(id));
+    }
+
+    @Override
+    public Flux<Person> streamAll() {
+        // fetchSize abre un portal y pide filas por lotes según la demanda; cancelar cierra el cursor
+        return RepositoryQueryEvent.flux("streamAll", true, client.sql(EXPORT_QUERY)
+                .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE))
+                .map((row, metadata) -> toExportedPerson(row))
+                .all())
+                .contextWrite(ReadWriteRoutingConnectionFactory::readOnly);
+    }
+
+    @Override
+    public Flux<PersonSyncEntry> changesSince(PersonSyncToken after, int limit) {
+        return RepositoryQueryEvent.flux("changesSince", true, client.sql(CHANGES_SINCE_QUERY)
+                .bind("tx", after.getTransaction())
+                .bind("seq", after.getSequence())
+                .bind("limit", limit)
+                .map((row, metadata) -> PersonSyncEntry.builder()
+                        .transaction(row.get("change_tx", Long.class))
+                        .sequence(row.get("change_seq", Long.class))
+                        .deleted(Boolean.TRUE.equals(row.get("deleted", Boolean.class)))
+                        .person(toExportedPerson(row))
+                        .build())
+                .all())
+                .contextWrite(ReadWriteRoutingConnectionFactory::readOnly);
     }
 
     @Override
     public Mono<Person> save(Person person) {
-        PersonEntity data = toData(person);
-        return r2dbc.save(data)
-                .map(this::toDomain)
-                .as(tx::transactional)
+        // Solo las altas (sin id) se agrupan; las actualizaciones siguen en su propia transacción
+        Mono<Person> write = person.getId() == null && coalescer.isEnabled()
+                ? coalescer.insert(person)
+                : r2dbc.save(toData(person))
+                    .map(this::toDomain)
+                    .as(tx::transactional);
+        return RepositoryQueryEvent.mono(person.getId() == null ? "insert" : "update", false, write)
+                .doOnNext(saved -> {
+                    existenceFilter.put(saved.getEmail(), saved.getDocument());
+                    nearCache.evict(saved.getId());
+                })
                 .onErrorMap(DuplicateKeyException.class, e -> new RuntimeException("User already exists"));
     }
 
@@ -69,6 +152,24 @@ public class PersonReactiveRepositoryAdapter implements PersonRepository {
                 .build();
     }
 
+    // La contraseña nunca sale en la exportación ni en la sincronización
+    private Person toExportedPerson(Row row) {
+        BigDecimal role = row.get("role", BigDecimal.class);
+        return Person.builder()
+                .id(row.get("id", UUID.class))
+                .names(row.get("names", String.class))
+                .lastnames(row.get("lastnames", String.class))
+                .document(row.get("document", String.class))
+                .birthdate(row.get("birthdate", LocalDate.class))
+                .address(row.get("address", String.class))
+                .phone(row.get("phone", String.class))
+                .email(row.get("email", String.class))
+                .baseSalary(row.get("base_salary", BigDecimal.class))
+                .role(role != null ? role.toBigInteger() : null)
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
     private Person toDomain(PersonEntity d) {
         return Person.builder()
                 .id(d.getId())
@@ -82,6 +183,7 @@ public class PersonReactiveRepositoryAdapter implements PersonRepository {
                 .email(d.getEmail())
                 .baseSalary(d.getBaseSalary())
                 .role(d.getRole())
+                .version(d.getVersion())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.hiri.crediya.r2dbc;
+
+import com.hiri.crediya.model.jfr.JfrRecording;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evento JFR por consulta del adaptador de personas, incluye si se pidió ruteo a réplica.
+ * La duración abarca la espera por una conexión del pool además de la consulta.
+ */
+@Name("com.hiri.crediya.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Crediya", "Repository"})
+@Description("Person repository query from subscription to terminal signal, including pool acquisition")
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Rows")
+    long rows;
+
+    RepositoryQueryEvent(String operation, boolean readOnly) {
+        this.operation = operation;
+        this.readOnly = readOnly;
+    }
+
+    public static <T> Mono<T> mono(String operation, boolean readOnly, Mono<T> source) {
+        return JfrRecording.mono(() -> new RepositoryQueryEvent(operation, readOnly),
+                (event, outcome) -> event.outcome = outcome,
+                (event, value) -> {
+                    event.outcome = "ok";
+                    event.rows = value == null ? 0 : 1;
+                }, source);
+    }
+
+    public static <T> Flux<T> flux(String operation, boolean readOnly, Flux<T> source) {
+        return JfrRecording.flux(() -> new RepositoryQueryEvent(operation, readOnly),
+                (event, outcome) -> event.outcome = outcome, event -> event.rows++, source);
+    }
+}
@@ -0,0 +1,177 @@
+package com.hiri.crediya.r2dbc.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mueve por lotes a persons_archive las personas sin actividad (last_activity_at) en el período configurado y
+ * devuelve a persons_hot las archivadas que volvieron a tener cambios. Cada lote es una transacción corta que
+ * reclama filas con FOR UPDATE SKIP LOCKED, así puede correr en varias instancias y no bloquea a las escrituras.
+ * El movimiento entre particiones no cambia la versión ni se publica como cambio (ver V8__persons_partitioning).
+ * Una archivada cuyo documento o email ya usa otra persona caliente queda en cuarentena en el archivo en vez
+ * de abortar el lote; persons.archival.quarantined las cuenta para resolverlas a mano.
+ */
+@Slf4j
+public class PersonArchiver {
+
+    private static final String ARCHIVE = """
+            WITH batch AS (
+                SELECT id FROM persons_hot
+                WHERE last_activity_at < :cutoff
+                ORDER BY last_activity_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE persons p SET archived = true
+            FROM batch
+            WHERE p.id = batch.id AND p.archived = false""";
+    // Sin la condición de conflicto un duplicado heredado rompería el índice único de persons_hot
+    private static final String NO_HOT_CONFLICT = """
+            NOT EXISTS (
+                SELECT 1 FROM persons_hot h
+                WHERE h.id <> a.id AND (h.document = a.document OR h.email = a.email))""";
+    private static final String RESTORE = """
+            WITH batch AS (
+                SELECT a.id FROM persons_archive a
+                WHERE a.last_activity_at >= :cutoff AND\s""" + NO_HOT_CONFLICT + "\n" + """
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE persons p SET archived = false
+            FROM batch
+            WHERE p.id = batch.id AND p.archived = true""";
+    private static final String QUARANTINED = """
+            SELECT count(*) AS quarantined FROM persons_archive a
+            WHERE a.last_activity_at >= :cutoff AND NOT\s""" + NO_HOT_CONFLICT;
+    private static final List<String> MOVE_SETTINGS = List.of(
+            "SET LOCAL crediya.archiving = 'on'",
+            "SET LOCAL crediya.person_changes = 'off'");
+
+    private final DatabaseClient client;
+    private final TransactionalOperator tx;
+    private final Duration inactiveAfter;
+    private final int batchSize;
+    private final Duration interval;
+    private final Duration pauseBetweenBatches;
+    private final Clock clock;
+    private final Counter archived;
+    private final Counter restored;
+    private final Counter failures;
+    private final AtomicLong quarantined = new AtomicLong();
+    private Disposable task;
+
+    public PersonArchiver(DatabaseClient client, TransactionalOperator tx, Duration inactiveAfter, int batchSize,
+                          Duration interval, Duration pauseBetweenBatches, MeterRegistry registry) {
+        this(client, tx, inactiveAfter, batchSize, interval, pauseBetweenBatches, registry, Clock.systemUTC());
+    }
+
+    PersonArchiver(DatabaseClient client, TransactionalOperator tx, Duration inactiveAfter, int batchSize,
+                   Duration interval, Duration pauseBetweenBatches, MeterRegistry registry, Clock clock) {
+        this.client = client;
+        this.tx = tx;
+        this.inactiveAfter = inactiveAfter;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.clock = clock;
+        this.archived = moved(registry, "archived");
+        this.restored = moved(registry, "restored");
+        this.failures = Counter.builder("persons.archival.failures")
+                .description("Archival runs aborted by an error; the next run continues where it stopped")
+                .register(registry);
+        Gauge.builder("persons.archival.quarantined", quarantined, AtomicLong::get)
+                .description("Archived persons with recent activity that cannot return to the hot partition "
+                        + "because another person already uses their document or email")
+                .register(registry);
+    }
+
+    private static Counter moved(MeterRegistry registry, String direction) {
+        return Counter.builder("persons.archival.moved")
+                .description("Persons moved between the hot and archive partitions")
+                .tag("direction", direction)
+                .register(registry);
+    }
+
+    public void start() {
+        task = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> run(), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    Mono<Void> run() {
+        OffsetDateTime cutoff = OffsetDateTime.now(clock).minus(inactiveAfter);
+        return drain(RESTORE, cutoff, restored)
+                .then(Mono.defer(() -> countQuarantined(cutoff)))
+                .then(Mono.defer(() -> drain(ARCHIVE, cutoff, archived)))
+                .onErrorResume(error -> {
+                    failures.increment();
+                    log.warn("Person archival run failed: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Mientras los lotes salgan llenos queda trabajo; la pausa deja respirar al primario y a la replicación
+    private Mono<Void> drain(String sql, OffsetDateTime cutoff, Counter counter) {
+        return batch(sql, cutoff)
+                .expand(count -> count == batchSize
+                        ? Mono.delay(pauseBetweenBatches).then(batch(sql, cutoff))
+                        : Mono.empty())
+                .doOnNext(counter::increment)
+                .reduce(0L, Long::sum)
+                .doOnNext(total -> {
+                    if (total > 0) {
+                        log.info("Person archival moved {} rows ({})", total, counter.getId().getTag("direction"));
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> countQuarantined(OffsetDateTime cutoff) {
+        return quarantined(cutoff)
+                .doOnNext(count -> {
+                    // Solo se avisa cuando cambia, para no repetir el mismo warn en cada corrida
+                    if (quarantined.getAndSet(count) != count && count > 0) {
+                        log.warn("{} archived persons stay quarantined: their document or email is in use by an active person", count);
+                    }
+                })
+                .then();
+    }
+
+    Mono<Long> quarantined(OffsetDateTime cutoff) {
+        return client.sql(QUARANTINED)
+                .bind("cutoff", cutoff)
+                .map(row -> row.get("quarantined", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    Mono<Long> batch(String sql, OffsetDateTime cutoff) {
+        return Flux.fromIterable(MOVE_SETTINGS)
+                .concatMap(setting -> client.sql(setting).then())
+                .then(client.sql(sql)
+                        .bind("cutoff", cutoff)
+                        .bind("limit", batchSize)
+                        .fetch().rowsUpdated())
+                .as(tx::transactional);
+    }
+}
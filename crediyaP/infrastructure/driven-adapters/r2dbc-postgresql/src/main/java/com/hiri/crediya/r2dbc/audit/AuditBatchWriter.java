@@ -0,0 +1,55 @@
+package com.hiri.crediya.r2dbc.audit;
+
+import com.hiri.crediya.model.audit.AuditEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * INSERT de un lote de eventos de auditoría con unnest sobre arrays: una sola sentencia fija para cualquier
+ * tamaño de lote (Postgres la prepara una vez), un solo round trip y atómico sin transacción explícita.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditBatchWriter {
+
+    private static final String INSERT = """
+            INSERT INTO person_audit (occurred_at, actor, action, person_id, document)
+            SELECT * FROM unnest(:occurredAt::timestamptz[], :actor::text[], :action::text[], :personId::uuid[],
+                                 :document::text[])""";
+
+    private final DatabaseClient client;
+
+    public Mono<Long> insert(List<AuditEvent> events) {
+        int size = events.size();
+        OffsetDateTime[] occurredAt = new OffsetDateTime[size];
+        String[] actor = new String[size];
+        String[] action = new String[size];
+        UUID[] personId = new UUID[size];
+        String[] document = new String[size];
+        for (int i = 0; i < size; i++) {
+            AuditEvent e = events.get(i);
+            Instant at = e.getOccurredAt() != null ? e.getOccurredAt() : Instant.now();
+            occurredAt[i] = OffsetDateTime.ofInstant(at, ZoneOffset.UTC);
+            actor[i] = e.getActor() != null ? e.getActor() : "anonymous";
+            action[i] = e.getAction().name();
+            // Los nulos viajan como elementos NULL del array
+            personId[i] = e.getPersonId();
+            document[i] = e.getDocument();
+        }
+        return client.sql(INSERT)
+                .bind("occurredAt", occurredAt)
+                .bind("actor", actor)
+                .bind("action", action)
+                .bind("personId", personId)
+                .bind("document", document)
+                .fetch().rowsUpdated();
+    }
+}
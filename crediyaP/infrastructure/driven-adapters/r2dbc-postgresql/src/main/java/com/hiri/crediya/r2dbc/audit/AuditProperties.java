@@ -0,0 +1,31 @@
+package com.hiri.crediya.r2dbc.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "persistence.audit")
+public class AuditProperties {
+    private boolean enabled = false;
+    // Eventos pendientes en memoria; al llenarse aplica la política de desborde de cada tipo de acción
+    private int capacity = 50_000;
+    // Se escribe al juntar batchSize eventos o al vencer flushInterval, lo que ocurra primero
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private OverflowPolicy readOverflow = OverflowPolicy.DROP;
+    private OverflowPolicy writeOverflow = OverflowPolicy.WAIT;
+    // Con WAIT la petición espera a lo sumo esto por un lugar en la cola antes de descartar el evento
+    private Duration maxWait = Duration.ofMillis(200);
+    private int maxRetries = 3;
+    private Duration retryBackoff = Duration.ofMillis(200);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public enum OverflowPolicy {
+        DROP,
+        WAIT
+    }
+}
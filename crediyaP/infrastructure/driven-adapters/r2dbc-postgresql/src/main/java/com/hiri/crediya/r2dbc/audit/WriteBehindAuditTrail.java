@@ -0,0 +1,179 @@
+package com.hiri.crediya.r2dbc.audit;
+
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Auditoría write-behind: las peticiones solo encolan el evento (cola lock-free acotada) y un worker
+ * lo escribe en lotes con un INSERT multi-fila cada {@code flushInterval} o al juntar {@code batchSize}.
+ * Con la cola llena las lecturas se descartan y las escrituras esperan hasta {@code maxWait} (configurable).
+ */
+@Slf4j
+@Component
+public class WriteBehindAuditTrail implements AuditTrail, DisposableBean {
+
+    // Con política WAIT se reintenta encolar a este intervalo mientras el worker libera lugar
+    private static final Duration OFFER_RETRY = Duration.ofMillis(5);
+
+    private final AuditProperties properties;
+    private final Function<List<AuditEvent>, Mono<Long>> writer;
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() es O(n): el tamaño se lleva aparte y es el que acota la cola
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Sinks.Many<Boolean> kicks = Sinks.many().multicast().directBestEffort();
+    private final Timer flushLatency;
+    private final Counter written;
+    private final Counter droppedOverflow;
+    private final Counter droppedFlushFailed;
+    private final Disposable worker;
+
+    public WriteBehindAuditTrail(AuditProperties properties, AuditBatchWriter writer, MeterRegistry registry) {
+        this(properties, writer::insert, registry);
+    }
+
+    WriteBehindAuditTrail(AuditProperties properties, Function<List<AuditEvent>, Mono<Long>> writer,
+                          MeterRegistry registry) {
+        this.properties = properties;
+        this.writer = writer;
+        this.flushLatency = Timer.builder("audit.flush.latency")
+                .description("Time to write one batch of audit events, retries included")
+                .register(registry);
+        this.written = Counter.builder("audit.events.written").register(registry);
+        this.droppedOverflow = dropped(registry, "overflow");
+        this.droppedFlushFailed = dropped(registry, "flush_failed");
+        Gauge.builder("audit.queue.depth", depth, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        // Un solo flush a la vez: los ticks que llegan mientras se escribe se descartan
+        this.worker = properties.isEnabled()
+                ? Flux.merge(Flux.interval(properties.getFlushInterval()).map(tick -> true), kicks.asFlux())
+                    .onBackpressureDrop()
+                    .concatMap(tick -> drain(), 1)
+                    .subscribe()
+                : null;
+    }
+
+    private static Counter dropped(MeterRegistry registry, String reason) {
+        return Counter.builder("audit.events.dropped")
+                .description("Audit events lost because the queue was full or the batch could not be written")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    public Mono<Void> record(AuditEvent event) {
+        if (worker == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            AuditEvent stamped = event.getOccurredAt() != null ? event : event.toBuilder().occurredAt(Instant.now()).build();
+            if (offer(stamped)) {
+                return Mono.empty();
+            }
+            boolean write = stamped.getAction() != null && stamped.getAction().isWrite();
+            if ((write ? properties.getWriteOverflow() : properties.getReadOverflow()) == AuditProperties.OverflowPolicy.DROP) {
+                drop(stamped);
+                return Mono.empty();
+            }
+            // Backpressure hacia el llamador: la respuesta se demora hasta que el worker libere lugar
+            kicks.tryEmitNext(true);
+            return Mono.fromSupplier(() -> offer(stamped))
+                    .filter(Boolean::booleanValue)
+                    .repeatWhenEmpty(attempts -> attempts.delayElements(OFFER_RETRY))
+                    .timeout(properties.getMaxWait(), Mono.fromRunnable(() -> drop(stamped)))
+                    .then();
+        });
+    }
+
+    private boolean offer(AuditEvent event) {
+        if (depth.incrementAndGet() > properties.getCapacity()) {
+            depth.decrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        if (depth.get() >= properties.getBatchSize()) {
+            // Best effort: si otro hilo emite a la vez, su aviso ya basta para despertar al worker
+            kicks.tryEmitNext(true);
+        }
+        return true;
+    }
+
+    private void drop(AuditEvent event) {
+        droppedOverflow.increment();
+        log.debug("Audit queue full, dropped {} event for person {}", event.getAction(), event.getPersonId());
+    }
+
+    // Mientras los lotes salgan llenos queda backlog y se sigue escribiendo sin esperar al próximo tick
+    private Mono<Void> drain() {
+        return flush()
+                .expand(size -> size == properties.getBatchSize() ? flush() : Mono.empty())
+                .then();
+    }
+
+    private Mono<Integer> flush() {
+        return Mono.defer(() -> {
+            List<AuditEvent> batch = poll(properties.getBatchSize());
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+            long start = System.nanoTime();
+            return writer.apply(batch)
+                    .retryWhen(Retry.backoff(properties.getMaxRetries(), properties.getRetryBackoff()))
+                    .doOnSuccess(rows -> {
+                        flushLatency.record(Duration.ofNanos(System.nanoTime() - start));
+                        written.increment(batch.size());
+                    })
+                    .thenReturn(batch.size())
+                    .onErrorResume(error -> {
+                        droppedFlushFailed.increment(batch.size());
+                        log.error("Audit batch of {} events could not be written: {}", batch.size(), error.getMessage());
+                        return Mono.just(batch.size());
+                    });
+        });
+    }
+
+    private List<AuditEvent> poll(int max) {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(max, Math.max(depth.get(), 1)));
+        AuditEvent event;
+        while (batch.size() < max && (event = queue.poll()) != null) {
+            batch.add(event);
+            depth.decrementAndGet();
+        }
+        return batch;
+    }
+
+    @Override
+    public void destroy() {
+        if (worker == null) {
+            return;
+        }
+        worker.dispose();
+        // Lo que quedó en la cola se escribe antes de cerrar; lo que no alcance en el plazo se pierde
+        try {
+            drain().block(properties.getShutdownTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Audit queue not fully flushed on shutdown, {} events pending", depth.get());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.hiri.crediya.r2dbc.batch;
+
+import com.hiri.crediya.model.person.Person;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * INSERT de un lote de personas en una sola transacción, con unnest sobre un array por columna: la
+ * sentencia es la misma para cualquier tamaño de lote. Las filas que chocan con document/email
+ * existentes (o repetidos dentro del mismo lote) se omiten con ON CONFLICT y simplemente no
+ * aparecen en el resultado.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonBatchInserter {
+
+    private static final String COLUMNS =
+            "id, names, lastnames, document, password, birthdate, address, phone, email, base_salary, role";
+    private static final String INSERT = "INSERT INTO persons (" + COLUMNS + ")\n" + """
+            SELECT * FROM unnest(:id::uuid[], :names::varchar[], :lastnames::varchar[], :document::varchar[],
+                                 :password::varchar[], :birthdate::date[], :address::varchar[], :phone::varchar[],
+                                 :email::varchar[], :baseSalary::numeric[], :role::numeric[])
+            ON CONFLICT DO NOTHING
+            RETURNING\s""" + COLUMNS + ", version";
+
+    private final DatabaseClient client;
+    private final TransactionalOperator tx;
+
+    public Flux<Person> insert(List<Person> persons) {
+        int size = persons.size();
+        UUID[] id = new UUID[size];
+        String[] names = new String[size];
+        String[] lastnames = new String[size];
+        String[] document = new String[size];
+        String[] password = new String[size];
+        LocalDate[] birthdate = new LocalDate[size];
+        String[] address = new String[size];
+        String[] phone = new String[size];
+        String[] email = new String[size];
+        BigDecimal[] baseSalary = new BigDecimal[size];
+        BigDecimal[] role = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            Person p = persons.get(i);
+            id[i] = p.getId();
+            names[i] = p.getNames();
+            lastnames[i] = p.getLastnames();
+            document[i] = p.getDocument();
+            password[i] = p.getPassword();
+            // Los opcionales nulos viajan como elementos NULL del array
+            birthdate[i] = p.getBirthdate();
+            address[i] = p.getAddress();
+            phone[i] = p.getPhone();
+            email[i] = p.getEmail();
+            baseSalary[i] = p.getBaseSalary();
+            role[i] = new BigDecimal(p.getRole());
+        }
+        DatabaseClient.GenericExecuteSpec spec = client.sql(INSERT)
+                .bind("id", id)
+                .bind("names", names)
+                .bind("lastnames", lastnames)
+                .bind("document", document)
+                .bind("password", password)
+                .bind("birthdate", birthdate)
+                .bind("address", address)
+                .bind("phone", phone)
+                .bind("email", email)
+                .bind("baseSalary", baseSalary)
+                .bind("role", role);
+        return spec.map((row, metadata) -> Person.builder()
+                        .id(row.get("id", UUID.class))
+                        .names(row.get("names", String.class))
+                        .lastnames(row.get("lastnames", String.class))
+                        .document(row.get("document", String.class))
+                        .password(row.get("password", String.class))
+                        .birthdate(row.get("birthdate", LocalDate.class))
+                        .address(row.get("address", String.class))
+                        .phone(row.get("phone", String.class))
+                        .email(row.get("email", String.class))
+                        .baseSalary(row.get("base_salary", BigDecimal.class))
+                        .role(toBigInteger(row.get("role", BigDecimal.class)))
+                        .version(row.get("version", Long.class))
+                        .build())
+                .all()
+                .as(tx::transactional);
+    }
+
+    private static BigInteger toBigInteger(BigDecimal value) {
+        return value != null ? value.toBigInteger() : null;
+    }
+}
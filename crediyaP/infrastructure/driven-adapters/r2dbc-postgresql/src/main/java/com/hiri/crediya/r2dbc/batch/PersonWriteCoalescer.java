@@ -0,0 +1,136 @@
+package com.hiri.crediya.r2dbc.batch;
+
+import com.hiri.crediya.model.person.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Agrupa los registros que llegan concurrentemente (group commit): junta hasta {@code maxBatchSize}
+ * inserts o lo que llegue en {@code maxDelay}, los escribe con un solo INSERT multi-fila y devuelve
+ * a cada llamador su propio resultado o error.
+ */
+@Slf4j
+@Component
+public class PersonWriteCoalescer implements DisposableBean {
+
+    private final WriteCoalescerProperties properties;
+    // Inserts aceptados y aún sin resultado; acota la memoria y permite fallarlos si el worker se reinicia
+    private final Set<PendingInsert> pending = ConcurrentHashMap.newKeySet();
+    private volatile FluxSink<PendingInsert> queue;
+    private final Disposable worker;
+
+    public PersonWriteCoalescer(WriteCoalescerProperties properties, PersonBatchInserter inserter) {
+        this(properties, inserter::insert);
+    }
+
+    PersonWriteCoalescer(WriteCoalescerProperties properties, Function<List<Person>, Flux<Person>> writer) {
+        this.properties = properties;
+        // FluxSink admite next() concurrente sin que el llamador espere; el límite lo pone maxPending
+        // bufferTimeout justo (fairBackpressure): con los lotes en vuelo al máximo, el timer no desborda el buffer
+        this.worker = properties.isEnabled()
+                ? Flux.<PendingInsert>create(sink -> queue = sink)
+                    .bufferTimeout(properties.getMaxBatchSize(), properties.getMaxDelay(), true)
+                    .flatMap(batch -> flush(batch, writer), properties.getMaxConcurrentBatches())
+                    .doOnError(this::restart)
+                    .retry()
+                    .subscribe()
+                : null;
+    }
+
+    // Un error del pipeline no debe dejar al coalescer muerto: se fallan los pendientes y retry() vuelve a suscribir
+    private void restart(Throwable error) {
+        log.error("Write coalescer worker failed, restarting: {}", error.toString());
+        List.copyOf(pending).forEach(p -> fail(p, error));
+    }
+
+    public boolean isEnabled() {
+        return worker != null;
+    }
+
+    public Mono<Person> insert(Person person) {
+        return Mono.defer(() -> {
+            // Con la base saturada se rechaza en lugar de acumular memoria sin límite
+            if (pending.size() >= properties.getMaxPending()) {
+                return Mono.error(new IllegalStateException("Write coalescer saturated: "
+                        + properties.getMaxPending() + " inserts pending"));
+            }
+            // El id se asigna aquí para poder emparejar cada fila devuelta con su llamador
+            PendingInsert insert = new PendingInsert(person.toBuilder().id(UUID.randomUUID()).build(), Sinks.one());
+            pending.add(insert);
+            FluxSink<PendingInsert> sink = queue;
+            if (sink == null || sink.isCancelled()) {
+                fail(insert, new IllegalStateException("Write coalescer unavailable"));
+            } else {
+                sink.next(insert);
+            }
+            return insert.result().asMono();
+        });
+    }
+
+    private Mono<Void> flush(List<PendingInsert> batch, Function<List<Person>, Flux<Person>> writer) {
+        List<Person> rows = batch.stream().map(PendingInsert::person).toList();
+        return writer.apply(rows)
+                .collectMap(Person::getId, Function.identity())
+                .doOnNext(inserted -> {
+                    log.debug("Coalesced insert wrote {}/{} rows", inserted.size(), batch.size());
+                    complete(batch, inserted);
+                })
+                .onErrorResume(e -> batch.size() > 1 ? isolate(batch, writer) : fail(batch, e))
+                .then();
+    }
+
+    // Un error inesperado en el lote (no un duplicado) se reintenta fila por fila para no arrastrar a los demás
+    private Mono<Map<UUID, Person>> isolate(List<PendingInsert> batch, Function<List<Person>, Flux<Person>> writer) {
+        log.warn("Coalesced insert of {} rows failed, retrying individually", batch.size());
+        return Flux.fromIterable(batch)
+                .concatMap(insert -> flush(List.of(insert), writer))
+                .then(Mono.empty());
+    }
+
+    private Mono<Map<UUID, Person>> fail(List<PendingInsert> batch, Throwable error) {
+        batch.forEach(p -> fail(p, error));
+        return Mono.empty();
+    }
+
+    private void fail(PendingInsert insert, Throwable error) {
+        pending.remove(insert);
+        insert.result().tryEmitError(error);
+    }
+
+    private void complete(List<PendingInsert> batch, Map<UUID, Person> inserted) {
+        for (PendingInsert insert : batch) {
+            Person saved = inserted.get(insert.person().getId());
+            if (saved != null) {
+                pending.remove(insert);
+                insert.result().tryEmitValue(saved);
+            } else {
+                fail(insert, new DuplicateKeyException("Document or email already registered"));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (worker != null) {
+            worker.dispose();
+            List.copyOf(pending).forEach(p -> fail(p, new IllegalStateException("Write coalescer stopped")));
+        }
+    }
+
+    private record PendingInsert(Person person, Sinks.One<Person> result) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.hiri.crediya.r2dbc.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "persistence.write-coalescer")
+public class WriteCoalescerProperties {
+    private boolean enabled = false;
+    // Se envía el lote al llegar a maxBatchSize filas o al vencer maxDelay, lo que ocurra primero
+    private int maxBatchSize = 50;
+    private Duration maxDelay = Duration.ofMillis(5);
+    private int maxConcurrentBatches = 4;
+    private int maxPending = 10_000;
+}
@@ -0,0 +1,21 @@
+package com.hiri.crediya.r2dbc.bloom;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "persistence.existence-filter")
+public class ExistenceFilterProperties {
+    private boolean enabled = false;
+    private double falsePositiveRate = 0.01;
+    // El filtro se dimensiona para filas_estimadas * headroom (mínimo minExpectedInsertions) para absorber altas sin reconstruirse
+    private double headroom = 2.0;
+    private long minExpectedInsertions = 100_000;
+    // Las notificaciones de person_changes se agrupan para leer las claves de varios ids en una sola consulta
+    private int changeBatchSize = 256;
+    private Duration changeBatchWindow = Duration.ofMillis(50);
+}
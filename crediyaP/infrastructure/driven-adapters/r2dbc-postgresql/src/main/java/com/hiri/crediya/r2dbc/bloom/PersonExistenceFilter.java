@@ -0,0 +1,304 @@
+package com.hiri.crediya.r2dbc.bloom;
+
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import com.hiri.crediya.r2dbc.routing.ReadWriteRoutingConnectionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Atajo en memoria para existsByEmailOrDocument: un Bloom filter sobre emails y documentos normalizados.
+ * El filtro se construye una vez con el LISTEN de person_changes activo y después se mantiene con ese canal:
+ * cada alta o cambio de otra instancia trae sus claves por id. Solo mientras no se perdió ninguna notificación
+ * un negativo es definitivo y evita la consulta; si el canal se corta, una importación masiva no notificó
+ * fila por fila o falla la lectura de claves, todo va a Postgres hasta terminar la reconstrucción.
+ * Entre el commit de otra instancia y su notificación queda la restricción UNIQUE de person_keys.
+ */
+@Slf4j
+public class PersonExistenceFilter {
+
+    private static final String ESTIMATE_QUERY =
+            "SELECT GREATEST(reltuples, 0)::bigint AS estimate FROM pg_class WHERE oid = 'persons'::regclass";
+    private static final String KEYS_QUERY = "SELECT email, document FROM persons";
+    private static final String KEYS_BY_ID_QUERY = "SELECT email, document FROM persons WHERE id = ANY(:ids)";
+    private static final int KEYS_FETCH_SIZE = 2000;
+    // Al superar este múltiplo de la fpp configurada (el filtro se llenó con altas) se reconstruye más grande
+    private static final double REBUILD_FPP_FACTOR = 2.0;
+
+    private final ExistenceFilterProperties properties;
+    private final Supplier<Mono<Long>> rowEstimate;
+    private final Supplier<Flux<String>> storedKeys;
+    private final Function<List<UUID>, Flux<String>> keysOf;
+    private final PersonChangeFeed feed;
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private final Counter rebuilds;
+    private final Sinks.Many<Boolean> rebuildRequests = Sinks.many().unicast().onBackpressureBuffer();
+    private final Object lock = new Object();
+    // Cambia con cada notificación perdida: una reconstrucción iniciada antes no se publica
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Disposable subscriptions;
+    private volatile boolean listening;
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    public PersonExistenceFilter(ExistenceFilterProperties properties, DatabaseClient client, PersonChangeFeed feed,
+                                 MeterRegistry registry) {
+        this(properties,
+                () -> client.sql(ESTIMATE_QUERY)
+                        .map((row, metadata) -> row.get("estimate", Long.class))
+                        .one()
+                        .defaultIfEmpty(0L)
+                        .contextWrite(ReadWriteRoutingConnectionFactory::readOnly),
+                // Se lee del primario: una réplica atrasada dejaría afuera altas recientes
+                () -> client.sql(KEYS_QUERY)
+                        .filter(statement -> statement.fetchSize(KEYS_FETCH_SIZE))
+                        .map((row, metadata) -> new String[]{row.get("email", String.class), row.get("document", String.class)})
+                        .all()
+                        .flatMapIterable(PersonExistenceFilter::keys),
+                ids -> client.sql(KEYS_BY_ID_QUERY)
+                        .bind("ids", ids.toArray(UUID[]::new))
+                        .map((row, metadata) -> new String[]{row.get("email", String.class), row.get("document", String.class)})
+                        .all()
+                        .flatMapIterable(PersonExistenceFilter::keys),
+                feed, registry);
+    }
+
+    PersonExistenceFilter(ExistenceFilterProperties properties, Supplier<Mono<Long>> rowEstimate,
+                          Supplier<Flux<String>> storedKeys, Function<List<UUID>, Flux<String>> keysOf,
+                          PersonChangeFeed feed, MeterRegistry registry) {
+        this.properties = properties;
+        this.rowEstimate = rowEstimate;
+        this.storedKeys = storedKeys;
+        this.keysOf = keysOf;
+        this.feed = feed;
+        this.negatives = check(registry, "negative");
+        this.positives = check(registry, "positive");
+        this.falsePositives = Counter.builder("persons.existence.filter.false.positives")
+                .description("Possible matches that Postgres reported as absent")
+                .register(registry);
+        this.rebuilds = Counter.builder("persons.existence.filter.rebuilds")
+                .description("Full rebuilds after a lost notification, a bulk import or a saturated filter")
+                .register(registry);
+        Gauge.builder("persons.existence.filter.expected.fpp", this, f -> f.current == null ? 1.0 : f.current.expectedFpp())
+                .description("False positive probability estimated from the filter fill ratio")
+                .register(registry);
+    }
+
+    private static Counter check(MeterRegistry registry, String result) {
+        return Counter.builder("persons.existence.filter.checks")
+                .description("Duplicate checks answered by the in-memory filter")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Primero los cambios: cuando llegue el true del LISTEN ya no se pierde ninguno
+        subscriptions = Disposables.composite(
+                feed.changes()
+                        .onBackpressureBuffer()
+                        .bufferTimeout(properties.getChangeBatchSize(), properties.getChangeBatchWindow())
+                        .concatMap(this::apply, 1)
+                        .subscribe(null, error -> {
+                            log.warn("Person change feed failed, existence filter disabled: {}", error.getMessage());
+                            invalidate();
+                        }),
+                feed.listening().subscribe(this::onListening, error -> onListening(false)),
+                rebuildRequests.asFlux()
+                        .onBackpressureLatest()
+                        .concatMap(request -> rebuild()
+                                .onErrorResume(error -> {
+                                    log.warn("Existence filter rebuild failed: {}", error.getMessage());
+                                    return Mono.empty();
+                                }), 1)
+                        .subscribe());
+    }
+
+    public void stop() {
+        if (subscriptions != null) {
+            subscriptions.dispose();
+        }
+    }
+
+    public Mono<Boolean> exists(String email, String document, Supplier<Mono<Boolean>> query) {
+        BloomFilter filter = current;
+        if (filter == null) {
+            return query.get();
+        }
+        if (!filter.mightContain(emailKey(email)) && !filter.mightContain(documentKey(document))) {
+            negatives.increment();
+            return Mono.just(false);
+        }
+        positives.increment();
+        return query.get().doOnNext(found -> {
+            if (!found) {
+                falsePositives.increment();
+            }
+        });
+    }
+
+    // Las altas propias entran de inmediato; su notificación llega después y no cambia nada
+    public void put(String email, String document) {
+        if (email == null && document == null) {
+            return;
+        }
+        synchronized (lock) {
+            add(current, email, document);
+            add(building, email, document);
+        }
+    }
+
+    private void onListening(boolean listening) {
+        invalidate();
+        this.listening = listening;
+        if (listening) {
+            requestRebuild();
+        } else {
+            log.warn("Person change listener down, duplicate checks go to Postgres until the filter is rebuilt");
+        }
+    }
+
+    private Mono<Void> apply(List<PersonChange> changes) {
+        if (changes.stream().anyMatch(change -> change.getType() == PersonChange.Type.BULK_IMPORT)) {
+            // La importación masiva no notifica fila por fila
+            invalidate();
+            requestRebuild();
+            return Mono.empty();
+        }
+        // Los borrados no se quitan de un Bloom filter: a lo sumo quedan como falsos positivos
+        List<UUID> ids = changes.stream()
+                .filter(change -> change.getType() != PersonChange.Type.DELETED)
+                .map(PersonChange::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return keysOf.apply(ids)
+                .doOnNext(this::putKey)
+                .then(Mono.fromRunnable(() -> {
+                    BloomFilter filter = current;
+                    if (filter != null && filter.expectedFpp() > properties.getFalsePositiveRate() * REBUILD_FPP_FACTOR) {
+                        requestRebuild();
+                    }
+                }))
+                .onErrorResume(error -> {
+                    log.warn("Keys of {} changed persons could not be read, rebuilding existence filter: {}",
+                            ids.size(), error.getMessage());
+                    invalidate();
+                    requestRebuild();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void putKey(String key) {
+        synchronized (lock) {
+            if (current != null) {
+                current.put(key);
+            }
+            if (building != null) {
+                building.put(key);
+            }
+        }
+    }
+
+    private void invalidate() {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            current = null;
+        }
+    }
+
+    private void requestRebuild() {
+        rebuildRequests.emitNext(true, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            long started = generation.get();
+            return rowEstimate.get()
+                    .flatMap(estimate -> {
+                        long expected = Math.max(properties.getMinExpectedInsertions(),
+                                (long) (estimate * 2 * properties.getHeadroom()));
+                        BloomFilter next = BloomFilter.create(expected, properties.getFalsePositiveRate());
+                        // Los cambios notificados durante el recorrido se agregan también al filtro nuevo (ver putKey)
+                        synchronized (lock) {
+                            building = next;
+                        }
+                        return storedKeys.get()
+                                .doOnNext(next::put)
+                                .then(Mono.fromRunnable(() -> publish(next, started)))
+                                .doFinally(signal -> {
+                                    synchronized (lock) {
+                                        if (building == next) {
+                                            building = null;
+                                        }
+                                    }
+                                });
+                    })
+                    .then();
+        });
+    }
+
+    private void publish(BloomFilter next, long started) {
+        synchronized (lock) {
+            if (!listening || generation.get() != started) {
+                log.info("Existence filter rebuild discarded, notifications were lost while it ran");
+                return;
+            }
+            current = next;
+            building = null;
+        }
+        rebuilds.increment();
+        log.info("Existence filter rebuilt: {} bits, expected fpp {}", next.bitSize(),
+                String.format(Locale.ROOT, "%.4f", next.expectedFpp()));
+    }
+
+    private static List<String> keys(String[] pair) {
+        return List.of(emailKey(pair[0]), documentKey(pair[1]));
+    }
+
+    private static void add(BloomFilter filter, String email, String document) {
+        if (filter == null) {
+            return;
+        }
+        if (email != null) {
+            filter.put(emailKey(email));
+        }
+        if (document != null) {
+            filter.put(documentKey(document));
+        }
+    }
+
+    // Prefijos distintos: un documento nunca colisiona con un email idéntico
+    static String emailKey(String email) {
+        return "e:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    static String documentKey(String document) {
+        return "d:" + (document == null ? "" : document.trim());
+    }
+}
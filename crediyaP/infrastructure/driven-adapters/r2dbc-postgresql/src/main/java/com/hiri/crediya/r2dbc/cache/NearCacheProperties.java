@@ -0,0 +1,19 @@
+package com.hiri.crediya.r2dbc.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "persistence.near-cache")
+public class NearCacheProperties {
+    private boolean enabled = false;
+    private int maxEntries = 10_000;
+    // Cota de antigüedad aunque se pierda una notificación
+    private Duration ttl = Duration.ofMinutes(1);
+    // Cuánto se recuerda la última versión invalidada de un id para rechazar lecturas en vuelo más viejas
+    private Duration tombstoneTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,306 @@
+package com.hiri.crediya.r2dbc.cache;
+
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché cercana de personas por id y documento, coherente entre réplicas de la aplicación.
+ * Toda escritura en persons (de cualquier instancia o de la base) llega por el canal LISTEN/NOTIFY
+ * (trigger persons_notify_change) con el id y la versión nueva; esa versión invalida la entrada y queda
+ * como lápida por un tiempo, de modo que una lectura en vuelo o de una réplica atrasada con versión
+ * anterior no vuelve a cargar el dato viejo. Mientras el LISTEN no está activo no se sirve nada desde
+ * memoria, y al reconectar se vacía todo porque las notificaciones intermedias se perdieron.
+ */
+@Slf4j
+@Component
+public class PersonNearCache implements DisposableBean {
+
+    // Versión de lápida para un borrado: ninguna lectura posterior puede revivir la fila
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final NearCacheProperties properties;
+    private final LongSupplier nanoTime;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, UUID> idsByDocument = new ConcurrentHashMap<>();
+    private final Map<UUID, Tombstone> tombstones = new ConcurrentHashMap<>();
+    // Cambia con cada vaciado completo: una carga iniciada antes no se guarda
+    private final AtomicLong epoch = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final Counter resyncs;
+    private final Counter staleRejected;
+    private final Counter fullRejected;
+    private final Disposable subscriptions;
+    private volatile boolean coherent;
+    // El flujo de cambios terminó con error: un LISTEN que vuelve ya no trae invalidaciones
+    private volatile boolean changesFailed;
+
+    public PersonNearCache(NearCacheProperties properties, PersonChangeFeed feed, MeterRegistry registry) {
+        this(properties, feed, registry, System::nanoTime);
+    }
+
+    PersonNearCache(NearCacheProperties properties, PersonChangeFeed feed, MeterRegistry registry, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.hits = request(registry, "hit");
+        this.misses = request(registry, "miss");
+        this.localInvalidations = invalidation(registry, "local");
+        this.remoteInvalidations = invalidation(registry, "remote");
+        this.resyncs = invalidation(registry, "resync");
+        this.staleRejected = rejected(registry, "stale");
+        this.fullRejected = rejected(registry, "full");
+        Gauge.builder("persons.near.cache.size", entries, Map::size)
+                .description("Persons held in the near cache")
+                .register(registry);
+        // Primero los cambios: cuando llegue el true del LISTEN ya no se pierde ninguno
+        this.subscriptions = properties.isEnabled()
+                ? Disposables.composite(
+                    feed.changes().subscribe(this::onChange, error -> {
+                        // Sin cambios ya no se invalida nada: lo guardado dejaría de ser confiable
+                        log.warn("Person change feed failed, near cache disabled: {}", error.getMessage());
+                        changesFailed = true;
+                        coherent = false;
+                        clear();
+                    }),
+                    feed.listening().subscribe(this::onListening, error -> onListening(false)))
+                : null;
+    }
+
+    private static Counter request(MeterRegistry registry, String result) {
+        return Counter.builder("persons.near.cache.requests")
+                .description("Person lookups answered by the near cache")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter invalidation(MeterRegistry registry, String source) {
+        return Counter.builder("persons.near.cache.invalidations")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder("persons.near.cache.puts.rejected")
+                .description("Loaded persons not cached because a newer version was already announced or the cache is full")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public Mono<Person> byId(UUID id, Supplier<Mono<Person>> query) {
+        if (!properties.isEnabled() || id == null) {
+            return query.get();
+        }
+        return Mono.defer(() -> cachedOrLoad(lookup(id), query));
+    }
+
+    public Mono<Person> byDocument(String document, Supplier<Mono<Person>> query) {
+        if (!properties.isEnabled() || document == null) {
+            return query.get();
+        }
+        return Mono.defer(() -> {
+            UUID id = idsByDocument.get(document);
+            Person cached = id == null ? null : lookup(id);
+            // El índice puede apuntar a un id cuyo documento ya cambió
+            return cachedOrLoad(cached != null && document.equals(cached.getDocument()) ? cached : null, query);
+        });
+    }
+
+    private Mono<Person> cachedOrLoad(Person cached, Supplier<Mono<Person>> query) {
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+        misses.increment();
+        long startEpoch = epoch.get();
+        return query.get().doOnNext(loaded -> put(loaded, startEpoch));
+    }
+
+    /** Escritura local: se descarta la entrada ya; la notificación propia trae luego la versión nueva. */
+    public void evict(UUID id) {
+        if (id != null && remove(id) != null) {
+            localInvalidations.increment();
+        }
+    }
+
+    private void onChange(PersonChange change) {
+        switch (change.getType()) {
+            case UPDATED -> invalidate(change.getId(), change.getVersion() == null ? DELETED : change.getVersion());
+            case DELETED -> invalidate(change.getId(), DELETED);
+            // La importación masiva no notifica fila por fila
+            case BULK_IMPORT -> clear();
+            default -> {
+                // Un alta no deja nada viejo: no se guardan negativos
+            }
+        }
+    }
+
+    private void onListening(boolean listening) {
+        coherent = false;
+        clear();
+        if (listening && !changesFailed) {
+            coherent = true;
+            log.info("Person near cache enabled, invalidations received via LISTEN/NOTIFY");
+        } else {
+            log.warn("Person change listener down, near cache bypassed until it reconnects");
+        }
+    }
+
+    private void invalidate(UUID id, long version) {
+        if (id == null) {
+            return;
+        }
+        long expiresAt = nanoTime.getAsLong() + properties.getTombstoneTtl().toNanos();
+        tombstones.merge(id, new Tombstone(version, expiresAt),
+                (previous, next) -> previous.version() > next.version() ? new Tombstone(previous.version(), expiresAt) : next);
+        // La lápida va antes que el borrado: put la vuelve a leer después de insertar (ver put)
+        Entry entry = entries.get(id);
+        if (entry != null && entry.version() < version && entries.remove(id, entry)) {
+            unindex(id, entry);
+            remoteInvalidations.increment();
+        }
+        if (tombstones.size() > properties.getMaxEntries()) {
+            long now = nanoTime.getAsLong();
+            tombstones.values().removeIf(tombstone -> tombstone.expiresAt() - now < 0);
+        }
+    }
+
+    private void put(Person person, long startEpoch) {
+        if (!coherent || person.getId() == null || person.getVersion() == null || epoch.get() != startEpoch) {
+            return;
+        }
+        UUID id = person.getId();
+        if (isStale(id, person.getVersion())) {
+            staleRejected.increment();
+            return;
+        }
+        if (entries.size() >= properties.getMaxEntries() && !entries.containsKey(id)) {
+            evictExpired();
+            if (entries.size() >= properties.getMaxEntries()) {
+                fullRejected.increment();
+                return;
+            }
+        }
+        Entry entry = new Entry(copy(person), person.getVersion(), nanoTime.getAsLong());
+        Entry stored = entries.merge(id, entry, (previous, next) -> previous.version() > next.version() ? previous : next);
+        if (stored != entry) {
+            return;
+        }
+        if (person.getDocument() != null) {
+            idsByDocument.put(person.getDocument(), id);
+        }
+        // Una invalidación o un vaciado concurrente pudo no ver la entrada recién insertada
+        if (isStale(id, entry.version()) || epoch.get() != startEpoch) {
+            if (entries.remove(id, entry)) {
+                unindex(id, entry);
+            }
+            staleRejected.increment();
+        }
+    }
+
+    private boolean isStale(UUID id, long version) {
+        Tombstone tombstone = tombstones.get(id);
+        if (tombstone == null) {
+            return false;
+        }
+        if (tombstone.expiresAt() - nanoTime.getAsLong() < 0) {
+            tombstones.remove(id, tombstone);
+            return false;
+        }
+        return version < tombstone.version();
+    }
+
+    private Person lookup(UUID id) {
+        if (!coherent) {
+            return null;
+        }
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, nanoTime.getAsLong())) {
+            if (entries.remove(id, entry)) {
+                unindex(id, entry);
+            }
+            return null;
+        }
+        // Copia: Person es mutable y los casos de uso la modifican antes de guardar
+        return copy(entry.person());
+    }
+
+    private void evictExpired() {
+        long now = nanoTime.getAsLong();
+        entries.forEach((id, entry) -> {
+            if (isExpired(entry, now) && entries.remove(id, entry)) {
+                unindex(id, entry);
+            }
+        });
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.loadedAt() > properties.getTtl().toNanos();
+    }
+
+    private Entry remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            unindex(id, entry);
+        }
+        return entry;
+    }
+
+    private void unindex(UUID id, Entry entry) {
+        String document = entry.person().getDocument();
+        if (document != null) {
+            idsByDocument.remove(document, id);
+        }
+    }
+
+    private void clear() {
+        epoch.incrementAndGet();
+        int size = entries.size();
+        entries.clear();
+        idsByDocument.clear();
+        tombstones.clear();
+        resyncs.increment(size);
+    }
+
+    private static Person copy(Person person) {
+        return person.toBuilder().build();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (subscriptions != null) {
+            subscriptions.dispose();
+        }
+    }
+
+    private record Entry(Person person, long version, long loadedAt) {
+    }
+
+    private record Tombstone(long version, long expiresAt) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.hiri.crediya.r2dbc.config;
+
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PostgresStatementCacheConfig {
+
+    // Con caché acotada las consultas repetidas (findByDocument, existsByEmailOrDocument) se parsean
+    // y planifican una sola vez por conexión en el servidor en lugar de en cada ejecución
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer preparedStatementCacheCustomizer(
+            @Value("${persistence.statement-cache-size:256}") int statementCacheSize) {
+        return builder -> builder.option(PostgresqlConnectionFactoryProvider.PREPARED_STATEMENT_CACHE_QUERIES, statementCacheSize);
+    }
+}
@@ -0,0 +1,204 @@
+package com.hiri.crediya.r2dbc.creditscore;
+
+import com.hiri.crediya.model.creditscore.CreditScore;
+import com.hiri.crediya.model.creditscore.ScoringRun;
+import com.hiri.crediya.model.creditscore.gateways.CreditScoringRepository;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.r2dbc.RepositoryQueryEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Readable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistencia del scoring de crédito: páginas por keyset sobre persons en el primario, upsert
+ * de credit_scores con unnest y checkpoint en credit_scoring_runs. El checkpoint avanza solo si sigue
+ * en el valor que la instancia conoce, así dos instancias nunca escriben la misma corrida a la vez.
+ */
+@Repository
+public class CreditScoringReactiveRepositoryAdapter implements CreditScoringRepository {
+
+    // Menor uuid posible: "todas las personas" sin una segunda variante de la consulta
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final int PERSONS_PAGE_SIZE = 1000;
+    private static final String PERSONS_AFTER = """
+            SELECT id, base_salary FROM persons
+            WHERE id > :after
+            ORDER BY id
+            LIMIT :limit""";
+    private static final String RUN_COLUMNS = "run_id, last_person_id, scored, started_at";
+    // Una corrida sin latido en staleAfter quedó huérfana (instancia caída) y se reanuda desde su checkpoint
+    private static final String TAKE_OVER_RUN = """
+            UPDATE credit_scoring_runs SET heartbeat_at = now()
+            WHERE status = 'RUNNING' AND heartbeat_at < now() - make_interval(secs => :staleSeconds)
+            RETURNING\s""" + RUN_COLUMNS;
+    // El índice único parcial sobre RUNNING hace que esto no inserte nada si ya hay una corrida viva
+    private static final String START_RUN = """
+            INSERT INTO credit_scoring_runs (run_id) VALUES (:runId)
+            ON CONFLICT DO NOTHING
+            RETURNING\s""" + RUN_COLUMNS;
+    private static final String ADVANCE_CHECKPOINT = """
+            UPDATE credit_scoring_runs
+            SET last_person_id = :last, scored = scored + :count, heartbeat_at = now()
+            WHERE run_id = :runId AND status = 'RUNNING' AND last_person_id IS NOT DISTINCT FROM :expected
+            RETURNING\s""" + RUN_COLUMNS;
+    private static final String FINISH_RUN = """
+            UPDATE credit_scoring_runs SET status = 'FINISHED', finished_at = now()
+            WHERE run_id = :runId AND status = 'RUNNING'""";
+    // Un array por columna: la misma sentencia para cualquier tamaño de lote
+    private static final String UPSERT_SCORES = """
+            INSERT INTO credit_scores (person_id, monthly_capacity, max_loan_amount, run_id, scored_at)
+            SELECT * FROM unnest(:personId::uuid[], :monthly::numeric[], :maxLoan::numeric[], :runId::uuid[],
+                                 :scoredAt::timestamptz[])
+            ON CONFLICT (person_id) DO UPDATE SET
+                monthly_capacity = EXCLUDED.monthly_capacity,
+                max_loan_amount = EXCLUDED.max_loan_amount,
+                run_id = EXCLUDED.run_id,
+                scored_at = EXCLUDED.scored_at""";
+    private static final String DELETE_UNSCORED = "DELETE FROM credit_scores WHERE run_id <> :runId";
+
+    private final DatabaseClient client;
+    private final TransactionalOperator tx;
+    private final Counter rows;
+    private final Timer batchWrite;
+
+    public CreditScoringReactiveRepositoryAdapter(DatabaseClient client, TransactionalOperator tx,
+                                                  MeterRegistry registry) {
+        this.client = client;
+        this.tx = tx;
+        this.rows = Counter.builder("credit.scoring.rows")
+                .description("Persons scored and written; its rate is the job throughput in rows per second")
+                .register(registry);
+        this.batchWrite = Timer.builder("credit.scoring.batch.write")
+                .description("Upsert of one batch of credit scores together with its checkpoint")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<ScoringRun> claimRun(Duration staleAfter) {
+        Mono<ScoringRun> takeOver = client.sql(TAKE_OVER_RUN)
+                .bind("staleSeconds", (double) staleAfter.toSeconds())
+                .map(CreditScoringReactiveRepositoryAdapter::toRun)
+                .first();
+        Mono<ScoringRun> start = Mono.defer(() -> client.sql(START_RUN)
+                .bind("runId", UUID.randomUUID())
+                .map(CreditScoringReactiveRepositoryAdapter::toRun)
+                .first());
+        return RepositoryQueryEvent.mono("claimScoringRun", false, takeOver.switchIfEmpty(start));
+    }
+
+    @Override
+    public Flux<Person> personsAfter(UUID afterId) {
+        // Páginas por keyset en lugar de un portal abierto toda la corrida: cada página es una consulta corta
+        // que no retiene una conexión ni un snapshot (en una réplica frenaría el vacuum o la cancelaría el
+        // conflicto de recovery). Se lee del primario, el mismo donde avanza el checkpoint
+        return page(afterId != null ? afterId : FIRST_ID)
+                .expand(page -> page.size() < PERSONS_PAGE_SIZE
+                        ? Mono.empty()
+                        : page(page.get(page.size() - 1).getId()))
+                .concatMapIterable(page -> page);
+    }
+
+    private Mono<List<Person>> page(UUID after) {
+        return RepositoryQueryEvent.mono("personsAfter", false, client.sql(PERSONS_AFTER)
+                .bind("after", after)
+                .bind("limit", PERSONS_PAGE_SIZE)
+                .map((row, metadata) -> Person.builder()
+                        .id(row.get("id", UUID.class))
+                        .baseSalary(row.get("base_salary", BigDecimal.class))
+                        .build())
+                .all()
+                .collectList());
+    }
+
+    @Override
+    public Mono<ScoringRun> saveBatch(ScoringRun run, List<CreditScore> scores) {
+        if (scores.isEmpty()) {
+            return Mono.just(run);
+        }
+        UUID last = scores.get(scores.size() - 1).getPersonId();
+        DatabaseClient.GenericExecuteSpec checkpoint = client.sql(ADVANCE_CHECKPOINT)
+                .bind("last", last)
+                .bind("count", (long) scores.size())
+                .bind("runId", run.getRunId());
+        checkpoint = run.getLastPersonId() != null
+                ? checkpoint.bind("expected", run.getLastPersonId())
+                : checkpoint.bindNull("expected", UUID.class);
+        // El checkpoint va primero: toma el lock de la corrida antes de escribir los puntajes
+        Mono<ScoringRun> write = checkpoint
+                .map(CreditScoringReactiveRepositoryAdapter::toRun)
+                .first()
+                .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException(
+                        "Scoring run " + run.getRunId() + " was taken over or finished by another instance")))
+                .flatMap(advanced -> upsert(scores).thenReturn(advanced))
+                .as(tx::transactional);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return RepositoryQueryEvent.mono("saveScoringBatch", false, write)
+                    .doOnSuccess(advanced -> {
+                        batchWrite.record(Duration.ofNanos(System.nanoTime() - start));
+                        rows.increment(scores.size());
+                    });
+        });
+    }
+
+    private Mono<Long> upsert(List<CreditScore> scores) {
+        int size = scores.size();
+        UUID[] personId = new UUID[size];
+        BigDecimal[] monthly = new BigDecimal[size];
+        BigDecimal[] maxLoan = new BigDecimal[size];
+        UUID[] runId = new UUID[size];
+        OffsetDateTime[] scoredAt = new OffsetDateTime[size];
+        for (int i = 0; i < size; i++) {
+            CreditScore s = scores.get(i);
+            personId[i] = s.getPersonId();
+            monthly[i] = s.getMonthlyCapacity();
+            maxLoan[i] = s.getMaxLoanAmount();
+            runId[i] = s.getRunId();
+            scoredAt[i] = OffsetDateTime.ofInstant(s.getScoredAt(), ZoneOffset.UTC);
+        }
+        return client.sql(UPSERT_SCORES)
+                .bind("personId", personId)
+                .bind("monthly", monthly)
+                .bind("maxLoan", maxLoan)
+                .bind("runId", runId)
+                .bind("scoredAt", scoredAt)
+                .fetch().rowsUpdated();
+    }
+
+    @Override
+    public Mono<Void> finishRun(ScoringRun run) {
+        return RepositoryQueryEvent.mono("finishScoringRun", false, client.sql(DELETE_UNSCORED)
+                .bind("runId", run.getRunId())
+                .fetch().rowsUpdated()
+                .then(client.sql(FINISH_RUN)
+                        .bind("runId", run.getRunId())
+                        .fetch().rowsUpdated())
+                .as(tx::transactional))
+                .then();
+    }
+
+    private static ScoringRun toRun(Readable row) {
+        OffsetDateTime startedAt = row.get("started_at", OffsetDateTime.class);
+        Long scored = row.get("scored", Long.class);
+        return ScoringRun.builder()
+                .runId(row.get("run_id", UUID.class))
+                .lastPersonId(row.get("last_person_id", UUID.class))
+                .scored(scored != null ? scored : 0L)
+                .startedAt(startedAt != null ? startedAt.toInstant() : null)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.hiri.crediya.r2dbc.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Table;
 
 import java.math.BigDecimal;
@@ -28,4 +29,7 @@ public class PersonEntity {
     private String email;
     private BigDecimal baseSalary;
     private BigInteger role;
+    // Lo mantiene la base de datos (trigger persons_bump_version)
+    @ReadOnlyProperty
+    private Long version;
 }
\ No newline at end of file
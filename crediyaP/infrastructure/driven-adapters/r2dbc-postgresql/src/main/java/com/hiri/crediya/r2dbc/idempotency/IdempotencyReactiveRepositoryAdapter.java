@@ -0,0 +1,91 @@
+package com.hiri.crediya.r2dbc.idempotency;
+
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
+import com.hiri.crediya.model.idempotency.gateways.IdempotencyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Almacén de Idempotency-Key compartido entre instancias (tabla idempotency_keys).
+ * La llave se reserva con una fila pendiente antes de ejecutar: de dos instancias con la misma llave solo una
+ * inserta la reserva y ejecuta; la otra la encuentra pendiente.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "postgres")
+public class IdempotencyReactiveRepositoryAdapter implements IdempotencyRepository {
+
+    // Cada reserva purga un lote acotado de llaves vencidas, sin necesitar un job aparte (nunca la propia llave:
+    // una sentencia no puede borrar y actualizar la misma fila). Una reserva vencida se puede volver a tomar
+    private static final String RESERVE = """
+            WITH purge AS (
+                DELETE FROM idempotency_keys
+                WHERE idempotency_key IN (SELECT idempotency_key FROM idempotency_keys
+                                          WHERE expires_at < now() AND idempotency_key <> :key LIMIT 100)
+            )
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, pending, expires_at)
+            VALUES (:key, :fingerprint, 0, true, :expiresAt)
+            ON CONFLICT (idempotency_key) DO UPDATE
+                SET fingerprint = EXCLUDED.fingerprint, status = 0, location = NULL, body = NULL, pending = true,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at < now()
+            RETURNING idempotency_key""";
+    private static final String COMPLETE = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, location, body, pending, expires_at)
+            VALUES (:key, :fingerprint, :status, :location, :body, false, :expiresAt)
+            ON CONFLICT (idempotency_key) DO UPDATE
+                SET status = EXCLUDED.status, location = EXCLUDED.location, body = EXCLUDED.body, pending = false,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.pending AND idempotency_keys.fingerprint = EXCLUDED.fingerprint""";
+    private static final String RELEASE = "DELETE FROM idempotency_keys WHERE idempotency_key = :key AND pending";
+
+    private final DatabaseClient client;
+
+    @Override
+    public Mono<Boolean> reserve(String key, String fingerprint, Duration lease) {
+        return client.sql(RESERVE)
+                .bind("key", key)
+                .bind("fingerprint", fingerprint)
+                .bind("expiresAt", OffsetDateTime.now().plus(lease))
+                .map((row, metadata) -> row.get("idempotency_key", String.class))
+                .one()
+                .hasElement();
+    }
+
+    @Override
+    public Mono<IdempotentResponse> find(String key) {
+        return client.sql("SELECT fingerprint, status, location, body, pending FROM idempotency_keys WHERE idempotency_key = :key AND expires_at > now()")
+                .bind("key", key)
+                .map((row, metadata) -> IdempotentResponse.builder()
+                        .fingerprint(row.get("fingerprint", String.class))
+                        .status(row.get("status", Integer.class))
+                        .location(row.get("location", String.class))
+                        .body(row.get("body", String.class))
+                        .pending(Boolean.TRUE.equals(row.get("pending", Boolean.class)))
+                        .build())
+                .one();
+    }
+
+    @Override
+    public Mono<Void> save(String key, IdempotentResponse response, Duration ttl) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(COMPLETE)
+                .bind("key", key)
+                .bind("fingerprint", response.getFingerprint())
+                .bind("status", response.getStatus())
+                .bind("expiresAt", OffsetDateTime.now().plus(ttl));
+        spec = response.getLocation() != null ? spec.bind("location", response.getLocation()) : spec.bindNull("location", String.class);
+        spec = response.getBody() != null ? spec.bind("body", response.getBody()) : spec.bindNull("body", String.class);
+        return spec.then();
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return client.sql(RELEASE).bind("key", key).then();
+    }
+}
@@ -0,0 +1,167 @@
+package com.hiri.crediya.r2dbc.importer;
+
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import com.hiri.crediya.model.personimport.gateways.PersonImportRepository;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Importación masiva: COPY FROM STDIN a una tabla temporal de staging y merge set-based
+ * hacia persons, todo en una transacción. Los duplicados (contra person_keys o dentro del mismo
+ * archivo) se marcan en staging y se devuelven como rechazos en lugar de abortar la carga.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PersonImportReactiveRepositoryAdapter implements PersonImportRepository {
+
+    private static final int COPY_ROWS_PER_BUFFER = 1000;
+    private static final int RESULTS_FETCH_SIZE = 1000;
+
+    // TEXT en staging para que un valor largo rechace solo su fila y no el COPY completo
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE persons_import_staging (
+                line_no       BIGINT PRIMARY KEY,
+                names         TEXT,
+                lastnames     TEXT,
+                document      TEXT,
+                password      TEXT,
+                birthdate     DATE,
+                address       TEXT,
+                phone         TEXT,
+                email         TEXT,
+                base_salary   NUMERIC,
+                role          NUMERIC,
+                person_id     UUID,
+                reject_reason TEXT
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_STAGING = """
+            COPY persons_import_staging (line_no, names, lastnames, document, password, birthdate, address, phone, email, base_salary, role)
+            FROM STDIN WITH (FORMAT csv)""";
+
+    private static final List<String> MERGE_STEPS = List.of(
+            // Sin NOTIFY por fila: al final se publica un único BULK_IMPORT
+            "SET LOCAL crediya.person_changes = 'off'",
+            "ANALYZE persons_import_staging",
+            // person_keys es la unicidad global (persons_hot y persons_archive): ON CONFLICT sobre persons no la
+            // cubre y el trigger abortaría toda la carga con 23505. Con el lock ninguna alta o cambio de email o
+            // documento concurrente entra entre la verificación y el INSERT; esperan solo lo que dura el merge
+            "LOCK TABLE person_keys IN SHARE ROW EXCLUSIVE MODE",
+            """
+            UPDATE persons_import_staging SET reject_reason = 'Field too long'
+            WHERE length(names) > 100 OR length(lastnames) > 100 OR length(document) > 30 OR length(password) > 255
+               OR length(address) > 255 OR length(phone) > 30 OR length(email) > 150 OR base_salary >= 1e10""",
+            """
+            UPDATE persons_import_staging s SET reject_reason = 'Duplicate document or email in file'
+            FROM (SELECT line_no,
+                         row_number() OVER (PARTITION BY document ORDER BY line_no) AS by_document,
+                         row_number() OVER (PARTITION BY email ORDER BY line_no) AS by_email
+                  FROM persons_import_staging
+                  WHERE reject_reason IS NULL) r
+            WHERE s.line_no = r.line_no AND (r.by_document > 1 OR r.by_email > 1)""",
+            """
+            UPDATE persons_import_staging s SET reject_reason = 'Document or email already registered'
+            WHERE s.reject_reason IS NULL
+              AND (EXISTS (SELECT 1 FROM person_keys k WHERE k.document = s.document)
+                   OR EXISTS (SELECT 1 FROM person_keys k WHERE k.email = s.email))""",
+            // Con person_keys bloqueada ya no hay conflictos; ON CONFLICT queda como resguardo
+            """
+            WITH inserted AS (
+                INSERT INTO persons (names, lastnames, document, password, birthdate, address, phone, email, base_salary, role)
+                SELECT names, lastnames, document, password, birthdate, address, phone, email, base_salary, role
+                FROM persons_import_staging
+                WHERE reject_reason IS NULL
+                ON CONFLICT DO NOTHING
+                RETURNING id, document
+            )
+            UPDATE persons_import_staging s
+            SET person_id = i.id,
+                reject_reason = CASE WHEN i.id IS NULL THEN 'Document or email already registered' END
+            FROM persons_import_staging t LEFT JOIN inserted i ON i.document = t.document
+            WHERE s.line_no = t.line_no AND s.reject_reason IS NULL""",
+            "SELECT pg_notify('person_changes', format('BULK_IMPORT|||%s|', (extract(epoch FROM clock_timestamp()) * 1000)::bigint))");
+
+    // Importadas y rechazadas: el caso de uso audita las altas y arma el reporte con los rechazos
+    private static final String SELECT_RESULTS = """
+            SELECT line_no, person_id, document, reject_reason FROM persons_import_staging
+            ORDER BY line_no""";
+
+    private final DatabaseClient client;
+    private final TransactionalOperator tx;
+
+    @Override
+    public Flux<PersonImportRow> importPersons(Flux<PersonImportRow> rows) {
+        Flux<ByteBuf> stdin = rows
+                .buffer(COPY_ROWS_PER_BUFFER)
+                .map(PersonImportReactiveRepositoryAdapter::encode);
+        return client.sql(CREATE_STAGING).then()
+                .then(client.inConnection(connection -> postgres(connection).copyIn(COPY_STAGING, stdin)))
+                .doOnNext(copied -> log.info("Person import copied {} rows into staging", copied))
+                .thenMany(Flux.fromIterable(MERGE_STEPS).concatMap(sql -> client.sql(sql).then()))
+                .thenMany(client.sql(SELECT_RESULTS)
+                        .filter(statement -> statement.fetchSize(RESULTS_FETCH_SIZE))
+                        .map((row, metadata) -> PersonImportRow.builder()
+                                .lineNumber(row.get("line_no", Long.class))
+                                .person(Person.builder()
+                                        .id(row.get("person_id", UUID.class))
+                                        .document(row.get("document", String.class))
+                                        .build())
+                                .error(row.get("reject_reason", String.class))
+                                .build())
+                        .all())
+                .as(tx::transactional);
+    }
+
+    // La conexión llega envuelta por el pool y la instrumentación; COPY solo existe en la conexión nativa
+    private static PostgresqlConnection postgres(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgres) {
+            return postgres;
+        }
+        throw new IllegalStateException("COPY requires a PostgreSQL connection, got " + connection.getClass().getName());
+    }
+
+    private static ByteBuf encode(List<PersonImportRow> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 160);
+        for (PersonImportRow row : rows) {
+            Person p = row.getPerson();
+            csv.append(row.getLineNumber()).append(',')
+                    .append(quote(p.getNames())).append(',')
+                    .append(quote(p.getLastnames())).append(',')
+                    .append(quote(p.getDocument())).append(',')
+                    .append(quote(p.getPassword())).append(',')
+                    .append(p.getBirthdate() != null ? p.getBirthdate().toString() : "").append(',')
+                    .append(quote(p.getAddress())).append(',')
+                    .append(quote(p.getPhone())).append(',')
+                    .append(quote(p.getEmail())).append(',')
+                    .append(p.getBaseSalary() != null ? p.getBaseSalary().toPlainString() : "").append(',')
+                    .append(p.getRole() != null ? p.getRole().toString() : "")
+                    .append('\n');
+        }
+        return Unpooled.wrappedBuffer(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // En formato csv de COPY un campo vacío sin comillas es NULL; entre comillas es cadena vacía
+    private static String quote(String value) {
+        return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,116 @@
+package com.hiri.crediya.r2dbc.notify;
+
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Escucha el canal {@code person_changes} (LISTEN/NOTIFY, trigger persons_notify_change) sobre una
+ * conexión dedicada fuera del pool y reparte cada cambio a todos los suscriptores.
+ * La conexión se abre con el primer suscriptor y se reabre con backoff si se pierde;
+ * los cambios ocurridos mientras está caída no se recuperan por este canal.
+ */
+@Slf4j
+public class PostgresPersonChangeFeed implements PersonChangeFeed {
+
+    static final String CHANNEL = "person_changes";
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConnectionFactory listenerConnectionFactory;
+    private final Sinks.Many<PersonChange> sink = Sinks.many().multicast().directBestEffort();
+    // Último estado conocido del LISTEN: los suscriptores nuevos lo reciben al suscribirse
+    private final Sinks.Many<Boolean> listeningState = Sinks.many().replay().latest();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Disposable listener;
+
+    public PostgresPersonChangeFeed(ConnectionFactory listenerConnectionFactory) {
+        this.listenerConnectionFactory = listenerConnectionFactory;
+    }
+
+    @Override
+    public Flux<PersonChange> changes() {
+        return sink.asFlux().doOnSubscribe(subscription -> start());
+    }
+
+    @Override
+    public Flux<Boolean> listening() {
+        return listeningState.asFlux().distinctUntilChanged().doOnSubscribe(subscription -> start());
+    }
+
+    public void stop() {
+        if (listener != null) {
+            listener.dispose();
+        }
+        sink.tryEmitComplete();
+        listeningState.tryEmitComplete();
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            // Un único hilo emite (el del listener), así que tryEmitNext no compite
+            listener = listen().subscribe(sink::tryEmitNext);
+        }
+    }
+
+    private Flux<PersonChange> listen() {
+        return Flux.usingWhen(Mono.from(listenerConnectionFactory.create()).cast(PostgresqlConnection.class),
+                        connection -> connection.createStatement("LISTEN " + CHANNEL).execute()
+                                .flatMap(PostgresqlResult::getRowsUpdated)
+                                .doOnComplete(() -> {
+                                    log.info("Listening for person changes on channel {}", CHANNEL);
+                                    listeningState.tryEmitNext(true);
+                                })
+                                .thenMany(connection.getNotifications()),
+                        PostgresqlConnection::close)
+                .mapNotNull(notification -> parse(notification.getParameter()))
+                .doOnComplete(() -> listeningState.tryEmitNext(false))
+                .doOnError(error -> listeningState.tryEmitNext(false))
+                // getNotifications completa cuando el servidor cierra la conexión
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Person change listener lost, reconnecting: {}",
+                                signal.failure().getMessage())));
+    }
+
+    static PersonChange parse(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        // El documento va al final para que un '|' dentro de él no corra las demás columnas
+        String[] parts = payload.split("\\|", 5);
+        if (parts.length < 5) {
+            log.warn("Ignoring malformed person change payload: {}", payload);
+            return null;
+        }
+        return PersonChange.builder()
+                .type(type(parts[0]))
+                .id(parts[1].isEmpty() ? null : UUID.fromString(parts[1]))
+                .version(parts[2].isEmpty() ? null : Long.valueOf(parts[2]))
+                .at(Instant.ofEpochMilli(Long.parseLong(parts[3])))
+                .document(parts[4].isEmpty() ? null : parts[4])
+                .build();
+    }
+
+    private static PersonChange.Type type(String operation) {
+        return switch (operation) {
+            case "INSERT" -> PersonChange.Type.CREATED;
+            case "UPDATE" -> PersonChange.Type.UPDATED;
+            case "DELETE" -> PersonChange.Type.DELETED;
+            default -> PersonChange.Type.valueOf(operation);
+        };
+    }
+}
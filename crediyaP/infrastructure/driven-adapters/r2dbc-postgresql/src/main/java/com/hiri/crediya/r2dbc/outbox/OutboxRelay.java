@@ -0,0 +1,159 @@
+package com.hiri.crediya.r2dbc.outbox;
+
+import com.hiri.crediya.model.events.DomainEvent;
+import com.hiri.crediya.model.events.gateways.EventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publica la outbox por lotes: reclama (FOR UPDATE SKIP LOCKED + lease, commit), publica fuera de la
+ * transacción y después borra. Ninguna conexión queda tomada mientras dura la publicación y varias
+ * instancias no se reparten el mismo lote mientras la lease esté vigente. La entrega es at-least-once:
+ * si la instancia cae entre publicar y borrar, o la publicación tarda más que la lease, el lote se
+ * vuelve a publicar; los consumidores deduplican por event_id.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    // Una sola sentencia (autocommit): el lock de fila dura solo lo que tarda en escribirse la lease
+    static final String CLAIM = """
+            UPDATE outbox o SET claimed_until = now() + make_interval(secs => :leaseSeconds)
+            FROM (
+                SELECT id FROM outbox
+                WHERE claimed_until IS NULL OR claimed_until < now()
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ) batch
+            WHERE o.id = batch.id
+            RETURNING o.id, o.event_id, o.event_type, o.aggregate_id, o.payload::text AS payload, o.created_at""";
+    private static final String DELETE = "DELETE FROM outbox WHERE id = ANY(:ids)";
+    // Si la publicación falla el lote se libera y se reintenta en el siguiente tick, sin esperar la lease
+    private static final String RELEASE = "UPDATE outbox SET claimed_until = NULL WHERE id = ANY(:ids)";
+
+    private final DatabaseClient client;
+    private final EventPublisher publisher;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+    private Disposable task;
+
+    public OutboxRelay(DatabaseClient client, EventPublisher publisher, int batchSize, Duration pollInterval,
+                       Duration lease, MeterRegistry registry) {
+        this.client = client;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Outbox events published")
+                .register(registry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches released because publishing failed")
+                .register(registry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time from the outbox write to its publication")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .register(registry);
+    }
+
+    public void start() {
+        task = Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain(), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    // Mientras los lotes salgan llenos hay atraso: se sigue sin esperar al siguiente tick
+    Mono<Void> drain() {
+        return relayBatch()
+                .expand(count -> count == batchSize ? relayBatch() : Mono.empty())
+                .onErrorResume(e -> {
+                    failures.increment();
+                    log.warn("Outbox relay batch failed, will retry: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    Mono<Integer> relayBatch() {
+        return claim()
+                .flatMap(rows -> rows.isEmpty() ? Mono.just(List.<DomainEvent>of()) : publishAndDelete(rows))
+                // Las métricas se registran solo después del borrado
+                .doOnNext(this::record)
+                .map(List::size);
+    }
+
+    Mono<List<OutboxRow>> claim() {
+        return client.sql(CLAIM)
+                .bind("leaseSeconds", (double) lease.toMillis() / 1000)
+                .bind("limit", batchSize)
+                .map((row, metadata) -> new OutboxRow(row.get("id", Long.class), DomainEvent.builder()
+                        .eventId(row.get("event_id", UUID.class))
+                        .type(row.get("event_type", String.class))
+                        .aggregateId(row.get("aggregate_id", UUID.class))
+                        .payload(row.get("payload", String.class))
+                        .occurredAt(row.get("created_at", OffsetDateTime.class).toInstant())
+                        .build()))
+                .all()
+                // RETURNING no respeta el ORDER BY del subselect
+                .sort(Comparator.comparing(OutboxRow::id))
+                .collectList();
+    }
+
+    private Mono<List<DomainEvent>> publishAndDelete(List<OutboxRow> rows) {
+        List<DomainEvent> events = rows.stream().map(OutboxRow::event).toList();
+        Long[] ids = rows.stream().map(OutboxRow::id).toArray(Long[]::new);
+        return publisher.publish(events)
+                .onErrorResume(error -> release(ids).onErrorResume(e -> Mono.empty()).then(Mono.error(error)))
+                .then(delete(ids))
+                .thenReturn(events);
+    }
+
+    Mono<Void> delete(Long[] ids) {
+        return client.sql(DELETE).bind("ids", ids).then();
+    }
+
+    Mono<Void> release(Long[] ids) {
+        return client.sql(RELEASE).bind("ids", ids).then();
+    }
+
+    private void record(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        events.forEach(event -> lag.record(Duration.between(event.getOccurredAt(), now)));
+        published.increment(events.size());
+        batchSizes.record(events.size());
+    }
+
+    record OutboxRow(Long id, DomainEvent event) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.hiri.crediya.r2dbc.routing;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Envía al pool de réplica las operaciones marcadas como solo lectura en el contexto de Reactor
+ * ({@link #readOnly(Context)}); todo lo demás, incluidas las transacciones, va al primario.
+ * Si la réplica está atrasada o no entrega conexión, la lectura cae al primario.
+ */
+@Slf4j
+public class ReadWriteRoutingConnectionFactory implements ConnectionFactory {
+
+    public static final String READ_ONLY_KEY = ReadWriteRoutingConnectionFactory.class.getName() + ".readOnly";
+
+    private final ConnectionFactory primary;
+    private final ConnectionFactory replica;
+    private final BooleanSupplier replicaAvailable;
+
+    public ReadWriteRoutingConnectionFactory(ConnectionFactory primary, ConnectionFactory replica, BooleanSupplier replicaAvailable) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    public static Context readOnly(Context context) {
+        return context.put(READ_ONLY_KEY, Boolean.TRUE);
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(ctx -> {
+            if (!useReplica(ctx)) {
+                return Mono.<Connection>from(primary.create());
+            }
+            return Mono.<Connection>from(replica.create())
+                    .onErrorResume(e -> {
+                        log.warn("Replica connection failed, falling back to primary: {}", e.getMessage());
+                        return Mono.from(primary.create());
+                    });
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    private boolean useReplica(ContextView ctx) {
+        return replica != null
+                && ctx.getOrDefault(READ_ONLY_KEY, Boolean.FALSE)
+                && replicaAvailable.getAsBoolean();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hiri.crediya.r2dbc.routing;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Mide periódicamente el retraso de replicación de la réplica y la marca como no disponible
+ * mientras supere {@code maxLag} o no responda. Arranca como no disponible hasta la primera medición.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Sin WAL pendiente por aplicar el retraso es 0 aunque no haya transacciones recientes
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END::float8 AS lag_seconds""";
+
+    private final ConnectionFactory replica;
+    private final Duration maxLag;
+    private final Duration interval;
+    private volatile boolean available;
+    private volatile double lagSeconds = -1;
+    private Disposable task;
+
+    public ReplicaLagMonitor(ConnectionFactory replica, Duration maxLag, Duration interval) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.interval = interval;
+    }
+
+    public void start() {
+        task = Flux.interval(Duration.ZERO, interval)
+                .concatMap(tick -> measure()
+                        .timeout(interval)
+                        .doOnNext(this::update)
+                        .onErrorResume(e -> {
+                            log.warn("Replica lag check failed: {}", e.getMessage());
+                            available = false;
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    Mono<Double> measure() {
+        return Mono.usingWhen(Mono.<Connection>from(replica.create()),
+                connection -> Mono.from(connection.createStatement(LAG_QUERY).execute())
+                        .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get("lag_seconds", Double.class)))),
+                Connection::close);
+    }
+
+    void update(double lag) {
+        boolean wasAvailable = available;
+        lagSeconds = lag;
+        available = lag * 1000 <= maxLag.toMillis();
+        if (wasAvailable != available) {
+            log.info("Replica {} for reads (lag {}s)", available ? "enabled" : "disabled", lag);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import com.hiri.crediya.model.person.Person;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Columnas y mapeo de persons compartidos por el repositorio con sharding y el rebalanceo. */
+final class PersonRows {
+
+    static final String COLUMNS = "id, names, lastnames, document, password, birthdate, address, phone, email, base_salary, role, version";
+    static final String VALUES = ":id, :names, :lastnames, :document, :password, :birthdate, :address, :phone, :email, :baseSalary, :role";
+    // Copia entre shards: además de los datos viaja lo que la fila acumuló (versión, partición y actividad)
+    static final String STORED_COLUMNS = COLUMNS + ", archived, last_activity_at";
+    static final String STORED_VALUES = VALUES + ", :version, :archived, :lastActivityAt";
+
+    private PersonRows() {
+    }
+
+    static Person toPerson(Row row) {
+        BigDecimal role = row.get("role", BigDecimal.class);
+        return Person.builder()
+                .id(row.get("id", UUID.class))
+                .names(row.get("names", String.class))
+                .lastnames(row.get("lastnames", String.class))
+                .document(row.get("document", String.class))
+                .password(row.get("password", String.class))
+                .birthdate(row.get("birthdate", LocalDate.class))
+                .address(row.get("address", String.class))
+                .phone(row.get("phone", String.class))
+                .email(row.get("email", String.class))
+                .baseSalary(row.get("base_salary", BigDecimal.class))
+                .role(role != null ? role.toBigInteger() : null)
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    static Stored toStored(Row row) {
+        return new Stored(toPerson(row), Boolean.TRUE.equals(row.get("archived", Boolean.class)),
+                row.get("last_activity_at", OffsetDateTime.class));
+    }
+
+    static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Stored stored) {
+        spec = bind(spec, stored.person());
+        spec = bind(spec, "version", stored.person().getVersion(), Long.class);
+        spec = spec.bind("archived", stored.archived());
+        return bind(spec, "lastActivityAt", stored.lastActivityAt(), OffsetDateTime.class);
+    }
+
+    // Los parámetros de VALUES; la versión la mantiene el trigger persons_bump_version
+    static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Person person) {
+        spec = spec.bind("id", person.getId());
+        spec = bind(spec, "names", person.getNames(), String.class);
+        spec = bind(spec, "lastnames", person.getLastnames(), String.class);
+        spec = bind(spec, "document", person.getDocument(), String.class);
+        spec = bind(spec, "password", person.getPassword(), String.class);
+        spec = bind(spec, "birthdate", person.getBirthdate(), LocalDate.class);
+        spec = bind(spec, "address", person.getAddress(), String.class);
+        spec = bind(spec, "phone", person.getPhone(), String.class);
+        spec = bind(spec, "email", person.getEmail(), String.class);
+        spec = bind(spec, "baseSalary", person.getBaseSalary(), BigDecimal.class);
+        return bind(spec, "role", person.getRole() != null ? new BigDecimal(person.getRole()) : null, BigDecimal.class);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    /** Fila de persons tal como está guardada, para copiarla a otro shard sin perder su estado. */
+    record Stored(Person person, boolean archived, OffsetDateTime lastActivityAt) {
+    }
+}
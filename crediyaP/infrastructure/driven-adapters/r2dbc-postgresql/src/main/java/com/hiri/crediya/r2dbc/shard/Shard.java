@@ -0,0 +1,21 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.Getter;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/** Una base Postgres con su propia tabla persons (esquema completo de db/migration). */
+@Getter
+public class Shard {
+    private final String name;
+    private final DatabaseClient client;
+    private final TransactionalOperator tx;
+
+    public Shard(String name, ConnectionFactory connectionFactory) {
+        this.name = name;
+        this.client = DatabaseClient.create(connectionFactory);
+        this.tx = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
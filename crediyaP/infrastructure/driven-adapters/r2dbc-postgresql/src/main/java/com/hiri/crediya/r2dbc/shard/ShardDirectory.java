@@ -0,0 +1,171 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Directorio del sharding de persons, guardado en la base principal (migración V7):
+ * {@code shard_buckets} asigna cada bucket (crc32(document) % buckets) a un shard y
+ * {@code persons_directory} resuelve id → bucket y mantiene el email único entre shards.
+ * Las lecturas por documento usan una copia en memoria del mapa que se refresca cada refreshInterval;
+ * las escrituras y las búsquedas por id consultan el estado vigente del bucket.
+ */
+@Slf4j
+public class ShardDirectory {
+
+    static final String ACTIVE = "ACTIVE";
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String INITIALIZE = """
+            INSERT INTO shard_buckets (bucket, shard)
+            SELECT b, :shard FROM generate_series(0, :last) AS b
+            ON CONFLICT (bucket) DO NOTHING""";
+    private static final String COUNT_BUCKETS = "SELECT count(*) AS buckets FROM shard_buckets";
+    private static final String OWNERS = "SELECT bucket, shard FROM shard_buckets";
+    private static final String BUCKET_STATE = "SELECT shard, state FROM shard_buckets WHERE bucket = :bucket";
+    private static final String LOCATE = """
+            SELECT d.bucket, d.email, b.shard, b.state
+            FROM persons_directory d JOIN shard_buckets b ON b.bucket = d.bucket
+            WHERE d.id = :id""";
+    private static final String EMAIL_TAKEN = "SELECT EXISTS (SELECT 1 FROM persons_directory WHERE email = :email) AS taken";
+    private static final String REGISTER = "INSERT INTO persons_directory (id, bucket, email) VALUES (:id, :bucket, :email)";
+    private static final String UPDATE = "UPDATE persons_directory SET bucket = :bucket, email = :email WHERE id = :id";
+    private static final String UNREGISTER = "DELETE FROM persons_directory WHERE id = :id";
+
+    private final DatabaseClient client;
+    private final int buckets;
+    private final String initialShard;
+    private final Duration refreshInterval;
+    private volatile String[] owners;
+    private Disposable refresher;
+
+    public ShardDirectory(DatabaseClient client, int buckets, String initialShard, Duration refreshInterval) {
+        this.client = client;
+        this.buckets = buckets;
+        this.initialShard = initialShard;
+        this.refreshInterval = refreshInterval;
+    }
+
+    // Bloquea el arranque hasta tener el mapa: sin él no se puede rutear ninguna operación
+    public void start() {
+        initialize().then(refresh()).block(START_TIMEOUT);
+        refresher = Flux.interval(refreshInterval, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(error -> {
+                            log.warn("Shard map refresh failed, keeping the previous one: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    // Primer arranque: todos los buckets en el shard inicial; el rebalanceo los reparte después
+    private Mono<Void> initialize() {
+        return client.sql(INITIALIZE)
+                .bind("shard", initialShard)
+                .bind("last", buckets - 1)
+                .then()
+                .then(client.sql(COUNT_BUCKETS).map((row, metadata) -> row.get("buckets", Long.class)).one())
+                .flatMap(count -> count == buckets
+                        ? Mono.empty()
+                        : Mono.error(new IllegalStateException("shard_buckets has " + count
+                                + " buckets but persistence.sharding.buckets is " + buckets
+                                + "; changing the bucket count requires re-hashing every person")));
+    }
+
+    Mono<Void> refresh() {
+        return client.sql(OWNERS)
+                .map((row, metadata) -> new Object[]{row.get("bucket", Integer.class), row.get("shard", String.class)})
+                .all()
+                .collectList()
+                .doOnNext(rows -> {
+                    String[] next = new String[buckets];
+                    rows.forEach(row -> next[(Integer) row[0]] = (String) row[1]);
+                    owners = next;
+                })
+                .then();
+    }
+
+    public int bucketOf(String document) {
+        return bucketOf(document, buckets);
+    }
+
+    // Estable entre versiones de la JVM: String.hashCode no está pensado para persistirse
+    static int bucketOf(String document, int buckets) {
+        CRC32 crc = new CRC32();
+        crc.update(document.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % buckets);
+    }
+
+    /** Dueño del bucket según el último mapa leído; puede estar atrasado hasta refreshInterval. */
+    public String ownerOf(int bucket) {
+        String[] current = owners;
+        if (current == null) {
+            throw new IllegalStateException("Shard map not loaded yet");
+        }
+        return current[bucket];
+    }
+
+    /** Dueño vigente del bucket para escribir; falla con un error reintentable mientras el bucket se mueve. */
+    public Mono<String> writableOwner(int bucket) {
+        return client.sql(BUCKET_STATE)
+                .bind("bucket", bucket)
+                .map((row, metadata) -> new String[]{row.get("shard", String.class), row.get("state", String.class)})
+                .one()
+                .switchIfEmpty(Mono.error(new IllegalStateException("Bucket " + bucket + " has no shard")))
+                .flatMap(owner -> ACTIVE.equals(owner[1])
+                        ? Mono.just(owner[0])
+                        : Mono.error(new TransientDataAccessResourceException(
+                                "Bucket " + bucket + " is being moved between shards, retry later")));
+    }
+
+    public Mono<Location> locate(UUID id) {
+        return client.sql(LOCATE)
+                .bind("id", id)
+                .map((row, metadata) -> new Location(row.get("bucket", Integer.class), row.get("email", String.class),
+                        row.get("shard", String.class), row.get("state", String.class)))
+                .one();
+    }
+
+    public Mono<Boolean> emailTaken(String email) {
+        return client.sql(EMAIL_TAKEN)
+                .bind("email", email)
+                .map((row, metadata) -> row.get("taken", Boolean.class))
+                .one();
+    }
+
+    // La restricción UNIQUE del email hace fallar con DuplicateKeyException antes de tocar el shard
+    public Mono<Void> register(UUID id, int bucket, String email) {
+        return client.sql(REGISTER).bind("id", id).bind("bucket", bucket).bind("email", email).then();
+    }
+
+    public Mono<Void> update(UUID id, int bucket, String email) {
+        return client.sql(UPDATE).bind("id", id).bind("bucket", bucket).bind("email", email).then();
+    }
+
+    public Mono<Void> unregister(UUID id) {
+        return client.sql(UNREGISTER).bind("id", id).then();
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public record Location(int bucket, String email, String shard, String state) {
+    }
+}
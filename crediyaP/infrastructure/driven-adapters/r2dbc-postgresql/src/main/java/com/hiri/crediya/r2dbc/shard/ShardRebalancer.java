@@ -0,0 +1,232 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Herramienta de rebalanceo: mueve buckets completos entre shards y adopta filas existentes en el directorio.
+ * Mover un grupo de buckets: se marcan MIGRATING (las escrituras fallan con un error reintentable), se espera
+ * drainGrace para que terminen las escrituras ya autorizadas, se copian las filas, se cambia el dueño, se espera
+ * drainGrace para que todas las instancias refresquen el mapa y recién entonces se borran del origen.
+ * Pensada para una ejecución a la vez.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String BUCKETS = "SELECT bucket, shard FROM shard_buckets ORDER BY bucket";
+    private static final String DISTRIBUTION = """
+            SELECT shard, state, count(*) AS buckets FROM shard_buckets GROUP BY shard, state ORDER BY shard, state""";
+    private static final String MARK_MIGRATING = """
+            UPDATE shard_buckets SET state = 'MIGRATING'
+            WHERE bucket = ANY(:buckets) AND shard = :source AND state = 'ACTIVE'""";
+    private static final String SWITCH_OWNER = """
+            UPDATE shard_buckets SET shard = :target, state = 'ACTIVE'
+            WHERE bucket = ANY(:buckets) AND shard = :source""";
+    private static final String RELEASE = """
+            UPDATE shard_buckets SET state = 'ACTIVE' WHERE bucket = ANY(:buckets) AND shard = :source""";
+    private static final String BUCKET_IDS = "SELECT id FROM persons_directory WHERE bucket = ANY(:buckets)";
+    private static final String SELECT_ROWS = "SELECT " + PersonRows.STORED_COLUMNS + " FROM persons WHERE id = ANY(:ids)";
+    private static final String UPSERT_ROW = "INSERT INTO persons (" + PersonRows.STORED_COLUMNS
+            + ") VALUES (" + PersonRows.STORED_VALUES + """
+            )
+            ON CONFLICT (id, archived) DO UPDATE SET names = EXCLUDED.names, lastnames = EXCLUDED.lastnames,
+                document = EXCLUDED.document, password = EXCLUDED.password, birthdate = EXCLUDED.birthdate,
+                address = EXCLUDED.address, phone = EXCLUDED.phone, email = EXCLUDED.email,
+                base_salary = EXCLUDED.base_salary, role = EXCLUDED.role, version = EXCLUDED.version,
+                last_activity_at = EXCLUDED.last_activity_at""";
+    private static final String DELETE_ROWS = "DELETE FROM persons WHERE id = ANY(:ids)";
+    private static final String SCAN = "SELECT id, document, email FROM persons";
+    private static final String ADOPT = """
+            INSERT INTO persons_directory (id, bucket, email) VALUES (:id, :bucket, :email)
+            ON CONFLICT (id) DO NOTHING""";
+    // Mover filas no es un alta ni un cambio para los consumidores: sin outbox ni NOTIFY, y la copia
+    // conserva versión y actividad del origen (persons_bump_version no las pisa al reintentar el upsert)
+    private static final List<String> SILENT = List.of(
+            "SET LOCAL crediya.outbox = 'off'",
+            "SET LOCAL crediya.person_changes = 'off'",
+            "SET LOCAL crediya.shard_move = 'on'");
+
+    private final DatabaseClient directoryClient;
+    private final ShardDirectory directory;
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+    private final Duration drainGrace;
+    private final int batchSize;
+
+    public ShardRebalancer(DatabaseClient directoryClient, ShardDirectory directory, List<Shard> shards,
+                           Duration drainGrace, int batchSize) {
+        this.directoryClient = directoryClient;
+        this.directory = directory;
+        shards.forEach(shard -> this.shards.put(shard.getName(), shard));
+        this.drainGrace = drainGrace;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<Map<String, Map<String, Long>>> distribution() {
+        return directoryClient.sql(DISTRIBUTION)
+                .map((row, metadata) -> new Object[]{row.get("shard", String.class), row.get("state", String.class),
+                        row.get("buckets", Long.class)})
+                .all()
+                .collect(LinkedHashMap::new, (result, row) -> result
+                        .computeIfAbsent((String) row[0], shard -> new LinkedHashMap<>())
+                        .put((String) row[1], (Long) row[2]));
+    }
+
+    /** Reparte los buckets en partes iguales entre todos los shards configurados; devuelve filas movidas. */
+    public Mono<Long> rebalance() {
+        return directoryClient.sql(BUCKETS)
+                .map((row, metadata) -> new Object[]{row.get("bucket", Integer.class), row.get("shard", String.class)})
+                .all()
+                .collectList()
+                .flatMapMany(rows -> Flux.fromIterable(plan(rows)))
+                .concatMap(move -> move(move.source(), move.target(), move.buckets()), 1)
+                .reduce(0L, Long::sum);
+    }
+
+    // Los shards con exceso ceden sus últimos buckets a los que tienen menos que la parte que les toca
+    List<Move> plan(List<Object[]> rows) {
+        Map<String, List<Integer>> owned = new LinkedHashMap<>();
+        shards.keySet().forEach(name -> owned.put(name, new ArrayList<>()));
+        rows.forEach(row -> owned.computeIfAbsent((String) row[1], name -> new ArrayList<>()).add((Integer) row[0]));
+        int configured = shards.size();
+        int base = directory.getBuckets() / configured;
+        int extra = directory.getBuckets() % configured;
+        Map<String, Integer> share = new LinkedHashMap<>();
+        int index = 0;
+        for (String name : shards.keySet()) {
+            share.put(name, base + (index++ < extra ? 1 : 0));
+        }
+        List<Integer> surplus = new ArrayList<>();
+        Map<Integer, String> surplusSource = new LinkedHashMap<>();
+        owned.forEach((name, buckets) -> {
+            int keep = share.getOrDefault(name, 0);
+            for (int bucket : buckets.subList(Math.min(keep, buckets.size()), buckets.size())) {
+                surplus.add(bucket);
+                surplusSource.put(bucket, name);
+            }
+        });
+        Map<String, Map<String, List<Integer>>> grouped = new LinkedHashMap<>();
+        int next = 0;
+        for (Map.Entry<String, Integer> target : share.entrySet()) {
+            int missing = target.getValue() - owned.get(target.getKey()).size();
+            for (int i = 0; i < missing && next < surplus.size(); i++, next++) {
+                int bucket = surplus.get(next);
+                grouped.computeIfAbsent(surplusSource.get(bucket), source -> new LinkedHashMap<>())
+                        .computeIfAbsent(target.getKey(), name -> new ArrayList<>())
+                        .add(bucket);
+            }
+        }
+        List<Move> moves = new ArrayList<>();
+        grouped.forEach((source, targets) -> targets.forEach((target, buckets) -> moves.add(new Move(source, target, buckets))));
+        return moves;
+    }
+
+    /** Mueve los buckets indicados (todos del mismo shard origen) al shard destino; devuelve filas copiadas. */
+    public Mono<Long> move(String source, String target, List<Integer> buckets) {
+        Shard from = shard(source);
+        Shard to = shard(target);
+        Integer[] bucketArray = buckets.toArray(Integer[]::new);
+        log.info("Moving {} buckets from shard {} to {}", buckets.size(), source, target);
+        return directoryClient.sql(MARK_MIGRATING)
+                .bind("buckets", bucketArray)
+                .bind("source", source)
+                .fetch().rowsUpdated()
+                .flatMap(marked -> marked == buckets.size()
+                        ? Mono.delay(drainGrace)
+                        : Mono.error(new IllegalStateException("Not every bucket is ACTIVE on shard " + source)))
+                .thenMany(bucketIds(bucketArray))
+                .buffer(batchSize)
+                .concatMap(batch -> copy(from, to, batch), 1)
+                .reduce(0L, Long::sum)
+                .flatMap(copied -> directoryClient.sql(SWITCH_OWNER)
+                        .bind("buckets", bucketArray)
+                        .bind("source", source)
+                        .bind("target", target)
+                        .then()
+                        .then(directory.refresh())
+                        // Las instancias con el mapa anterior siguen leyendo del origen hasta refrescarlo
+                        .then(Mono.delay(drainGrace))
+                        .thenMany(bucketIds(bucketArray))
+                        .buffer(batchSize)
+                        .concatMap(batch -> silently(from, from.getClient().sql(DELETE_ROWS)
+                                .bind("ids", batch.toArray(UUID[]::new)).then()), 1)
+                        .then(Mono.just(copied)))
+                .doOnNext(copied -> log.info("Moved {} persons in {} buckets from shard {} to {}",
+                        copied, buckets.size(), source, target))
+                .onErrorResume(error -> directoryClient.sql(RELEASE)
+                        .bind("buckets", bucketArray)
+                        .bind("source", source)
+                        .then()
+                        .then(Mono.error(error)));
+    }
+
+    /** Registra en el directorio las filas de un shard que aún no están (p. ej. la base única previa al sharding). */
+    public Mono<Long> adopt(String shardName) {
+        Shard shard = shard(shardName);
+        return shard.getClient().sql(SCAN)
+                .filter(statement -> statement.fetchSize(batchSize))
+                .map((row, metadata) -> new Object[]{row.get("id", UUID.class), row.get("document", String.class),
+                        row.get("email", String.class)})
+                .all()
+                .filter(row -> {
+                    int bucket = directory.bucketOf((String) row[1]);
+                    boolean owned = shardName.equals(directory.ownerOf(bucket));
+                    if (!owned) {
+                        log.warn("Person {} is on shard {} but its bucket {} belongs to {}", row[0], shardName, bucket,
+                                directory.ownerOf(bucket));
+                    }
+                    return owned;
+                })
+                .concatMap(row -> directoryClient.sql(ADOPT)
+                        .bind("id", row[0])
+                        .bind("bucket", directory.bucketOf((String) row[1]))
+                        .bind("email", row[2])
+                        .fetch().rowsUpdated(), 1)
+                .reduce(0L, Long::sum);
+    }
+
+    private Flux<UUID> bucketIds(Integer[] buckets) {
+        return directoryClient.sql(BUCKET_IDS)
+                .bind("buckets", buckets)
+                .map((row, metadata) -> row.get("id", UUID.class))
+                .all();
+    }
+
+    private Mono<Long> copy(Shard from, Shard to, List<UUID> ids) {
+        return from.getClient().sql(SELECT_ROWS)
+                .bind("ids", ids.toArray(UUID[]::new))
+                .map((row, metadata) -> PersonRows.toStored(row))
+                .all()
+                .collectList()
+                .flatMap(rows -> silently(to, Flux.fromIterable(rows)
+                        .concatMap(stored -> PersonRows.bind(to.getClient().sql(UPSERT_ROW), stored).then())
+                        .then())
+                        .thenReturn((long) rows.size()));
+    }
+
+    private static Mono<Void> silently(Shard shard, Mono<Void> work) {
+        return Flux.fromIterable(SILENT)
+                .concatMap(sql -> shard.getClient().sql(sql).then())
+                .then(work)
+                .as(shard.getTx()::transactional);
+    }
+
+    private Shard shard(String name) {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown shard " + name);
+        }
+        return shard;
+    }
+
+    record Move(String source, String target, List<Integer> buckets) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
+import com.hiri.crediya.model.person.gateways.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.concurrent.Queues;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PersonRepository repartido en varias bases Postgres por hash del documento (ver ShardDirectory).
+ * Documento → un solo shard; id → directorio y luego shard; los listados consultan todos los shards
+ * y se mezclan en orden de id. Las escrituras cruzan dos bases (directorio y shard) sin transacción
+ * distribuida: primero se reserva en el directorio y si el shard falla se compensa.
+ */
+@Slf4j
+public class ShardedPersonRepository implements PersonRepository {
+
+    // Postgres ordena uuid byte a byte sin signo; UUID.compareTo compara con signo
+    static final Comparator<UUID> POSTGRES_UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+    private static final Comparator<Person> BY_ID = Comparator.comparing(Person::getId, POSTGRES_UUID_ORDER);
+
+    private static final String INSERT = "INSERT INTO persons (" + PersonRows.COLUMNS.replace(", version", "")
+            + ") VALUES (" + PersonRows.VALUES + ") RETURNING " + PersonRows.COLUMNS;
+    // La fila que cambia de shard por un cambio de documento sigue con la versión que le corresponde
+    private static final String MOVE_INSERT = "INSERT INTO persons (" + PersonRows.COLUMNS + ") VALUES ("
+            + PersonRows.VALUES + ", :version) RETURNING " + PersonRows.COLUMNS;
+    private static final String CURRENT_VERSION = "SELECT version FROM persons WHERE id = :id";
+    private static final String UPDATE = """
+            UPDATE persons SET names = :names, lastnames = :lastnames, document = :document, password = :password,
+                birthdate = :birthdate, address = :address, phone = :phone, email = :email,
+                base_salary = :baseSalary, role = :role
+            WHERE id = :id
+            RETURNING\s""" + PersonRows.COLUMNS;
+    private static final String BY_DOCUMENT = "SELECT " + PersonRows.COLUMNS + " FROM persons WHERE document = :document";
+    private static final String BY_ID_QUERY = "SELECT " + PersonRows.COLUMNS + " FROM persons WHERE id = :id";
+    private static final String DOCUMENT_EXISTS = "SELECT EXISTS (SELECT 1 FROM persons WHERE document = :document) AS found";
+    private static final String DELETE = "DELETE FROM persons WHERE id = :id";
+    // Cada shard aporta a lo sumo offset + size filas; el merge descarta el resto
+    private static final String PAGE = "SELECT " + PersonRows.COLUMNS + " FROM persons ORDER BY id LIMIT :limit";
+    private static final String EXPORT = "SELECT " + PersonRows.COLUMNS + " FROM persons";
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final ShardDirectory directory;
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+
+    public ShardedPersonRepository(ShardDirectory directory, List<Shard> shards) {
+        this.directory = directory;
+        shards.forEach(shard -> this.shards.put(shard.getName(), shard));
+    }
+
+    @Override
+    public Mono<Person> save(Person person) {
+        Mono<Person> write = person.getId() == null ? insert(person) : update(person);
+        return write.onErrorMap(DuplicateKeyException.class, e -> new RuntimeException("User already exists"));
+    }
+
+    private Mono<Person> insert(Person person) {
+        // El id se genera acá: el directorio lo necesita antes de escribir en el shard
+        Person created = person.toBuilder().id(UUID.randomUUID()).build();
+        int bucket = directory.bucketOf(created.getDocument());
+        return directory.writableOwner(bucket)
+                .flatMap(owner -> directory.register(created.getId(), bucket, created.getEmail())
+                        .then(insertRow(shard(owner), created))
+                        // Sin la fila en el shard, la entrada del directorio no debe retener el email
+                        .onErrorResume(error -> directory.unregister(created.getId())
+                                .onErrorResume(e -> Mono.empty())
+                                .then(Mono.error(error))));
+    }
+
+    private Mono<Person> update(Person person) {
+        UUID id = person.getId();
+        int bucket = directory.bucketOf(person.getDocument());
+        return directory.locate(id)
+                .switchIfEmpty(Mono.error(new EmptyResultDataAccessException("Person not found: " + id, 1)))
+                .flatMap(current -> Mono.zip(directory.writableOwner(current.bucket()), directory.writableOwner(bucket))
+                        .flatMap(owners -> directory.update(id, bucket, person.getEmail())
+                                .then(owners.getT1().equals(owners.getT2())
+                                        ? updateRow(shard(owners.getT2()), person)
+                                        : moveRow(shard(owners.getT1()), shard(owners.getT2()), person))
+                                .onErrorResume(error -> directory.update(id, current.bucket(), current.email())
+                                        .onErrorResume(e -> Mono.empty())
+                                        .then(Mono.error(error)))));
+    }
+
+    // Un cambio de documento puede cambiar de shard: se inserta en el nuevo y se borra del anterior.
+    // Como cualquier actualización suma una versión y vuelve a persons_hot con actividad de ahora
+    private Mono<Person> moveRow(Shard from, Shard to, Person person) {
+        return from.getClient().sql(CURRENT_VERSION)
+                .bind("id", person.getId())
+                .map((row, metadata) -> row.get("version", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(new EmptyResultDataAccessException("Person not found: " + person.getId(), 1)))
+                .flatMap(version -> PersonRows.bind(to.getClient().sql(MOVE_INSERT), person)
+                        .bind("version", version + 1)
+                        .map((row, metadata) -> PersonRows.toPerson(row))
+                        .one())
+                .flatMap(moved -> from.getClient().sql(DELETE).bind("id", person.getId()).then()
+                        .doOnError(error -> log.error("Person {} copied to shard {} but not deleted from {}: {}",
+                                person.getId(), to.getName(), from.getName(), error.getMessage()))
+                        .thenReturn(moved));
+    }
+
+    private Mono<Person> insertRow(Shard shard, Person person) {
+        return PersonRows.bind(shard.getClient().sql(INSERT), person)
+                .map((row, metadata) -> PersonRows.toPerson(row))
+                .one();
+    }
+
+    private Mono<Person> updateRow(Shard shard, Person person) {
+        return PersonRows.bind(shard.getClient().sql(UPDATE), person)
+                .map((row, metadata) -> PersonRows.toPerson(row))
+                .one()
+                .switchIfEmpty(Mono.error(new EmptyResultDataAccessException("Person not found: " + person.getId(), 1)));
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmailOrDocument(String email, String document) {
+        return directory.emailTaken(email)
+                .flatMap(taken -> taken ? Mono.just(true) : Mono.defer(() -> owner(document).getClient().sql(DOCUMENT_EXISTS)
+                        .bind("document", document)
+                        .map((row, metadata) -> row.get("found", Boolean.class))
+                        .one()));
+    }
+
+    @Override
+    public Mono<Person> findByDocument(String document) {
+        return Mono.defer(() -> owner(document).getClient().sql(BY_DOCUMENT)
+                .bind("document", document)
+                .map((row, metadata) -> PersonRows.toPerson(row))
+                .one());
+    }
+
+    @Override
+    public Mono<Person> findById(UUID id) {
+        return directory.locate(id)
+                .flatMap(location -> shard(location.shard()).getClient().sql(BY_ID_QUERY)
+                        .bind("id", id)
+                        .map((row, metadata) -> PersonRows.toPerson(row))
+                        .one());
+    }
+
+    @Override
+    public Flux<Person> getAllPersons(int page, int size) {
+        // Mismo contrato que el adaptador de una sola base: page es el OFFSET
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) page + size);
+        List<Flux<Person>> perShard = shards.values().stream()
+                .map(shard -> shard.getClient().sql(PAGE)
+                        .bind("limit", limit)
+                        .map((row, metadata) -> PersonRows.toPerson(row))
+                        .all()
+                        .filter(person -> owns(shard, person)))
+                .toList();
+        return mergeById(perShard).skip(page).take(size);
+    }
+
+    // Merge k-way: cada shard ya viene ordenado por id, solo se compara la cabeza de cada flujo
+    static Flux<Person> mergeById(List<Flux<Person>> sortedSources) {
+        return Flux.mergeComparing(Queues.SMALL_BUFFER_SIZE, BY_ID, sortedSources.toArray(Flux[]::new));
+    }
+
+    @Override
+    public Mono<Void> deletePerson(UUID id) {
+        return directory.locate(id)
+                .flatMap(location -> directory.writableOwner(location.bucket())
+                        .flatMap(owner -> shard(owner).getClient().sql(DELETE).bind("id", id).then())
+                        .then(directory.unregister(id)));
+    }
+
+    @Override
+    public Flux<Person> streamAll() {
+        // Un shard tras otro: el consumidor sigue controlando el ritmo y cada cursor se cierra al terminar
+        return Flux.concat(shards.values().stream()
+                .map(shard -> shard.getClient().sql(EXPORT)
+                        .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE))
+                        .map((row, metadata) -> PersonRows.toPerson(row).toBuilder().password(null).build())
+                        .all()
+                        .filter(person -> owns(shard, person)))
+                .toList());
+    }
+
+    @Override
+    public Flux<PersonSyncEntry> changesSince(PersonSyncToken after, int limit) {
+        // change_xid y change_seq son propios de cada base: un único token no ordena ni reanuda cambios de varios shards
+        return Flux.error(new PersonSyncEntry.SyncUnavailableException("Incremental sync is not available with sharded persons"));
+    }
+
+    // Durante un rebalanceo la fila existe en origen y destino; solo cuenta la copia del dueño vigente
+    private boolean owns(Shard shard, Person person) {
+        return shard.getName().equals(directory.ownerOf(directory.bucketOf(person.getDocument())));
+    }
+
+    private Shard owner(String document) {
+        return shard(directory.ownerOf(directory.bucketOf(document)));
+    }
+
+    private Shard shard(String name) {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalStateException("Shard " + name + " is assigned buckets but not configured");
+        }
+        return shard;
+    }
+}
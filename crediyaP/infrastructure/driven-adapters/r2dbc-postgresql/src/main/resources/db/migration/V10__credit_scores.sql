@@ -0,0 +1,25 @@
+-- Resultado del scoring de capacidad de crédito: una fila por persona, reemplazada en cada corrida
+CREATE TABLE IF NOT EXISTS credit_scores (
+    person_id        UUID PRIMARY KEY,
+    monthly_capacity NUMERIC(14, 2) NOT NULL,
+    max_loan_amount  NUMERIC(16, 2) NOT NULL,
+    run_id           UUID           NOT NULL,
+    scored_at        TIMESTAMPTZ    NOT NULL
+);
+
+-- Al terminar una corrida se borran los puntajes que no tocó (personas dadas de baja)
+CREATE INDEX IF NOT EXISTS idx_credit_scores_run ON credit_scores (run_id);
+
+-- Corridas y su checkpoint: last_person_id avanza en la misma transacción que el lote de puntajes
+CREATE TABLE IF NOT EXISTS credit_scoring_runs (
+    run_id         UUID PRIMARY KEY,
+    status         VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    last_person_id UUID,
+    scored         BIGINT      NOT NULL DEFAULT 0,
+    started_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    heartbeat_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    finished_at    TIMESTAMPTZ
+);
+
+-- A lo sumo una corrida abierta a la vez
+CREATE UNIQUE INDEX IF NOT EXISTS uq_credit_scoring_runs_running ON credit_scoring_runs ((true)) WHERE status = 'RUNNING';
@@ -0,0 +1,4 @@
+-- /sync ordena y pagina por (change_xid, change_seq): el orden de secuencia no es el de commit
+-- (ver PersonReactiveRepositoryAdapter). Sobre la tabla particionada el índice se crea en cada partición.
+CREATE INDEX IF NOT EXISTS persons_change_xid_seq_idx ON persons (change_xid, change_seq);
+CREATE INDEX IF NOT EXISTS persons_tombstones_change_xid_seq_idx ON persons_tombstones (change_xid, change_seq);
@@ -0,0 +1,3 @@
+-- Reserva previa a la ejecución: la fila se inserta pendiente y se completa con la respuesta
+-- (ver IdempotencyReactiveRepositoryAdapter)
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS pending BOOLEAN NOT NULL DEFAULT false;
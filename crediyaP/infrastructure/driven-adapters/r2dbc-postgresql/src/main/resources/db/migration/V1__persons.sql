@@ -0,0 +1,14 @@
+-- Esquema base de la tabla persons (existente) sobre el que se aplican las migraciones siguientes
+CREATE TABLE IF NOT EXISTS persons (
+    id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    names       VARCHAR(100)   NOT NULL,
+    lastnames   VARCHAR(100)   NOT NULL,
+    document    VARCHAR(30)    NOT NULL UNIQUE,
+    password    VARCHAR(255)   NOT NULL,
+    birthdate   DATE,
+    address     VARCHAR(255),
+    phone       VARCHAR(30),
+    email       VARCHAR(150)   NOT NULL UNIQUE,
+    base_salary NUMERIC(12, 2) NOT NULL,
+    role        NUMERIC        NOT NULL
+);
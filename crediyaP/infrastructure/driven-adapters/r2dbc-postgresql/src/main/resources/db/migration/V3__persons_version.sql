@@ -0,0 +1,13 @@
+ALTER TABLE persons ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+
+CREATE OR REPLACE FUNCTION persons_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := OLD.version + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS persons_bump_version ON persons;
+CREATE TRIGGER persons_bump_version
+    BEFORE UPDATE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_bump_version();
@@ -0,0 +1,24 @@
+-- Publica cada cambio de persons en el canal person_changes: TIPO|id|version|epoch_ms|document
+-- Las cargas masivas pueden apagarlo con SET LOCAL crediya.person_changes = 'off'
+CREATE OR REPLACE FUNCTION persons_notify_change() RETURNS trigger AS $$
+DECLARE
+    changed persons;
+BEGIN
+    IF current_setting('crediya.person_changes', true) = 'off' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+    PERFORM pg_notify('person_changes', format('%s|%s|%s|%s|%s', TG_OP, changed.id, changed.version,
+            (extract(epoch FROM clock_timestamp()) * 1000)::bigint, changed.document));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS persons_notify_change ON persons;
+CREATE TRIGGER persons_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_notify_change();
@@ -0,0 +1,42 @@
+-- Secuencia global de cambios para sincronización incremental (GET /api/v1/usuarios/sync)
+CREATE SEQUENCE IF NOT EXISTS persons_change_seq;
+
+-- change_xid permite servir solo cambios de transacciones ya cerradas (ver PersonReactiveRepositoryAdapter)
+ALTER TABLE persons
+    ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT nextval('persons_change_seq'),
+    ADD COLUMN IF NOT EXISTS change_xid xid8 NOT NULL DEFAULT pg_current_xact_id();
+CREATE INDEX IF NOT EXISTS persons_change_seq_idx ON persons (change_seq);
+
+CREATE OR REPLACE FUNCTION persons_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := OLD.version + 1;
+    NEW.change_seq := nextval('persons_change_seq');
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Las bajas dejan una lápida para que los consumidores también puedan borrar
+CREATE TABLE IF NOT EXISTS persons_tombstones (
+    id         UUID PRIMARY KEY,
+    document   VARCHAR(30) NOT NULL,
+    change_seq BIGINT      NOT NULL DEFAULT nextval('persons_change_seq'),
+    change_xid xid8        NOT NULL DEFAULT pg_current_xact_id(),
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS persons_tombstones_change_seq_idx ON persons_tombstones (change_seq);
+
+CREATE OR REPLACE FUNCTION persons_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO persons_tombstones (id, document) VALUES (OLD.id, OLD.document)
+    ON CONFLICT (id) DO UPDATE SET change_seq = nextval('persons_change_seq'),
+                                   change_xid = pg_current_xact_id(),
+                                   deleted_at = now();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS persons_record_tombstone ON persons;
+CREATE TRIGGER persons_record_tombstone
+    AFTER DELETE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_record_tombstone();
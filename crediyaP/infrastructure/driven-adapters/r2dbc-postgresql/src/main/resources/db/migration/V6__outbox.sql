@@ -0,0 +1,32 @@
+-- Outbox transaccional: el evento se escribe en la misma transacción que el alta de la persona
+CREATE TABLE IF NOT EXISTS outbox (
+    id           BIGSERIAL PRIMARY KEY,
+    event_id     UUID        NOT NULL DEFAULT gen_random_uuid(),
+    event_type   VARCHAR(100) NOT NULL,
+    aggregate_id UUID        NOT NULL,
+    payload      JSONB       NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+-- Lease del relay que reclamó la fila; vencida (o NULL) la fila puede volver a reclamarse
+ALTER TABLE outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+
+-- Un trigger cubre todos los caminos de alta (save, coalescer, importación masiva)
+CREATE OR REPLACE FUNCTION persons_outbox_registered() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO outbox (event_type, aggregate_id, payload)
+    VALUES ('PersonRegistered', NEW.id, jsonb_build_object(
+            'id', NEW.id,
+            'document', NEW.document,
+            'names', NEW.names,
+            'lastnames', NEW.lastnames,
+            'email', NEW.email,
+            'base_salary', NEW.base_salary,
+            'registered_at', now()));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS persons_outbox_registered ON persons;
+CREATE TRIGGER persons_outbox_registered
+    AFTER INSERT ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_outbox_registered();
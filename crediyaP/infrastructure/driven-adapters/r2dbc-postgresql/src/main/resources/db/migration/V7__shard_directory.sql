@@ -0,0 +1,35 @@
+-- Directorio del sharding por documento (persistence.sharding); solo se usa en la base principal (spring.r2dbc.url).
+-- bucket = crc32(document) % buckets; cada bucket pertenece a un shard y se mueve entero al rebalancear
+CREATE TABLE IF NOT EXISTS shard_buckets (
+    bucket INT         PRIMARY KEY,
+    shard  VARCHAR(50) NOT NULL,
+    -- MIGRATING rechaza escrituras del bucket mientras sus filas se copian a otro shard
+    state  VARCHAR(20) NOT NULL DEFAULT 'ACTIVE'
+);
+
+-- Búsquedas por id y unicidad global del email (el documento ya es único dentro de su shard)
+CREATE TABLE IF NOT EXISTS persons_directory (
+    id     UUID         PRIMARY KEY,
+    bucket INT          NOT NULL,
+    email  VARCHAR(150) NOT NULL UNIQUE
+);
+CREATE INDEX IF NOT EXISTS persons_directory_bucket_idx ON persons_directory (bucket);
+
+-- Copiar filas entre shards no es un alta: el rebalanceo apaga el evento con SET LOCAL crediya.outbox = 'off'
+CREATE OR REPLACE FUNCTION persons_outbox_registered() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('crediya.outbox', true) = 'off' THEN
+        RETURN NULL;
+    END IF;
+    INSERT INTO outbox (event_type, aggregate_id, payload)
+    VALUES ('PersonRegistered', NEW.id, jsonb_build_object(
+            'id', NEW.id,
+            'document', NEW.document,
+            'names', NEW.names,
+            'lastnames', NEW.lastnames,
+            'email', NEW.email,
+            'base_salary', NEW.base_salary,
+            'registered_at', now()));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
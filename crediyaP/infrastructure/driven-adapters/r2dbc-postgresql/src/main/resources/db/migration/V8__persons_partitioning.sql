@@ -0,0 +1,143 @@
+-- persons pasa a ser una tabla particionada por LIST (archived): persons_hot con las personas activas y
+-- persons_archive con las inactivas (las mueve PersonArchiver). La tabla existente se adjunta como partición
+-- caliente sin copiar filas. Las lecturas por documento o id consultan primero persons_hot.
+-- Requiere PostgreSQL 13+ (triggers BEFORE de fila sobre tablas particionadas).
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'persons'::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE persons ADD COLUMN IF NOT EXISTS archived BOOLEAN NOT NULL DEFAULT false;
+    -- Alta o último cambio; la archivación se decide por esta columna
+    ALTER TABLE persons ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+    -- Se recrean abajo sobre la tabla particionada, que los clona en cada partición
+    DROP TRIGGER IF EXISTS persons_bump_version ON persons;
+    DROP TRIGGER IF EXISTS persons_notify_change ON persons;
+    DROP TRIGGER IF EXISTS persons_record_tombstone ON persons;
+    DROP TRIGGER IF EXISTS persons_outbox_registered ON persons;
+
+    ALTER TABLE persons RENAME TO persons_hot;
+    -- Con el CHECK ya validado, ATTACH PARTITION no recorre la tabla
+    ALTER TABLE persons_hot ADD CONSTRAINT persons_hot_not_archived CHECK (archived = false);
+    -- La clave primaria de una tabla particionada debe incluir la columna de partición
+    CREATE UNIQUE INDEX persons_hot_id_archived_idx ON persons_hot (id, archived);
+
+    CREATE TABLE persons (LIKE persons_hot INCLUDING DEFAULTS) PARTITION BY LIST (archived);
+    ALTER TABLE persons ADD PRIMARY KEY (id, archived);
+    ALTER TABLE persons ATTACH PARTITION persons_hot FOR VALUES IN (false);
+    CREATE TABLE persons_archive PARTITION OF persons FOR VALUES IN (true);
+
+    -- Índices únicos por partición (persons_hot conserva los de V1); la unicidad global la da person_keys
+    CREATE UNIQUE INDEX persons_archive_document_key ON persons_archive (document);
+    CREATE UNIQUE INDEX persons_archive_email_key ON persons_archive (email);
+    CREATE INDEX persons_archive_change_seq_idx ON persons_archive (change_seq);
+    CREATE INDEX persons_archive_last_activity_idx ON persons_archive (last_activity_at);
+    CREATE INDEX persons_hot_last_activity_idx ON persons_hot (last_activity_at);
+END;
+$$;
+
+-- Un índice único de una tabla particionada debe incluir la columna de partición, así que document y
+-- email se registran además en una tabla sin particionar. El trigger la mantiene en la misma transacción
+-- que la escritura: un duplicado entre persons_hot y persons_archive falla con unique_violation (23505)
+CREATE TABLE IF NOT EXISTS person_keys (
+    person_id UUID         PRIMARY KEY,
+    document  VARCHAR(30)  NOT NULL UNIQUE,
+    email     VARCHAR(150) NOT NULL UNIQUE
+);
+
+-- Duplicados previos entre particiones: se registra la fila caliente y las demás quedan sin clave
+-- (PersonArchiver no las restaura mientras choquen con persons_hot)
+INSERT INTO person_keys (person_id, document, email)
+SELECT id, document, email FROM persons ORDER BY archived, last_activity_at DESC
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION persons_sync_keys() RETURNS trigger AS $$
+BEGIN
+    -- El movimiento entre particiones (DELETE + INSERT) no cambia las claves de la persona
+    IF current_setting('crediya.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM person_keys WHERE person_id = OLD.id;
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE person_keys SET document = NEW.document, email = NEW.email WHERE person_id = NEW.id;
+    ELSE
+        INSERT INTO person_keys (person_id, document, email) VALUES (NEW.id, NEW.document, NEW.email);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS persons_sync_keys ON persons;
+CREATE TRIGGER persons_sync_keys
+    AFTER INSERT OR UPDATE OF document, email OR DELETE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_sync_keys();
+
+-- Mover filas entre particiones (SET LOCAL crediya.archiving = 'on') no es un cambio de la persona:
+-- se ejecuta como DELETE + INSERT, así que no debe sumar versión, dejar lápida ni publicar un alta.
+-- La copia entre shards (crediya.shard_move = 'on') trae versión y actividad del origen y las conserva
+CREATE OR REPLACE FUNCTION persons_bump_version() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('crediya.archiving', true) = 'on' OR current_setting('crediya.shard_move', true) = 'on' THEN
+        RETURN NEW;
+    END IF;
+    NEW.version := OLD.version + 1;
+    NEW.change_seq := nextval('persons_change_seq');
+    NEW.change_xid := pg_current_xact_id();
+    NEW.last_activity_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION persons_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('crediya.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    INSERT INTO persons_tombstones (id, document) VALUES (OLD.id, OLD.document)
+    ON CONFLICT (id) DO UPDATE SET change_seq = nextval('persons_change_seq'),
+                                   change_xid = pg_current_xact_id(),
+                                   deleted_at = now();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION persons_outbox_registered() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('crediya.outbox', true) = 'off' OR current_setting('crediya.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    INSERT INTO outbox (event_type, aggregate_id, payload)
+    VALUES ('PersonRegistered', NEW.id, jsonb_build_object(
+            'id', NEW.id,
+            'document', NEW.document,
+            'names', NEW.names,
+            'lastnames', NEW.lastnames,
+            'email', NEW.email,
+            'base_salary', NEW.base_salary,
+            'registered_at', now()));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS persons_bump_version ON persons;
+CREATE TRIGGER persons_bump_version
+    BEFORE UPDATE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_bump_version();
+
+DROP TRIGGER IF EXISTS persons_notify_change ON persons;
+CREATE TRIGGER persons_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_notify_change();
+
+DROP TRIGGER IF EXISTS persons_record_tombstone ON persons;
+CREATE TRIGGER persons_record_tombstone
+    AFTER DELETE ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_record_tombstone();
+
+DROP TRIGGER IF EXISTS persons_outbox_registered ON persons;
+CREATE TRIGGER persons_outbox_registered
+    AFTER INSERT ON persons
+    FOR EACH ROW EXECUTE FUNCTION persons_outbox_registered();
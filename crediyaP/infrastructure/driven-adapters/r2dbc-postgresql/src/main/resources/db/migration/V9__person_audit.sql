@@ -0,0 +1,15 @@
+-- Registro de quién consultó o modificó a cada solicitante. Solo se inserta (append-only) y en lotes
+-- desde WriteBehindAuditTrail; no tiene triggers para no encarecer las inserciones.
+CREATE TABLE IF NOT EXISTS person_audit (
+    id          BIGSERIAL PRIMARY KEY,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    actor       TEXT        NOT NULL,
+    action      TEXT        NOT NULL,
+    person_id   UUID,
+    document    TEXT
+);
+
+-- Consultas de cumplimiento: historial de un solicitante y actividad de un cliente
+CREATE INDEX IF NOT EXISTS idx_person_audit_person ON person_audit (person_id, occurred_at) WHERE person_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_person_audit_document ON person_audit (document, occurred_at) WHERE document IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_person_audit_actor ON person_audit (actor, occurred_at);
@@ -1,6 +1,9 @@
 package com.hiri.crediya.r2dbc;
 
 import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.r2dbc.batch.PersonWriteCoalescer;
+import com.hiri.crediya.r2dbc.bloom.PersonExistenceFilter;
+import com.hiri.crediya.r2dbc.cache.PersonNearCache;
 import com.hiri.crediya.r2dbc.entity.PersonEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,9 +23,12 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -36,6 +43,14 @@ class PersonReactiveRepositoryAdapterTest {
     private TransactionalOperator transactionalOperator;
     @Mock
     private PersonReactiveRepository personReactiveRepository;
+    @Mock
+    private PersonWriteCoalescer coalescer;
+    @Mock
+    private DatabaseClient databaseClient;
+    @Mock
+    private PersonExistenceFilter existenceFilter;
+    @Mock
+    private PersonNearCache nearCache;
 
     private PersonReactiveRepositoryAdapter adapter;
     private Person testPerson;
@@ -44,7 +59,19 @@ class PersonReactiveRepositoryAdapterTest {
 
     @BeforeEach
     void setUp() {
-        adapter = new PersonReactiveRepositoryAdapter(transactionalOperator, personReactiveRepository);
+        adapter = new PersonReactiveRepositoryAdapter(transactionalOperator, personReactiveRepository, coalescer, databaseClient,
+                existenceFilter, nearCache);
+        // Filtro sin construir: toda verificación llega a la consulta
+        when(existenceFilter.exists(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<Boolean>>>getArgument(2).get());
+        // Caché vacía: toda lectura llega a la consulta
+        when(nearCache.byDocument(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<Person>>>getArgument(1).get());
+        when(nearCache.byId(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<Person>>>getArgument(1).get());
+        // Sin filas en persons_hot salvo que el test diga lo contrario: las búsquedas caen a la tabla completa
+        when(personReactiveRepository.findActiveByDocument(anyString())).thenReturn(Mono.empty());
+        when(personReactiveRepository.findActiveById(any(UUID.class))).thenReturn(Mono.empty());
 
         testId = UUID.randomUUID();
         testPerson = Person.builder()
@@ -125,6 +152,30 @@ class PersonReactiveRepositoryAdapterTest {
                 .verifyComplete();
     }
 
+    @Test
+    void shouldNotQueryArchiveWhenHotPartitionHasPerson() {
+        // Given
+        when(personReactiveRepository.findActiveByDocument(anyString())).thenReturn(Mono.just(testPerson));
+
+        // When & Then
+        StepVerifier.create(adapter.findByDocument(testPerson.getDocument()))
+                .expectNext(testPerson)
+                .verifyComplete();
+        verify(personReactiveRepository, never()).findByDocument(anyString());
+    }
+
+    @Test
+    void shouldFallBackToFullTableForArchivedPerson() {
+        // Given - la persona está en persons_archive
+        when(personReactiveRepository.getById(any(UUID.class))).thenReturn(Mono.just(testPerson));
+
+        // When & Then
+        StepVerifier.create(adapter.findById(testId))
+                .expectNext(testPerson)
+                .verifyComplete();
+        verify(personReactiveRepository).findActiveById(testId);
+    }
+
     @Test
     void shouldFindAllPersonsSuccessfully() {
         // Given
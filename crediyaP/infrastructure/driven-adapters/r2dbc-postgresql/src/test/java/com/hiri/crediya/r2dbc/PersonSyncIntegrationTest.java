@@ -0,0 +1,120 @@
+package com.hiri.crediya.r2dbc;
+
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for PersonReactiveRepositoryAdapter.changesSince.
+ * Uses a local, disposable Postgres database given in CREDIYA_IT_R2DBC_URL (r2dbc URL with credentials)
+ * and two connections with interleaved transactions. Tables are truncated before each test.
+ */
+@EnabledIfEnvironmentVariable(named = "CREDIYA_IT_R2DBC_URL", matches = ".+")
+class PersonSyncIntegrationTest {
+
+    private static final List<String> MIGRATIONS = List.of("V1__persons.sql", "V2__idempotency_keys.sql",
+            "V3__persons_version.sql", "V4__persons_change_notify.sql", "V5__persons_change_seq.sql",
+            "V6__outbox.sql", "V7__shard_directory.sql", "V8__persons_partitioning.sql",
+            "V11__persons_change_order.sql");
+
+    private ConnectionFactory connectionFactory;
+    private PersonReactiveRepositoryAdapter adapter;
+    private Connection early;
+    private Connection late;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = ConnectionFactories.get(System.getenv("CREDIYA_IT_R2DBC_URL"));
+        for (String migration : MIGRATIONS) {
+            execute(connectionFactory, script(migration));
+        }
+        execute(connectionFactory, "TRUNCATE persons, person_keys, persons_tombstones, outbox");
+        // changesSince solo usa el DatabaseClient
+        adapter = new PersonReactiveRepositoryAdapter(null, null, null, DatabaseClient.create(connectionFactory), null, null);
+        early = Mono.from(connectionFactory.create()).block();
+        late = Mono.from(connectionFactory.create()).block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Mono.from(early.close()).block();
+        Mono.from(late.close()).block();
+    }
+
+    @Test
+    void shouldNotSkipChangeCommittedAfterAHigherSequence() {
+        // Given - early toma su xid primero; late inserta antes y se queda con la secuencia menor
+        begin(early);
+        run(early, "SELECT pg_current_xact_id()");
+        begin(late);
+        run(late, insert("2"));
+        run(early, insert("1"));
+        Mono.from(early.commitTransaction()).block();
+
+        // When - late sigue abierta
+        List<PersonSyncEntry> first = adapter.changesSince(PersonSyncToken.START, 10).collectList().block();
+
+        // Then
+        assertThat(first).extracting(entry -> entry.getPerson().getDocument()).containsExactly("1");
+
+        // When - late confirma con una secuencia menor a la ya entregada
+        Mono.from(late.commitTransaction()).block();
+        List<PersonSyncEntry> next = adapter.changesSince(first.get(0).token(), 10).collectList().block();
+
+        // Then - el token por (transacción, secuencia) no la deja atrás
+        assertThat(next).extracting(entry -> entry.getPerson().getDocument()).containsExactly("2");
+        assertThat(next.get(0).getSequence()).isLessThan(first.get(0).getSequence());
+    }
+
+    private static String insert(String document) {
+        return "INSERT INTO persons (names, lastnames, document, password, email, base_salary, role) VALUES "
+                + "('Persona', 'Sync', '" + document + "', 'password123', 'sync" + document + "@crediya.com', 1000000, 3)";
+    }
+
+    private static void begin(Connection connection) {
+        Mono.from(connection.beginTransaction()).block();
+    }
+
+    private static void run(Connection connection, String sql) {
+        Flux.from(connection.createStatement(sql).execute())
+                .flatMap(result -> result.map((row, metadata) -> 1))
+                .then()
+                .block();
+    }
+
+    private static String script(String name) {
+        try (InputStream in = PersonSyncIntegrationTest.class.getResourceAsStream("/db/migration/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Conexión directa: el script tiene varias sentencias y cuerpos $$ que no pasan por parámetros con nombre
+    private static void execute(ConnectionFactory connectionFactory, String sql) {
+        Mono.usingWhen(Mono.from(connectionFactory.create()),
+                        connection -> Flux.from(connection.createStatement(sql).execute())
+                                .flatMap(Result::getRowsUpdated)
+                                .then(),
+                        Connection::close)
+                .block();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hiri.crediya.r2dbc.archive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for PersonArchiver batching loop.
+ * Uses a spy with stubbed batches; the SQL itself is exercised against PostgreSQL only.
+ */
+class PersonArchiverTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final Instant NOW = Instant.parse("2026-06-01T00:00:00Z");
+
+    private SimpleMeterRegistry registry;
+    private PersonArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        archiver = spy(new PersonArchiver(null, null, Duration.ofDays(365), BATCH_SIZE, Duration.ofHours(1),
+                Duration.ZERO, registry, Clock.fixed(NOW, ZoneOffset.UTC)));
+        doReturn(Mono.just(0L)).when(archiver).quarantined(any());
+    }
+
+    @Test
+    void shouldKeepArchivingWhileBatchesComeBackFull() {
+        // Given
+        doReturn(Mono.just(0L)).when(archiver).batch(argThat(sql -> sql.contains("FROM persons_archive")), any());
+        doReturn(Mono.just(3L), Mono.just(3L), Mono.just(1L))
+                .when(archiver).batch(argThat(sql -> sql.contains("FROM persons_hot")), any());
+
+        // When
+        StepVerifier.create(archiver.run()).verifyComplete();
+
+        // Then
+        verify(archiver, times(3)).batch(argThat(sql -> sql.contains("FROM persons_hot")), any());
+        assertThat(moved("archived")).isEqualTo(7.0);
+        assertThat(moved("restored")).isZero();
+    }
+
+    @Test
+    void shouldRestoreBeforeArchivingWithSameCutoff() {
+        // Given
+        OffsetDateTime cutoff = OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC).minusDays(365);
+        doReturn(Mono.just(2L)).when(archiver).batch(argThat(sql -> sql.contains("FROM persons_archive")), eq(cutoff));
+        doReturn(Mono.just(0L)).when(archiver).batch(argThat(sql -> sql.contains("FROM persons_hot")), eq(cutoff));
+
+        // When
+        StepVerifier.create(archiver.run()).verifyComplete();
+
+        // Then
+        assertThat(moved("restored")).isEqualTo(2.0);
+        assertThat(moved("archived")).isZero();
+    }
+
+    @Test
+    void shouldReportQuarantinedPersonsAndKeepArchiving() {
+        // Given
+        doReturn(Mono.just(0L)).when(archiver).batch(argThat(sql -> sql.contains("FROM persons_archive")), any());
+        doReturn(Mono.just(4L)).when(archiver).quarantined(any());
+        doReturn(Mono.just(1L)).when(archiver).batch(argThat(sql -> sql.contains("FROM persons_hot")), any());
+
+        // When
+        StepVerifier.create(archiver.run()).verifyComplete();
+
+        // Then
+        assertThat(registry.get("persons.archival.quarantined").gauge().value()).isEqualTo(4.0);
+        assertThat(moved("archived")).isEqualTo(1.0);
+        assertThat(registry.get("persons.archival.failures").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldCountFailureAndCompleteWhenBatchFails() {
+        // Given
+        doReturn(Mono.error(new IllegalStateException("connection reset")))
+                .when(archiver).batch(argThat(sql -> sql.contains("FROM persons_archive")), any());
+
+        // When
+        StepVerifier.create(archiver.run()).verifyComplete();
+
+        // Then
+        assertThat(registry.get("persons.archival.failures").counter().count()).isEqualTo(1.0);
+        verify(archiver, times(0)).batch(argThat(sql -> sql.contains("FROM persons_hot")), any());
+    }
+
+    private double moved(String direction) {
+        return registry.get("persons.archival.moved").tag("direction", direction).counter().count();
+    }
+}
@@ -0,0 +1,154 @@
+package com.hiri.crediya.r2dbc.audit;
+
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WriteBehindAuditTrail.
+ * Uses an in-memory writer stub in place of the multi-row INSERT.
+ */
+class WriteBehindAuditTrailTest {
+
+    private AuditProperties properties;
+    private SimpleMeterRegistry registry;
+    private Sinks.Many<List<AuditEvent>> batches;
+    private WriteBehindAuditTrail trail;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuditProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(3);
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setMaxRetries(0);
+        properties.setShutdownTimeout(Duration.ofMillis(200));
+        registry = new SimpleMeterRegistry();
+        batches = Sinks.many().replay().all();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (trail != null) {
+            trail.destroy();
+        }
+    }
+
+    private Function<List<AuditEvent>, Mono<Long>> recording() {
+        return batch -> {
+            batches.tryEmitNext(batch);
+            return Mono.just((long) batch.size());
+        };
+    }
+
+    private AuditEvent event(AuditAction action) {
+        return AuditEvent.builder().actor("token:abc").action(action).personId(UUID.randomUUID()).build();
+    }
+
+    @Test
+    void shouldFlushAsSoonAsBatchIsFull() {
+        // Given
+        trail = new WriteBehindAuditTrail(properties, recording(), registry);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(trail.record(event(AuditAction.VIEW))).verifyComplete();
+        }
+
+        // Then - sin esperar al flushInterval de una hora
+        StepVerifier.create(batches.asFlux())
+                .assertNext(batch -> {
+                    assertThat(batch).hasSize(3);
+                    assertThat(batch).allSatisfy(e -> assertThat(e.getOccurredAt()).isNotNull());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        assertThat(registry.get("audit.flush.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropReadsWhenQueueIsFull() {
+        // Given
+        properties.setCapacity(2);
+        properties.setBatchSize(10);
+        trail = new WriteBehindAuditTrail(properties, recording(), registry);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(trail.record(event(AuditAction.VIEW))).verifyComplete();
+        }
+
+        // Then
+        assertThat(registry.get("audit.queue.depth").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("audit.events.dropped").tag("reason", "overflow").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldMakeWritesWaitForRoomInsteadOfDropping() {
+        // Given
+        properties.setCapacity(1);
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(100));
+        properties.setMaxWait(Duration.ofSeconds(2));
+        trail = new WriteBehindAuditTrail(properties, recording(), registry);
+        StepVerifier.create(trail.record(event(AuditAction.VIEW))).verifyComplete();
+
+        // When & Then - la escritura se encola cuando el worker vacía la cola
+        StepVerifier.create(trail.record(event(AuditAction.DELETE))).verifyComplete();
+        assertThat(registry.get("audit.events.dropped").tag("reason", "overflow").counter().count()).isZero();
+        StepVerifier.create(batches.asFlux().flatMapIterable(Function.identity()).map(AuditEvent::getAction))
+                .expectNext(AuditAction.VIEW, AuditAction.DELETE)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldCountLostEventsWhenBatchCannotBeWritten() {
+        // Given
+        properties.setBatchSize(1);
+        Sinks.Empty<Void> attempted = Sinks.empty();
+        trail = new WriteBehindAuditTrail(properties, batch -> {
+            attempted.tryEmitEmpty();
+            return Mono.error(new IllegalStateException("connection refused"));
+        }, registry);
+
+        // When
+        StepVerifier.create(trail.record(event(AuditAction.UPDATE))).verifyComplete();
+        StepVerifier.create(attempted.asMono()).expectComplete().verify(Duration.ofSeconds(5));
+
+        // Then
+        StepVerifier.create(Mono.fromSupplier(() -> registry.get("audit.events.dropped")
+                                .tag("reason", "flush_failed").counter().count())
+                        .filter(count -> count == 1.0)
+                        .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(10))))
+                .expectNext(1.0)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldAcceptAndIgnoreEventsWhenDisabled() {
+        // Given
+        properties.setEnabled(false);
+        trail = new WriteBehindAuditTrail(properties, recording(), registry);
+
+        // When
+        StepVerifier.create(trail.record(event(AuditAction.CREATE))).verifyComplete();
+
+        // Then
+        assertThat(registry.get("audit.queue.depth").gauge().value()).isZero();
+    }
+}
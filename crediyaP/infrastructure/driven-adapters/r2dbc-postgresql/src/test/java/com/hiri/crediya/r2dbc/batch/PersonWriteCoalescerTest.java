@@ -0,0 +1,163 @@
+package com.hiri.crediya.r2dbc.batch;
+
+import com.hiri.crediya.model.person.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonWriteCoalescer.
+ * Uses an in-memory writer stub in place of the multi-row INSERT.
+ */
+class PersonWriteCoalescerTest {
+
+    private WriteCoalescerProperties properties;
+    private List<Integer> batchSizes;
+    private PersonWriteCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WriteCoalescerProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(5);
+        properties.setMaxDelay(Duration.ofMillis(50));
+        batchSizes = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.destroy();
+        }
+    }
+
+    private Function<List<Person>, Flux<Person>> writer(Function<Person, Boolean> accepts) {
+        return rows -> {
+            batchSizes.add(rows.size());
+            return Flux.fromIterable(rows)
+                    .filter(accepts::apply)
+                    .map(p -> p.toBuilder().version(1L).build());
+        };
+    }
+
+    private Person person(int i) {
+        return Person.builder().document("doc-" + i).email("user" + i + "@example.com").build();
+    }
+
+    @Test
+    void shouldWriteConcurrentInsertsInBatches() {
+        // Given
+        coalescer = new PersonWriteCoalescer(properties, writer(p -> true));
+
+        // When
+        Mono<List<Person>> all = Flux.fromStream(IntStream.range(0, 10).boxed())
+                .flatMap(i -> coalescer.insert(person(i)))
+                .collectList();
+
+        // Then
+        StepVerifier.create(all)
+                .expectNextMatches(saved -> saved.size() == 10
+                        && saved.stream().allMatch(p -> p.getId() != null && p.getVersion() == 1L))
+                .verifyComplete();
+        assertThat(batchSizes).containsExactly(5, 5);
+    }
+
+    @Test
+    void shouldFailOnlyTheCallerWhoseRowWasSkipped() {
+        // Given
+        coalescer = new PersonWriteCoalescer(properties, writer(p -> !p.getDocument().equals("doc-1")));
+
+        // When
+        Mono<Person> ok = coalescer.insert(person(0));
+        Mono<Person> duplicate = coalescer.insert(person(1));
+
+        // Then
+        StepVerifier.create(Mono.zip(ok, duplicate.onErrorResume(DuplicateKeyException.class, e -> Mono.just(new Person()))))
+                .expectNextMatches(pair -> "doc-0".equals(pair.getT1().getDocument()) && pair.getT2().getDocument() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRetryRowsIndividuallyWhenBatchFails() {
+        // Given - el lote completo falla si contiene la fila inválida
+        coalescer = new PersonWriteCoalescer(properties, rows -> {
+            batchSizes.add(rows.size());
+            if (rows.stream().anyMatch(p -> p.getDocument().equals("doc-2"))) {
+                return Flux.error(new IllegalArgumentException("invalid row"));
+            }
+            return Flux.fromIterable(rows);
+        });
+
+        // When
+        Mono<List<Person>> others = Flux.just(0, 1, 3)
+                .flatMap(i -> coalescer.insert(person(i)))
+                .collectList();
+        Mono<Person> invalid = coalescer.insert(person(2));
+
+        // Then
+        StepVerifier.create(Mono.zip(others, invalid.onErrorResume(IllegalArgumentException.class, e -> Mono.just(new Person()))))
+                .expectNextMatches(pair -> pair.getT1().size() == 3 && pair.getT2().getDocument() == null)
+                .verifyComplete();
+        assertThat(batchSizes).containsExactly(4, 1, 1, 1, 1);
+    }
+
+    @Test
+    void shouldKeepWorkingWhenBatchesAreSlowerThanMaxDelay() {
+        // Given - un solo lote en vuelo que tarda mucho más que maxDelay
+        properties.setMaxBatchSize(2);
+        properties.setMaxDelay(Duration.ofMillis(5));
+        properties.setMaxConcurrentBatches(1);
+        coalescer = new PersonWriteCoalescer(properties, rows -> {
+            batchSizes.add(rows.size());
+            return Flux.fromIterable(rows).delaySubscription(Duration.ofMillis(100));
+        });
+
+        // When
+        Mono<List<Person>> all = Flux.range(0, 8)
+                .flatMap(i -> coalescer.insert(person(i)))
+                .collectList();
+
+        // Then - el timer no desborda el buffer y el worker sigue aceptando inserts
+        StepVerifier.create(all)
+                .expectNextMatches(saved -> saved.size() == 8)
+                .verifyComplete();
+        StepVerifier.create(coalescer.insert(person(9)))
+                .expectNextMatches(saved -> "doc-9".equals(saved.getDocument()))
+                .verifyComplete();
+        assertThat(batchSizes).allMatch(size -> size <= 2);
+    }
+
+    @Test
+    void shouldRejectInsteadOfQueueingWhenSaturated() {
+        // Given
+        properties.setMaxPending(1);
+        coalescer = new PersonWriteCoalescer(properties, rows -> Flux.never());
+        coalescer.insert(person(0)).subscribe();
+
+        // When & Then
+        StepVerifier.create(coalescer.insert(person(1)))
+                .expectErrorMessage("Write coalescer saturated: 1 inserts pending")
+                .verify();
+    }
+
+    @Test
+    void shouldStayDisabledByDefault() {
+        // When
+        coalescer = new PersonWriteCoalescer(new WriteCoalescerProperties(), writer(p -> true));
+
+        // Then
+        assertThat(coalescer.isEnabled()).isFalse();
+    }
+}
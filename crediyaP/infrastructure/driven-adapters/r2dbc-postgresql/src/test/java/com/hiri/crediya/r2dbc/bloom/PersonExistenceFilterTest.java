@@ -0,0 +1,175 @@
+package com.hiri.crediya.r2dbc.bloom;
+
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonExistenceFilter.
+ * Uses in-memory key streams instead of Postgres, a fake change feed in place of LISTEN/NOTIFY
+ * and a counting stand-in for the existence query.
+ */
+class PersonExistenceFilterTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final Sinks.Many<PersonChange> changes = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<Boolean> listening = Sinks.many().replay().latest();
+    // Cada recorrido completo y cada lectura por id avisan al terminar, después de cargar sus claves
+    private final Sinks.Many<Integer> scans = Sinks.many().replay().all();
+    private final Sinks.Many<List<UUID>> fetched = Sinks.many().replay().all();
+    private final AtomicInteger scanCount = new AtomicInteger();
+    private SimpleMeterRegistry registry;
+    private PersonExistenceFilter filter;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        queries = new AtomicInteger();
+        ExistenceFilterProperties properties = new ExistenceFilterProperties();
+        properties.setEnabled(true);
+        properties.setMinExpectedInsertions(10_000);
+        properties.setChangeBatchWindow(Duration.ofMillis(1));
+        PersonChangeFeed feed = new PersonChangeFeed() {
+            @Override
+            public Flux<PersonChange> changes() {
+                return changes.asFlux();
+            }
+
+            @Override
+            public Flux<Boolean> listening() {
+                return listening.asFlux();
+            }
+        };
+        filter = new PersonExistenceFilter(properties, () -> Mono.just(1000L),
+                () -> Flux.range(0, 1000).flatMapIterable(i -> List.of(
+                        PersonExistenceFilter.emailKey("persona" + i + "@crediya.com"),
+                        PersonExistenceFilter.documentKey(String.valueOf(10_000_000 + i))))
+                        .doFinally(signal -> scans.tryEmitNext(scanCount.incrementAndGet())),
+                ids -> Flux.just(PersonExistenceFilter.emailKey("remota@crediya.com"),
+                                PersonExistenceFilter.documentKey("88888888"))
+                        .doFinally(signal -> fetched.tryEmitNext(ids)),
+                feed, registry);
+        filter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.stop();
+    }
+
+    @Test
+    void shouldQueryPostgresUntilFilterIsBuilt() {
+        // When & Then - sin LISTEN activo el filtro no se construye
+        StepVerifier.create(filter.exists("new@crediya.com", "99999999", this::query))
+                .expectNext(false)
+                .verifyComplete();
+        assertThat(queries).hasValue(1);
+        assertThat(scanCount).hasValue(0);
+    }
+
+    @Test
+    void shouldSkipQueryForDefiniteNegative() {
+        // Given
+        listening.tryEmitNext(true);
+
+        // When
+        IntStream.range(0, 1000).forEach(i -> StepVerifier
+                .create(filter.exists("nuevo" + i + "@crediya.com", String.valueOf(50_000_000 + i), this::query))
+                .expectNext(false)
+                .verifyComplete());
+
+        // Then - con fpp 1% casi todas las consultas se evitan
+        assertThat(queries.get()).isLessThan(50);
+        assertThat(registry.get("persons.existence.filter.checks").tag("result", "negative").counter().count())
+                .isEqualTo(1000 - queries.get());
+    }
+
+    @Test
+    void shouldAlwaysQueryForStoredOrNewlySavedKeys() {
+        // Given
+        listening.tryEmitNext(true);
+        filter.put("Recien@Crediya.com", "77777777");
+
+        // When & Then - normalizado en minúsculas y sin espacios
+        StepVerifier.create(filter.exists(" PERSONA5@crediya.com ", "1", () -> Mono.just(true))).expectNext(true).verifyComplete();
+        StepVerifier.create(filter.exists("otro@crediya.com", "77777777", this::query)).expectNext(false).verifyComplete();
+        assertThat(queries).hasValue(1);
+        assertThat(registry.get("persons.existence.filter.false.positives").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldAddKeysOfPersonsSavedByOtherInstances() {
+        // Given
+        listening.tryEmitNext(true);
+        UUID id = UUID.randomUUID();
+
+        // When
+        changes.tryEmitNext(change(PersonChange.Type.CREATED, id));
+        StepVerifier.create(fetched.asFlux().next()).expectNext(List.of(id)).expectComplete().verify(WAIT);
+
+        // Then - el alta de otra instancia ya no es un negativo definitivo
+        StepVerifier.create(filter.exists("remota@crediya.com", "1", this::query)).expectNext(false).verifyComplete();
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void shouldQueryPostgresWhileListenerIsDownAndRebuildOnReconnect() {
+        // Given
+        listening.tryEmitNext(true);
+
+        // When
+        listening.tryEmitNext(false);
+
+        // Then - las notificaciones perdidas podrían ser altas: todo va a Postgres
+        StepVerifier.create(filter.exists("nuevo@crediya.com", "55555555", this::query)).expectNext(false).verifyComplete();
+        assertThat(queries).hasValue(1);
+
+        // When
+        listening.tryEmitNext(true);
+
+        // Then
+        assertThat(scanCount).hasValue(2);
+        StepVerifier.create(filter.exists("nuevo@crediya.com", "55555555", this::query)).expectNext(false).verifyComplete();
+        assertThat(registry.get("persons.existence.filter.rebuilds").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldRebuildAfterBulkImport() {
+        // Given
+        listening.tryEmitNext(true);
+
+        // When - la importación masiva no notifica fila por fila
+        changes.tryEmitNext(change(PersonChange.Type.BULK_IMPORT, null));
+
+        // Then
+        StepVerifier.create(scans.asFlux().take(2).last()).expectNext(2).expectComplete().verify(WAIT);
+        assertThat(registry.get("persons.existence.filter.rebuilds").counter().count()).isEqualTo(2.0);
+    }
+
+    private static PersonChange change(PersonChange.Type type, UUID id) {
+        return PersonChange.builder().type(type).id(id).version(1L).at(Instant.now()).build();
+    }
+
+    private Mono<Boolean> query() {
+        queries.incrementAndGet();
+        return Mono.just(false);
+    }
+}
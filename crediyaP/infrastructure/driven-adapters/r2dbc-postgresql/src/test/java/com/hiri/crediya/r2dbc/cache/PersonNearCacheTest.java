@@ -0,0 +1,232 @@
+package com.hiri.crediya.r2dbc.cache;
+
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.model.person.gateways.PersonChangeFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonNearCache.
+ * Uses a fake change feed in place of LISTEN/NOTIFY, a counting stand-in for the queries and a manual clock.
+ */
+class PersonNearCacheTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private final Sinks.Many<PersonChange> changes = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<Boolean> listening = Sinks.many().replay().latest();
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger queries = new AtomicInteger();
+    private SimpleMeterRegistry registry;
+    private PersonNearCache cache;
+    private Person stored;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        NearCacheProperties properties = new NearCacheProperties();
+        properties.setEnabled(true);
+        PersonChangeFeed feed = new PersonChangeFeed() {
+            @Override
+            public Flux<PersonChange> changes() {
+                return changes.asFlux();
+            }
+
+            @Override
+            public Flux<Boolean> listening() {
+                return listening.asFlux();
+            }
+        };
+        cache = new PersonNearCache(properties, feed, registry, now::get);
+        listening.tryEmitNext(true);
+        stored = person(1L, "Juan");
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.destroy();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromMemory() {
+        // When
+        read(stored.getDocument());
+        Person cached = read(stored.getDocument());
+        StepVerifier.create(cache.byId(stored.getId(), this::query)).expectNextCount(1).verifyComplete();
+
+        // Then
+        assertThat(queries).hasValue(1);
+        assertThat(cached.getNames()).isEqualTo("Juan");
+        assertThat(registry.get("persons.near.cache.requests").tag("result", "hit").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldReloadAfterUpdateOnAnotherInstance() {
+        // Given
+        read(stored.getDocument());
+
+        // When - otra réplica actualiza la fila
+        stored = person(2L, "Juan Carlos");
+        changes.tryEmitNext(change(PersonChange.Type.UPDATED, 2L));
+
+        // Then
+        assertThat(read(stored.getDocument()).getNames()).isEqualTo("Juan Carlos");
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheReadOlderThanAnnouncedVersion() {
+        // Given - una lectura en vuelo (o de una réplica atrasada) trae la versión 1
+        Sinks.One<Person> slowRead = Sinks.one();
+        Mono<Person> lookup = cache.byDocument(stored.getDocument(), () -> {
+            queries.incrementAndGet();
+            return slowRead.asMono();
+        });
+        StepVerifier.create(lookup)
+                .then(() -> {
+                    // When - la versión 2 se anuncia antes de que la lectura termine
+                    changes.tryEmitNext(change(PersonChange.Type.UPDATED, 2L));
+                    slowRead.tryEmitValue(person(1L, "Juan"));
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+        stored = person(2L, "Juan Carlos");
+
+        // Then
+        assertThat(read(stored.getDocument()).getNames()).isEqualTo("Juan Carlos");
+        assertThat(queries).hasValue(2);
+        assertThat(registry.get("persons.near.cache.puts.rejected").tag("reason", "stale").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepEntryNewerThanLateNotification() {
+        // Given
+        stored = person(3L, "Juan");
+        read(stored.getDocument());
+
+        // When - llega tarde el aviso de la versión 2
+        changes.tryEmitNext(change(PersonChange.Type.UPDATED, 2L));
+
+        // Then
+        read(stored.getDocument());
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void shouldForgetDeletedPerson() {
+        // Given
+        read(stored.getDocument());
+
+        // When
+        changes.tryEmitNext(change(PersonChange.Type.DELETED, 1L));
+
+        // Then
+        stored = null;
+        StepVerifier.create(cache.byDocument("12345678", this::query)).verifyComplete();
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void shouldBypassWhileListenerIsDownAndResyncOnReconnect() {
+        // Given
+        read(stored.getDocument());
+
+        // When - se cae el LISTEN: los cambios intermedios se pierden
+        listening.tryEmitNext(false);
+        read(stored.getDocument());
+        read(stored.getDocument());
+        listening.tryEmitNext(true);
+        read(stored.getDocument());
+        read(stored.getDocument());
+
+        // Then
+        assertThat(queries).hasValue(4);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropEntriesAndBypassWhenChangeFeedFails() {
+        // Given
+        read(stored.getDocument());
+
+        // When - el flujo de cambios termina con error aunque el LISTEN siga arriba
+        changes.tryEmitError(new IllegalStateException("connection lost"));
+        read(stored.getDocument());
+        listening.tryEmitNext(true);
+        read(stored.getDocument());
+
+        // Then - nada se sirve desde memoria
+        assertThat(queries).hasValue(3);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        // Given
+        read(stored.getDocument());
+
+        // When
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        read(stored.getDocument());
+
+        // Then
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictOnLocalWriteAndReturnCopies() {
+        // Given
+        read(stored.getDocument()).setNames("modificado por el caso de uso");
+
+        // When & Then - la copia modificada no altera la entrada
+        assertThat(read(stored.getDocument()).getNames()).isEqualTo("Juan");
+        cache.evict(stored.getId());
+        read(stored.getDocument());
+        assertThat(queries).hasValue(2);
+    }
+
+    private Person read(String document) {
+        return cache.byDocument(document, this::query).block();
+    }
+
+    private Mono<Person> query() {
+        queries.incrementAndGet();
+        return Mono.justOrEmpty(stored).map(person -> person.toBuilder().build());
+    }
+
+    private PersonChange change(PersonChange.Type type, long version) {
+        return PersonChange.builder()
+                .type(type)
+                .id(ID)
+                .document("12345678")
+                .version(version)
+                .at(Instant.now())
+                .build();
+    }
+
+    private static Person person(long version, String names) {
+        return Person.builder()
+                .id(ID)
+                .document("12345678")
+                .names(names)
+                .email("juan@crediya.com")
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hiri.crediya.r2dbc.notify;
+
+import com.hiri.crediya.model.person.PersonChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PostgresPersonChangeFeed.
+ * Uses raw NOTIFY payloads as produced by the persons_notify_change trigger.
+ */
+class PostgresPersonChangeFeedTest {
+
+    @Test
+    void shouldParseRowChangePayload() {
+        // Given
+        UUID id = UUID.randomUUID();
+
+        // When
+        PersonChange change = PostgresPersonChangeFeed.parse("UPDATE|" + id + "|4|1767225600000|123|45");
+
+        // Then
+        assertThat(change.getType()).isEqualTo(PersonChange.Type.UPDATED);
+        assertThat(change.getId()).isEqualTo(id);
+        assertThat(change.getVersion()).isEqualTo(4L);
+        assertThat(change.getAt()).isEqualTo(Instant.ofEpochMilli(1767225600000L));
+        assertThat(change.getDocument()).isEqualTo("123|45");
+    }
+
+    @Test
+    void shouldParseBulkImportPayloadWithoutRow() {
+        // When
+        PersonChange change = PostgresPersonChangeFeed.parse("BULK_IMPORT|||1767225600000|");
+
+        // Then
+        assertThat(change.getType()).isEqualTo(PersonChange.Type.BULK_IMPORT);
+        assertThat(change.getId()).isNull();
+        assertThat(change.getDocument()).isNull();
+    }
+
+    @Test
+    void shouldIgnoreMalformedPayload() {
+        // Then
+        assertThat(PostgresPersonChangeFeed.parse("INSERT|only-two")).isNull();
+        assertThat(PostgresPersonChangeFeed.parse(null)).isNull();
+    }
+}
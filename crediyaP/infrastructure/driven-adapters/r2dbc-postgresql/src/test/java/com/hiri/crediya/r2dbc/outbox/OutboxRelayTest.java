@@ -0,0 +1,115 @@
+package com.hiri.crediya.r2dbc.outbox;
+
+import com.hiri.crediya.model.events.DomainEvent;
+import com.hiri.crediya.model.events.gateways.EventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OutboxRelay claim, publish and delete loop.
+ * Uses a spy with stubbed claim/delete/release and a mocked EventPublisher; the SQL runs against PostgreSQL only.
+ */
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private EventPublisher publisher;
+    private SimpleMeterRegistry registry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        publisher = mock(EventPublisher.class);
+        registry = new SimpleMeterRegistry();
+        relay = spy(new OutboxRelay(null, publisher, BATCH_SIZE, Duration.ofMillis(500), Duration.ofSeconds(30), registry));
+        doReturn(Mono.empty()).when(relay).delete(any());
+        doReturn(Mono.empty()).when(relay).release(any());
+    }
+
+    @Test
+    void shouldClaimWithSkipLockedAndALease() {
+        // Then - reclamar no bloquea a otras instancias y la lease evita repartir el mismo lote
+        assertThat(OutboxRelay.CLAIM).contains("FOR UPDATE SKIP LOCKED").contains("claimed_until");
+    }
+
+    @Test
+    void shouldPublishThenDeleteClaimedRows() {
+        // Given
+        List<OutboxRelay.OutboxRow> rows = rows(1, 2);
+        doReturn(Mono.just(rows), Mono.just(List.of())).when(relay).claim();
+        when(publisher.publish(anyList())).thenReturn(Mono.empty());
+
+        // When
+        StepVerifier.create(relay.drain()).verifyComplete();
+
+        // Then
+        verify(publisher).publish(rows.stream().map(OutboxRelay.OutboxRow::event).toList());
+        verify(relay).delete(argThat(ids -> List.of(ids).equals(List.of(1L, 2L))));
+        verify(relay, never()).release(any());
+        assertThat(registry.get("outbox.relay.published").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldKeepRelayingWhileBatchesComeBackFull() {
+        // Given
+        doReturn(Mono.just(rows(1, 3)), Mono.just(rows(4, 6)), Mono.just(rows(7, 7))).when(relay).claim();
+        when(publisher.publish(anyList())).thenReturn(Mono.empty());
+
+        // When
+        StepVerifier.create(relay.drain()).verifyComplete();
+
+        // Then
+        verify(relay, times(3)).claim();
+        verify(relay, times(3)).delete(any());
+        assertThat(registry.get("outbox.relay.published").counter().count()).isEqualTo(7.0);
+    }
+
+    @Test
+    void shouldReleaseInsteadOfDeletingWhenPublishFails() {
+        // Given
+        doReturn(Mono.just(rows(1, 3))).when(relay).claim();
+        when(publisher.publish(anyList())).thenReturn(Mono.error(new IllegalStateException("broker down")));
+
+        // When
+        StepVerifier.create(relay.drain()).verifyComplete();
+
+        // Then
+        verify(relay).release(argThat(ids -> List.of(ids).equals(List.of(1L, 2L, 3L))));
+        verify(relay, never()).delete(any());
+        assertThat(registry.get("outbox.relay.failures").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("outbox.relay.published").counter().count()).isZero();
+    }
+
+    private static List<OutboxRelay.OutboxRow> rows(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(id -> new OutboxRelay.OutboxRow(id, DomainEvent.builder()
+                        .eventId(UUID.randomUUID())
+                        .type("PersonRegistered")
+                        .aggregateId(UUID.randomUUID())
+                        .payload("{}")
+                        .occurredAt(Instant.now())
+                        .build()))
+                .toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.hiri.crediya.r2dbc.routing;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ReadWriteRoutingConnectionFactory.
+ * Uses mocks for the primary and replica pools.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReadWriteRoutingConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory primary;
+    @Mock
+    private ConnectionFactory replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+    private ReadWriteRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+        doReturn(Mono.just(replicaConnection)).when(replica).create();
+        routing = new ReadWriteRoutingConnectionFactory(primary, replica, replicaAvailable::get);
+    }
+
+    @Test
+    void shouldRouteWritesToPrimary() {
+        StepVerifier.create(routing.create())
+                .expectNext(primaryConnection)
+                .verifyComplete();
+        verify(replica, never()).create();
+    }
+
+    @Test
+    void shouldRouteReadOnlyOperationsToReplica() {
+        StepVerifier.create(routing.create().contextWrite(ReadWriteRoutingConnectionFactory::readOnly))
+                .expectNext(replicaConnection)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLags() {
+        // Given
+        replicaAvailable.set(false);
+
+        // When & Then
+        StepVerifier.create(routing.create().contextWrite(ReadWriteRoutingConnectionFactory::readOnly))
+                .expectNext(primaryConnection)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaFails() {
+        // Given
+        doReturn(Mono.error(new IllegalStateException("replica down"))).when(replica).create();
+
+        // When & Then
+        StepVerifier.create(routing.create().contextWrite(ReadWriteRoutingConnectionFactory::readOnly))
+                .expectNext(primaryConnection)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldUsePrimaryWhenNoReplicaConfigured() {
+        // Given
+        routing = new ReadWriteRoutingConnectionFactory(primary, null, () -> true);
+
+        // When & Then
+        StepVerifier.create(routing.create().contextWrite(ReadWriteRoutingConnectionFactory::readOnly))
+                .expectNext(primaryConnection)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,63 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ShardRebalancer move planning.
+ * Uses shards without connections; only the bucket assignment is exercised.
+ */
+class ShardRebalancerTest {
+
+    private static final int BUCKETS = 64;
+
+    @Test
+    void shouldGiveNewShardItsShareFromExistingOnes() {
+        // Given - dos shards con todo repartido y uno nuevo vacío
+        ShardRebalancer rebalancer = rebalancer("s1", "s2", "s3");
+        List<Object[]> rows = IntStream.range(0, BUCKETS)
+                .mapToObj(bucket -> new Object[]{bucket, bucket < BUCKETS / 2 ? "s1" : "s2"})
+                .toList();
+
+        // When
+        List<ShardRebalancer.Move> moves = rebalancer.plan(rows);
+
+        // Then - 22/21/21 y solo se mueve hacia s3
+        Map<String, Integer> owned = new HashMap<>(Map.of("s1", 32, "s2", 32, "s3", 0));
+        moves.forEach(move -> {
+            assertThat(move.target()).isEqualTo("s3");
+            owned.merge(move.source(), -move.buckets().size(), Integer::sum);
+            owned.merge(move.target(), move.buckets().size(), Integer::sum);
+        });
+        assertThat(owned).containsEntry("s1", 22).containsEntry("s2", 21).containsEntry("s3", 21);
+    }
+
+    @Test
+    void shouldNotMoveAnythingWhenBalanced() {
+        // Given
+        ShardRebalancer rebalancer = rebalancer("s1", "s2");
+        List<Object[]> rows = IntStream.range(0, BUCKETS)
+                .mapToObj(bucket -> new Object[]{bucket, bucket % 2 == 0 ? "s1" : "s2"})
+                .toList();
+
+        // When & Then
+        assertThat(rebalancer.plan(rows)).isEmpty();
+    }
+
+    private static ShardRebalancer rebalancer(String... names) {
+        ShardDirectory directory = new ShardDirectory(null, BUCKETS, names[0], Duration.ofSeconds(5));
+        List<Shard> shards = Arrays.stream(names)
+                .map(name -> new Shard(name, ConnectionFactories.get("r2dbc:postgresql://localhost/" + name)))
+                .toList();
+        return new ShardRebalancer(null, directory, shards, Duration.ofSeconds(15), 500);
+    }
+}
@@ -0,0 +1,158 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import com.hiri.crediya.model.person.Person;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for ShardedPersonRepository and ShardRebalancer.
+ * Uses two or more local, disposable Postgres databases listed in CREDIYA_IT_SHARD_URLS (comma separated
+ * r2dbc URLs with credentials); the first one also holds the directory. Tables are truncated before each test.
+ */
+@EnabledIfEnvironmentVariable(named = "CREDIYA_IT_SHARD_URLS", matches = ".+,.+")
+class ShardedPersonRepositoryIntegrationTest {
+
+    private static final int BUCKETS = 32;
+    private static final List<String> MIGRATIONS = List.of("V1__persons.sql", "V2__idempotency_keys.sql",
+            "V3__persons_version.sql", "V4__persons_change_notify.sql", "V5__persons_change_seq.sql",
+            "V6__outbox.sql", "V7__shard_directory.sql", "V8__persons_partitioning.sql");
+
+    private final List<Shard> shards = new ArrayList<>();
+    private ShardDirectory directory;
+    private ShardedPersonRepository repository;
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        String[] urls = System.getenv("CREDIYA_IT_SHARD_URLS").split(",");
+        for (int i = 0; i < urls.length; i++) {
+            ConnectionFactory connectionFactory = ConnectionFactories.get(urls[i].trim());
+            for (String migration : MIGRATIONS) {
+                execute(connectionFactory, script(migration));
+            }
+            execute(connectionFactory, "TRUNCATE persons, person_keys, persons_tombstones, outbox, shard_buckets, persons_directory");
+            shards.add(new Shard("s" + i, connectionFactory));
+        }
+        directory = new ShardDirectory(shards.get(0).getClient(), BUCKETS, "s0", Duration.ofMillis(200));
+        directory.start();
+        repository = new ShardedPersonRepository(directory, shards);
+        rebalancer = new ShardRebalancer(shards.get(0).getClient(), directory, shards, Duration.ofMillis(500), 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        directory.stop();
+    }
+
+    @Test
+    void shouldKeepEveryPersonReachableAcrossRebalance() {
+        // Given - todo empieza en el primer shard
+        List<Person> saved = Flux.range(0, 60).concatMap(i -> repository.save(person(i))).collectList().block();
+        assertThat(saved).hasSize(60);
+        List<UUID> expectedOrder = saved.stream().map(Person::getId)
+                .sorted(ShardedPersonRepository.POSTGRES_UUID_ORDER).toList();
+
+        // When
+        Long moved = rebalancer.rebalance().block();
+
+        // Then - cada shard quedó con filas y nada se perdió ni se duplicó
+        assertThat(moved).isPositive();
+        shards.forEach(shard -> assertThat(shard.getClient().sql("SELECT count(*) AS total FROM persons")
+                .map((row, metadata) -> row.get("total", Long.class)).one().block()).isPositive());
+        StepVerifier.create(repository.getAllPersons(0, 60).map(Person::getId))
+                .expectNextSequence(expectedOrder)
+                .verifyComplete();
+        StepVerifier.create(repository.getAllPersons(10, 5).map(Person::getId))
+                .expectNextSequence(expectedOrder.subList(10, 15))
+                .verifyComplete();
+        saved.forEach(person -> {
+            assertThat(repository.findById(person.getId()).map(Person::getDocument).block()).isEqualTo(person.getDocument());
+            assertThat(repository.findById(person.getId()).map(Person::getVersion).block()).isEqualTo(person.getVersion());
+            assertThat(repository.findByDocument(person.getDocument()).map(Person::getId).block()).isEqualTo(person.getId());
+        });
+        assertThat(repository.streamAll().count().block()).isEqualTo(60L);
+    }
+
+    @Test
+    void shouldRejectDuplicateEmailAcrossShardsAndMoveOnDocumentChange() {
+        // Given
+        rebalancer.rebalance().block();
+        Person saved = repository.save(person(1)).block();
+        String newDocument = IntStream.range(100, 10_000).mapToObj(i -> "9" + i)
+                .filter(document -> !directory.ownerOf(directory.bucketOf(document))
+                        .equals(directory.ownerOf(directory.bucketOf(saved.getDocument()))))
+                .findFirst().orElseThrow();
+
+        // When & Then - el email es único aunque el documento caiga en otro shard
+        StepVerifier.create(repository.existsByEmailOrDocument(saved.getEmail(), "otro")).expectNext(true).verifyComplete();
+        StepVerifier.create(repository.save(person(1).toBuilder().document("otro-documento").build()))
+                .expectErrorMessage("User already exists")
+                .verify();
+
+        // When - el cambio de documento lleva la fila a otro shard
+        repository.save(saved.toBuilder().document(newDocument).build()).block();
+
+        // Then
+        StepVerifier.create(repository.findByDocument(saved.getDocument())).verifyComplete();
+        StepVerifier.create(repository.findById(saved.getId()).map(Person::getDocument)).expectNext(newDocument).verifyComplete();
+        StepVerifier.create(repository.findById(saved.getId()).map(Person::getVersion))
+                .expectNext(saved.getVersion() + 1)
+                .verifyComplete();
+        repository.deletePerson(saved.getId()).block();
+        StepVerifier.create(repository.findById(saved.getId())).verifyComplete();
+        StepVerifier.create(repository.existsByEmailOrDocument(saved.getEmail(), newDocument)).expectNext(false).verifyComplete();
+    }
+
+    private static Person person(int i) {
+        return Person.builder()
+                .names("Persona " + i)
+                .lastnames("Shard")
+                .document(String.valueOf(20_000_000 + i))
+                .password("password123")
+                .email("persona" + i + "@crediya.com")
+                .baseSalary(new BigDecimal("1000000"))
+                .role(BigInteger.valueOf(3))
+                .build();
+    }
+
+    private static String script(String name) {
+        try (InputStream in = ShardedPersonRepositoryIntegrationTest.class.getResourceAsStream("/db/migration/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Conexión directa: el script tiene varias sentencias y cuerpos $$ que no pasan por parámetros con nombre
+    private static void execute(ConnectionFactory connectionFactory, String sql) {
+        Mono.usingWhen(Mono.from(connectionFactory.create()),
+                        connection -> Flux.from(connection.createStatement(sql).execute())
+                                .flatMap(Result::getRowsUpdated)
+                                .then(),
+                        Connection::close)
+                .block();
+    }
+}
@@ -0,0 +1,65 @@
+package com.hiri.crediya.r2dbc.shard;
+
+import com.hiri.crediya.model.person.Person;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ShardedPersonRepository ordering and routing helpers.
+ * Uses in-memory sorted streams in place of the per-shard queries.
+ */
+class ShardedPersonRepositoryTest {
+
+    @Test
+    void shouldOrderUuidsLikePostgres() {
+        // Given - el bit alto encendido es "negativo" para UUID.compareTo pero mayor para Postgres
+        UUID low = UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        UUID high = UUID.fromString("80000000-0000-0000-0000-000000000000");
+
+        // When & Then
+        assertThat(low.compareTo(high)).isPositive();
+        assertThat(ShardedPersonRepository.POSTGRES_UUID_ORDER.compare(low, high)).isNegative();
+    }
+
+    @Test
+    void shouldMergeShardsPreservingIdOrder() {
+        // Given - tres shards, cada uno ordenado por id como lo devuelve ORDER BY id
+        List<Person> all = IntStream.range(0, 300).mapToObj(i -> Person.builder().id(UUID.randomUUID()).build()).toList();
+        List<List<Person>> shards = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        all.forEach(person -> shards.get(Math.floorMod(person.getId().hashCode(), 3)).add(person));
+        shards.forEach(shard -> shard.sort(Comparator.comparing(Person::getId, ShardedPersonRepository.POSTGRES_UUID_ORDER)));
+        List<Person> expected = all.stream()
+                .sorted(Comparator.comparing(Person::getId, ShardedPersonRepository.POSTGRES_UUID_ORDER))
+                .toList();
+
+        // When
+        Flux<Person> page = ShardedPersonRepository.mergeById(shards.stream().map(Flux::fromIterable).toList())
+                .skip(50)
+                .take(20);
+
+        // Then
+        StepVerifier.create(page.map(Person::getId))
+                .expectNextSequence(expected.subList(50, 70).stream().map(Person::getId).toList())
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSpreadDocumentsAcrossBucketsDeterministically() {
+        // When
+        int[] counts = new int[16];
+        IntStream.range(0, 16_000).forEach(i -> counts[ShardDirectory.bucketOf(String.valueOf(10_000_000 + i), 16)]++);
+
+        // Then - mismo documento, mismo bucket; reparto cercano a uniforme
+        assertThat(ShardDirectory.bucketOf("12345678", 16)).isEqualTo(ShardDirectory.bucketOf("12345678", 16));
+        assertThat(counts).allSatisfy(count -> assertThat(count).isBetween(800, 1200));
+    }
+}
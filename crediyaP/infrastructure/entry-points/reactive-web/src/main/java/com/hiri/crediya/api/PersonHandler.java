@@ -1,9 +1,20 @@
 package com.hiri.crediya.api;
 
+import com.hiri.crediya.api.config.RoleAuthorizationFilter;
 import com.hiri.crediya.api.dto.DeleteResponse;
 import com.hiri.crediya.api.dto.PersonRequest;
 import com.hiri.crediya.api.dto.PersonResponse;
+import com.hiri.crediya.api.dto.SyncResponse;
+import com.hiri.crediya.api.etag.PersonEtagCache;
+import com.hiri.crediya.api.export.PersonCsvExport;
+import com.hiri.crediya.api.idempotency.IdempotencyService;
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
 import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
 import com.hiri.crediya.usecase.personregistry.PersonUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,19 +28,26 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_IMPLEMENTED;
 
 @Slf4j
 @Component
@@ -37,14 +55,23 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 @Tag(name = "Persons")
 public class PersonHandler {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final PersonUseCase personUseCase;
     private final Validator validator;
+    private final IdempotencyService idempotencyService;
+    private final PersonEtagCache etagCache;
+    private final AuditTrail auditTrail;
     public final Integer DEFAULT_ROLE_ID = 3;
+    private static final int EXPORT_ROWS_PER_CHUNK = 500;
+    private static final int DEFAULT_SYNC_LIMIT = 500;
 
     @Operation(
             summary = "Create new user",
             description = "Creates a new user in the system",
             security = @SecurityRequirement(name = "bearerAuth"),
+            parameters = @Parameter(name = IDEMPOTENCY_KEY, description = "Replays the original response when the request is retried",
+                    in = ParameterIn.HEADER),
             requestBody = @RequestBody(
                     description = "User data to create",
                     required = true,
@@ -55,42 +82,151 @@ public class PersonHandler {
                             content = @Content(schema = @Schema(implementation = PersonResponse.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different payload"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
     public Mono<ServerResponse> create(ServerRequest req) {
+        String idempotencyKey = req.headers().firstHeader(IDEMPOTENCY_KEY);
         return req.bodyToMono(PersonRequest.class)
                 .flatMap(this::validate)
-                .map(this::toDomain)
-                .flatMap(personUseCase::execute)
-                .flatMap(p -> {
-                    log.info("Person created id={}", p.getId());
-                    return ServerResponse.created(URI.create("/api/v1/usuarios/" + p.getId()))
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .bodyValue(toResponse(p));
+                .flatMap(r -> {
+                    if (idempotencyKey == null) {
+                        return register(req, r).flatMap(p -> negotiated(ServerResponse.created(URI.create("/api/v1/usuarios/" + p.getId())))
+                                .bodyValue(toResponse(p)));
+                    }
+                    return idempotencyService.execute(scopedKey(req, idempotencyKey), r,
+                                    () -> register(req, r).map(p -> idempotencyService.toResponse(HttpStatus.CREATED,
+                                            "/api/v1/usuarios/" + p.getId(), toResponse(p))))
+                            .flatMap(this::replay);
                 });
     }
 
+    private Mono<Person> register(ServerRequest req, PersonRequest r) {
+        return personUseCase.execute(toDomain(r))
+                .doOnNext(p -> log.info("Person created id={}", p.getId()))
+                .flatMap(p -> audit(req, AuditAction.CREATE, p.getId(), p.getDocument()).thenReturn(p));
+    }
+
     @Operation(
             summary = "Get user by document",
             description = "Gets user information by document number",
             security = @SecurityRequirement(name = "bearerAuth"),
-            parameters = @Parameter(name = "document", description = "Document number", 
-                    required = true, in = ParameterIn.PATH),
+            parameters = {
+                    @Parameter(name = "document", description = "Document number",
+                            required = true, in = ParameterIn.PATH),
+                    @Parameter(name = HttpHeaders.IF_NONE_MATCH, description = "ETag from a previous response",
+                            in = ParameterIn.HEADER)
+            },
             responses = {
                     @ApiResponse(responseCode = "200", description = "User found",
                             content = @Content(schema = @Schema(implementation = PersonResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "User not modified since the given ETag"),
                     @ApiResponse(responseCode = "404", description = "User not found"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized")
             }
     )
     public Mono<ServerResponse> getPerson(ServerRequest req) {
         String document = req.pathVariable("document");
+        List<String> ifNoneMatch = req.headers().header(HttpHeaders.IF_NONE_MATCH);
+        if (!ifNoneMatch.isEmpty()) {
+            String cached = etagCache.get(document);
+            if (PersonEtagCache.matches(ifNoneMatch, cached)) {
+                return audit(req, AuditAction.VIEW, PersonEtagCache.personIdOf(cached), document).then(notModified(cached));
+            }
+        }
         return personUseCase.findByDocument(document)
-                .map(this::toResponse)
-                .flatMap(res -> {
-                    log.info("Person found id={}", res.getId());
-                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res);
+                .flatMap(p -> audit(req, AuditAction.VIEW, p.getId(), document).thenReturn(p))
+                .flatMap(p -> {
+                    etagCache.put(p);
+                    String etag = PersonEtagCache.etagOf(p);
+                    if (PersonEtagCache.matches(ifNoneMatch, etag)) {
+                        return notModified(etag);
+                    }
+                    log.info("Person found id={}", p.getId());
+                    ServerResponse.BodyBuilder builder = negotiated(ServerResponse.ok())
+                            .cacheControl(CacheControl.noCache());
+                    if (etag != null) {
+                        builder.eTag(etag);
+                    }
+                    return builder.bodyValue(toResponse(p));
+                });
+    }
+
+    private Mono<ServerResponse> notModified(String etag) {
+        return negotiated(ServerResponse.status(HttpStatus.NOT_MODIFIED))
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    @Operation(
+            summary = "Export users as CSV",
+            description = "Streams every user as CSV (gzip when the client sends Accept-Encoding: gzip). Password is never exported",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "CSV stream",
+                            content = @Content(mediaType = "text/csv")),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized")
+            }
+    )
+    public Mono<ServerResponse> export(ServerRequest req) {
+        boolean gzip = req.headers().header(HttpHeaders.ACCEPT_ENCODING).stream()
+                .anyMatch(value -> value.toLowerCase().contains("gzip"));
+        Flux<byte[]> body = PersonCsvExport.csv(personUseCase.exportAll(), EXPORT_ROWS_PER_CHUNK)
+                .doOnCancel(() -> log.info("Person export cancelled by client"));
+        ServerResponse.BodyBuilder builder = ServerResponse.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"persons.csv\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = PersonCsvExport.gzip(body);
+        }
+        return audit(req, AuditAction.EXPORT, null, null).then(builder.body(body, byte[].class));
+    }
+
+    @Operation(
+            summary = "Sync user changes",
+            description = "Returns users created, updated or deleted after the given token, in commit order (transaction, then sequence)",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            parameters = {
+                    @Parameter(name = "since", description = "Last nextToken received (0 for a full initial sync)", in = ParameterIn.QUERY),
+                    @Parameter(name = "limit", description = "Max changes per batch (up to 1000)", in = ParameterIn.QUERY)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch of changes",
+                            content = @Content(schema = @Schema(implementation = SyncResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid token"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "501", description = "Not available while users are sharded")
+            }
+    )
+    public Mono<ServerResponse> sync(ServerRequest req) {
+        PersonSyncToken since;
+        int limit;
+        try {
+            since = PersonSyncToken.parse(req.queryParam("since").orElse("0"));
+            limit = Math.max(1, Math.min(PersonUseCase.MAX_SYNC_BATCH,
+                    Integer.parseInt(req.queryParam("limit").orElse(String.valueOf(DEFAULT_SYNC_LIMIT)))));
+        } catch (IllegalArgumentException e) {
+            // Incluye NumberFormatException
+            return Mono.error(new ResponseStatusException(BAD_REQUEST, "since must be a sync token and limit a number"));
+        }
+        return personUseCase.changesSince(since, limit)
+                .collectList()
+                .onErrorMap(PersonUseCase.PersonUseCaseException.class, e -> new ResponseStatusException(BAD_REQUEST, e.getMessage()))
+                .onErrorMap(PersonSyncEntry.SyncUnavailableException.class, e -> new ResponseStatusException(NOT_IMPLEMENTED, e.getMessage()))
+                .flatMap(entries -> audit(req, AuditAction.LIST, null, null).thenReturn(entries))
+                .flatMap(entries -> {
+                    PersonSyncToken next = entries.isEmpty() ? since : entries.get(entries.size() - 1).token();
+                    SyncResponse res = SyncResponse.builder()
+                            .entries(entries.stream().map(this::toSyncEntry).toList())
+                            .nextToken(next.toString())
+                            .hasMore(entries.size() >= limit)
+                            .build();
+                    log.info("Sync since={} returned {} changes", since, entries.size());
+                    return negotiated(ServerResponse.ok()).bodyValue(res);
                 });
     }
 
@@ -123,9 +259,10 @@ public class PersonHandler {
         limit = (page > 0 ? page : 1) * limit;
         return personUseCase.getList(page, limit)
                 .collectList()
+                .flatMap(res -> audit(req, AuditAction.LIST, null, null).thenReturn(res))
                 .flatMap(res -> {
                     log.info("Total persons found {}", res.size());
-                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res);
+                    return negotiated(ServerResponse.ok()).bodyValue(res);
                 });
     }
 
@@ -145,11 +282,13 @@ public class PersonHandler {
     public Mono<ServerResponse> delete(ServerRequest req) {
         UUID ID = UUID.fromString(req.pathVariable("id"));
         return personUseCase.delete(ID)
+                .doOnNext(etagCache::evict)
+                .flatMap(id -> audit(req, AuditAction.DELETE, id, null).thenReturn(id))
                 .flatMap(id -> {
                     Person person = new Person();
                     person.setId(id);
                     log.info("Person delete id={}", id);
-                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(toDelete(person));
+                    return negotiated(ServerResponse.ok()).bodyValue(toDelete(person));
                 });
     }
 
@@ -157,6 +296,8 @@ public class PersonHandler {
             summary = "Update user",
             description = "Updates user information",
             security = @SecurityRequirement(name = "bearerAuth"),
+            parameters = @Parameter(name = IDEMPOTENCY_KEY, description = "Replays the original response when the request is retried",
+                    in = ParameterIn.HEADER),
             requestBody = @RequestBody(
                     description = "Updated user data",
                     required = true,
@@ -171,16 +312,66 @@ public class PersonHandler {
             }
     )
     public Mono<ServerResponse> update(ServerRequest req) {
+        String idempotencyKey = req.headers().firstHeader(IDEMPOTENCY_KEY);
         return req.bodyToMono(PersonRequest.class)
                 .flatMap(this::validate)
-                .map(this::toUpdate)
-                .flatMap(personUseCase::update)
-                .flatMap(p -> {
-                    log.info("Person updated id={}", p.getId());
-                    return ServerResponse.accepted().contentType(MediaType.APPLICATION_JSON).bodyValue(p);
+                .flatMap(r -> {
+                    if (idempotencyKey == null) {
+                        return modify(req, r).flatMap(p -> negotiated(ServerResponse.accepted()).bodyValue(toResponse(p)));
+                    }
+                    // Se guarda la respuesta pública, nunca la persona con el hash de la contraseña
+                    return idempotencyService.execute(scopedKey(req, idempotencyKey), r,
+                                    () -> modify(req, r).map(p -> idempotencyService.toResponse(HttpStatus.ACCEPTED, null, toResponse(p))))
+                            .flatMap(this::replay);
                 });
     }
 
+    private Mono<Person> modify(ServerRequest req, PersonRequest r) {
+        return personUseCase.update(toUpdate(r))
+                .doOnNext(p -> {
+                    etagCache.evict(p.getId());
+                    log.info("Person updated id={}", p.getId());
+                })
+                .flatMap(p -> audit(req, AuditAction.UPDATE, p.getId(), p.getDocument()).thenReturn(p));
+    }
+
+    // Solo encola el evento (write-behind): no agrega un round trip a la base por petición
+    private Mono<Void> audit(ServerRequest req, AuditAction action, UUID personId, String document) {
+        return auditTrail.record(AuditEvent.builder()
+                .actor(clientOf(req))
+                .action(action)
+                .personId(personId)
+                .document(document)
+                .build());
+    }
+
+    // Las llaves se aíslan por cliente y operación para que dos integraciones no colisionen
+    private String scopedKey(ServerRequest req, String idempotencyKey) {
+        return clientOf(req) + "|" + req.method().name() + "|" + idempotencyKey;
+    }
+
+    private String clientOf(ServerRequest req) {
+        return req.attribute(RoleAuthorizationFilter.CLIENT_ID_ATTRIBUTE)
+                .map(Object::toString)
+                .orElse("anonymous");
+    }
+
+    // La respuesta guardada ya está serializada como JSON: las repeticiones siempre se devuelven en JSON,
+    // pero la misma ruta negocia el formato en la primera ejecución
+    private Mono<ServerResponse> replay(IdempotentResponse stored) {
+        ServerResponse.BodyBuilder builder = negotiated(ServerResponse.status(stored.getStatus()))
+                .contentType(MediaType.APPLICATION_JSON);
+        if (stored.getLocation() != null) {
+            builder.header(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        return builder.bodyValue(stored.getBody());
+    }
+
+    // El cuerpo se negocia por Accept (JSON, CBOR o Smile): una caché no debe servir una variante por otra
+    private static ServerResponse.BodyBuilder negotiated(ServerResponse.BodyBuilder builder) {
+        return builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
     private Mono<PersonRequest> validate(PersonRequest r) {
         var violations = validator.validate(r);
         if (!violations.isEmpty()) {
@@ -223,6 +414,14 @@ public class PersonHandler {
                 .build();
     }
 
+    private SyncResponse.Entry toSyncEntry(PersonSyncEntry e) {
+        return SyncResponse.Entry.builder()
+                .sequence(e.getSequence())
+                .deleted(e.isDeleted())
+                .person(toResponse(e.getPerson()))
+                .build();
+    }
+
     private DeleteResponse toDelete(Person p) {
         return DeleteResponse.builder()
                 .message("Deleted user " + p.getId())
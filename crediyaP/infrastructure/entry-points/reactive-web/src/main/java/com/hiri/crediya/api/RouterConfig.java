@@ -1,5 +1,7 @@
 package com.hiri.crediya.api;
 
+import com.hiri.crediya.api.changes.PersonChangesHandler;
+import com.hiri.crediya.api.importer.PersonImportHandler;
 import org.springdoc.core.annotations.RouterOperation;
 import org.springdoc.core.annotations.RouterOperations;
 import org.springframework.context.annotation.Bean;
@@ -15,16 +17,26 @@ public class RouterConfig {
     @Bean
     @RouterOperations({
             @RouterOperation(path = "/api/v1/usuarios", beanClass = PersonHandler.class, beanMethod = "create", method = RequestMethod.POST),
+            @RouterOperation(path = "/api/v1/usuarios/import", beanClass = PersonImportHandler.class, beanMethod = "importPersons", method = RequestMethod.POST),
+            @RouterOperation(path = "/api/v1/usuarios/changes", beanClass = PersonChangesHandler.class, beanMethod = "changes", method = RequestMethod.GET),
+            @RouterOperation(path = "/api/v1/usuarios/sync", beanClass = PersonHandler.class, beanMethod = "sync", method = RequestMethod.GET),
+            @RouterOperation(path = "/api/v1/usuarios/export", beanClass = PersonHandler.class, beanMethod = "export", method = RequestMethod.GET),
             @RouterOperation(path = "/api/v1/usuarios/{document}", beanClass = PersonHandler.class, beanMethod = "getPerson", method = RequestMethod.GET),
             @RouterOperation(path = "/api/v1/usuarios", beanClass = PersonHandler.class, beanMethod = "getAllPersons", method = RequestMethod.GET),
             @RouterOperation(path = "/api/v1/usuarios/{id}", beanClass = PersonHandler.class, beanMethod = "delete", method = RequestMethod.DELETE),
             @RouterOperation(path = "/api/v1/usuarios", beanClass = PersonHandler.class, beanMethod = "update", method = RequestMethod.PATCH)
     })
-    public RouterFunction<ServerResponse> routes(PersonHandler handler) {
+    public RouterFunction<ServerResponse> routes(PersonHandler handler, PersonImportHandler importHandler,
+                                                PersonChangesHandler changesHandler) {
         return RouterFunctions
                 .route()
                 .path("/api/v1", builder -> builder
                         .POST("/usuarios", handler::create)
+                        .POST("/usuarios/import", importHandler::importPersons)
+                        // Deben ir antes de {document} para que "export"/"changes"/"sync" no se tomen como un documento
+                        .GET("/usuarios/export", handler::export)
+                        .GET("/usuarios/sync", handler::sync)
+                        .GET("/usuarios/changes", changesHandler::changes)
                         .GET("/usuarios/{document}", handler::getPerson)
                         .GET("/usuarios", handler::getAllPersons)
                         .DELETE("/usuarios/{id}", handler::delete)
@@ -0,0 +1,103 @@
+package com.hiri.crediya.api.changes;
+
+import com.hiri.crediya.api.config.RoleAuthorizationFilter;
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.usecase.personchanges.PersonChangesUseCase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SSE con los cambios de personas. Cada suscriptor tiene su propio buffer acotado: un consumidor
+ * lento pierde los cambios más viejos (contados en {@code person.changes.dropped}) sin frenar a los demás.
+ */
+@Slf4j
+@Component
+@Tag(name = "Persons")
+public class PersonChangesHandler {
+
+    private final PersonChangesUseCase changesUseCase;
+    private final PersonChangesProperties properties;
+    private final AuditTrail auditTrail;
+    private final Counter dropped;
+    private final Timer lag;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public PersonChangesHandler(PersonChangesUseCase changesUseCase, PersonChangesProperties properties,
+                                AuditTrail auditTrail, MeterRegistry registry) {
+        this.changesUseCase = changesUseCase;
+        this.properties = properties;
+        this.auditTrail = auditTrail;
+        this.dropped = Counter.builder("person.changes.dropped")
+                .description("Person changes discarded because a subscriber was too slow")
+                .register(registry);
+        this.lag = Timer.builder("person.changes.lag")
+                .description("Time from the database change to its delivery to a subscriber")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("person.changes.subscribers", subscribers, AtomicInteger::get).register(registry);
+    }
+
+    @Operation(
+            summary = "Stream user changes",
+            description = "Server-Sent Events with every user created, updated or deleted while connected",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Change stream",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized")
+            }
+    )
+    public Mono<ServerResponse> changes(ServerRequest req) {
+        // El stream expone todas las personas que cambien: se audita como un listado al suscribirse
+        return auditTrail.record(AuditEvent.builder()
+                        .actor(req.attribute(RoleAuthorizationFilter.CLIENT_ID_ATTRIBUTE).map(Object::toString).orElse("anonymous"))
+                        .action(AuditAction.LIST)
+                        .build())
+                .then(ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromServerSentEvents(events())));
+    }
+
+    Flux<ServerSentEvent<PersonChange>> events() {
+        Flux<ServerSentEvent<PersonChange>> changes = changesUseCase.changes()
+                .onBackpressureBuffer(properties.getSubscriberBuffer(), change -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .doOnNext(change -> {
+                    if (change.getAt() != null) {
+                        lag.record(Duration.between(change.getAt(), Instant.now()));
+                    }
+                })
+                .map(change -> ServerSentEvent.builder(change)
+                        .event(change.getType().name())
+                        .build());
+        Flux<ServerSentEvent<PersonChange>> heartbeat = Flux.interval(properties.getHeartbeat())
+                .map(tick -> ServerSentEvent.<PersonChange>builder().comment("keepalive").build());
+        return Flux.merge(changes, heartbeat)
+                .doOnSubscribe(subscription -> log.info("Person change subscribers={}", subscribers.incrementAndGet()))
+                .doFinally(signal -> log.info("Person change subscribers={}", subscribers.decrementAndGet()));
+    }
+}
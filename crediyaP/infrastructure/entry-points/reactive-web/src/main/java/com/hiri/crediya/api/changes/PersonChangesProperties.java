@@ -0,0 +1,17 @@
+package com.hiri.crediya.api.changes;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "person-changes")
+public class PersonChangesProperties {
+    // Cambios pendientes por suscriptor lento; al llenarse se descartan los más viejos
+    private int subscriberBuffer = 256;
+    // Comentario SSE periódico para que proxies y balanceadores no corten la conexión ociosa
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
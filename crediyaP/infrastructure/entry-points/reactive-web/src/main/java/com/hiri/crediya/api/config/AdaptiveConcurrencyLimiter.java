@@ -0,0 +1,129 @@
+package com.hiri.crediya.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo por ruta (AIMD guiado por el gradiente de latencia).
+ * Crece de a uno mientras la latencia se mantiene cerca de su línea base y se reduce
+ * multiplicativamente cuando la latencia se dispara o la petición termina en error.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final String OTHER_ROUTES = "other";
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, RouteLimit> routes = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public RouteLimit forRoute(String route) {
+        RouteLimit limit = routes.get(route);
+        if (limit != null) {
+            return limit;
+        }
+        String key = routes.size() < properties.getMaxRoutes() ? route : OTHER_ROUTES;
+        return routes.computeIfAbsent(key, this::newRouteLimit);
+    }
+
+    private RouteLimit newRouteLimit(String route) {
+        RouteLimit limit = new RouteLimit(route, properties,
+                Counter.builder("http.server.concurrency.rejected")
+                        .description("Requests shed by the adaptive concurrency limit")
+                        .tag("route", route)
+                        .register(registry));
+        Gauge.builder("http.server.concurrency.limit", limit, RouteLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", route)
+                .register(registry);
+        Gauge.builder("http.server.concurrency.inflight", limit, RouteLimit::getInFlight)
+                .tag("route", route)
+                .register(registry);
+        return limit;
+    }
+
+    public static final class RouteLimit {
+        // Peso del promedio exponencial que sigue la latencia "normal" de la ruta
+        private static final double BASELINE_SMOOTHING = 0.05;
+
+        private final String route;
+        private final ConcurrencyLimitProperties properties;
+        private final Counter rejected;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double limit;
+        private double baselineNanos;
+
+        RouteLimit(String route, ConcurrencyLimitProperties properties, Counter rejected) {
+            this.route = route;
+            this.properties = properties;
+            this.rejected = rejected;
+            this.limit = properties.getInitialLimit();
+        }
+
+        public boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= (int) limit) {
+                    rejected.increment();
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /** Libera el permiso sin alimentar el algoritmo (p. ej. cancelación del cliente). */
+        public void release() {
+            inFlight.decrementAndGet();
+        }
+
+        public void onSample(long rttNanos, boolean dropped) {
+            int inFlightAtRelease = inFlight.getAndDecrement();
+            update(rttNanos, dropped, inFlightAtRelease);
+        }
+
+        private synchronized void update(long rttNanos, boolean dropped, int inFlightAtRelease) {
+            if (baselineNanos == 0) {
+                baselineNanos = rttNanos;
+            }
+            double threshold = Math.max(baselineNanos * properties.getTolerance(),
+                    properties.getLatencyFloor().toNanos());
+            double next = limit;
+            if (dropped || rttNanos > threshold) {
+                next = limit * properties.getBackoffRatio();
+            } else if (inFlightAtRelease * 2 >= limit) {
+                // Solo crecer cuando el límite realmente se está usando
+                next = limit + 1;
+            }
+            if (!dropped) {
+                // La línea base se mueve lento para adaptarse a cambios sostenidos de latencia
+                baselineNanos += (rttNanos - baselineNanos) * BASELINE_SMOOTHING;
+            }
+            limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), next));
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+    }
+}
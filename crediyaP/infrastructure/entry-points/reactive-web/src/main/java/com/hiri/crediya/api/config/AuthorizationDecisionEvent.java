@@ -0,0 +1,51 @@
+package com.hiri.crediya.api.config;
+
+import com.hiri.crediya.model.jfr.JfrRecording;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evento JFR por decisión de RoleAuthorizationFilter; la duración es la espera por el servicio de auth.
+ */
+@Name("com.hiri.crediya.AuthorizationDecision")
+@Label("Authorization Decision")
+@Category({"Crediya", "Web"})
+@Description("Role authorization decision for a protected route")
+@StackTrace(false)
+class AuthorizationDecisionEvent extends Event {
+
+    @Label("Route")
+    String route;
+
+    @Label("Required Role")
+    String role;
+
+    @Label("Decision")
+    String decision;
+
+    AuthorizationDecisionEvent(String route, String role) {
+        this.route = route;
+        this.role = role;
+    }
+
+    static Mono<Boolean> record(String route, String role, Mono<Boolean> validation) {
+        return JfrRecording.mono(() -> new AuthorizationDecisionEvent(route, role),
+                (event, decision) -> event.decision = decision,
+                (event, authorized) -> event.decision = Boolean.TRUE.equals(authorized) ? "allowed" : "denied",
+                validation);
+    }
+
+    // Decisiones sin llamada remota (p. ej. petición sin token)
+    static void instant(String route, String role, String decision) {
+        AuthorizationDecisionEvent event = new AuthorizationDecisionEvent(route, role);
+        if (event.isEnabled()) {
+            event.decision = decision;
+            event.commit();
+        }
+    }
+}
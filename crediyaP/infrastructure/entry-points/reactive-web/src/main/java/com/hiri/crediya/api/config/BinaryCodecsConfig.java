@@ -0,0 +1,40 @@
+package com.hiri.crediya.api.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Registra CBOR ({@code application/cbor}) y Smile ({@code application/x-jackson-smile}) junto a JSON.
+ * Los mappers salen del mismo Jackson2ObjectMapperBuilder de Boot, así los formatos binarios respetan
+ * la configuración de spring.jackson (SNAKE_CASE). JSON sigue siendo el formato por defecto.
+ */
+@Configuration
+public class BinaryCodecsConfig {
+
+    @Bean
+    public CodecCustomizer binaryCodecsCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cbor = mapperFor(builder, new CBORFactory());
+        ObjectMapper smile = mapperFor(builder, new SmileFactory());
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor));
+            // Smile ya viene por defecto cuando está en el classpath, pero con un mapper sin la configuración de Boot
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile));
+        };
+    }
+
+    static ObjectMapper mapperFor(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory).build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.hiri.crediya.api.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Descarta carga con un 503 rápido cuando la ruta supera su límite adaptativo,
+ * en lugar de dejar que las peticiones se acumulen frente al pool de R2DBC o al servicio de auth.
+ * Es el filtro más externo: la espera por el servicio de auth también cuenta en la latencia de la ruta.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    private static final Set<String> TRANSIENT_DATA_ACCESS_TYPES = Set.of(
+            "org.springframework.dao.TransientDataAccessException",
+            "org.springframework.dao.DataAccessResourceFailureException",
+            "io.r2dbc.spi.R2dbcTransientException");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConcurrencyLimitProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!properties.isEnabled() || !path.startsWith("/api/") || properties.getExcludedPaths().contains(path)) {
+            return chain.filter(exchange);
+        }
+        return Mono.defer(() -> {
+            AdaptiveConcurrencyLimiter.RouteLimit limit = limiter.forRoute(RouteKey.of(exchange.getRequest()));
+            if (!limit.tryAcquire()) {
+                log.warn("Concurrency limit {} reached for {}", (int) limit.getLimit(), limit.getRoute());
+                return reject(exchange);
+            }
+            long start = System.nanoTime();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            return chain.filter(exchange)
+                    .doOnError(failure::set)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            limit.release();
+                        } else {
+                            limit.onSample(System.nanoTime() - start, isDropped(signal, exchange.getResponse(), failure.get()));
+                        }
+                    });
+        });
+    }
+
+    private boolean isDropped(SignalType signal, ServerHttpResponse response, Throwable error) {
+        if (signal == SignalType.ON_ERROR) {
+            return isOverload(error);
+        }
+        HttpStatusCode status = response.getStatusCode();
+        return status != null && isOverload(status);
+    }
+
+    // Solo cuentan timeouts y fallas de la base o del servicio de auth; un 4xx o un error de dominio (duplicado,
+    // validación) no dice nada sobre la carga y no debe bajar el límite de la ruta
+    static boolean isOverload(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof TimeoutException || current instanceof ConnectException
+                    || current instanceof WebClientRequestException) {
+                return true;
+            }
+            if (current instanceof ResponseStatusException e) {
+                return isOverload(e.getStatusCode());
+            }
+            if (current instanceof WebClientResponseException e) {
+                return isOverload(e.getStatusCode());
+            }
+            if (isTransientDataAccess(current.getClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOverload(HttpStatusCode status) {
+        return status.value() == 502 || status.value() == 503 || status.value() == 504;
+    }
+
+    // Por nombre: este módulo no depende de spring-tx ni de r2dbc-spi, que traen los adaptadores
+    private static boolean isTransientDataAccess(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (TRANSIENT_DATA_ACCESS_TYPES.contains(current.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = "{\"message\":\"Server overloaded, retry later\"}".getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.hiri.crediya.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    // Se reduce el límite cuando la latencia supera baseline * tolerance
+    private double tolerance = 2.0;
+    private double backoffRatio = 0.9;
+    // Latencias por debajo de este piso nunca se consideran congestión
+    private Duration latencyFloor = Duration.ofMillis(50);
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private int maxRoutes = 128;
+    // Respuestas de larga duración (streams): su latencia no indica congestión y retendrían el permiso
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/v1/usuarios/changes", "/api/v1/usuarios/export"));
+}
@@ -0,0 +1,112 @@
+package com.hiri.crediya.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Rate limiting por cliente y ruta, configurado en {@code rate-limit.routes}.
+ * Corre antes de RoleAuthorizationFilter, así una ráfaga se corta sin llamar al servicio de auth. El bucket es
+ * el de la dirección remota y no el del token: sin validar, rotar tokens inventados abriría buckets nuevos.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+public class RateLimitFilter implements WebFilter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitProperties properties;
+    private final TokenBucketStore store;
+    private final List<LimitedRoute> routes;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.store = new TokenBucketStore(properties.getMaxKeys(), properties.getStripes(),
+                properties.getIdleTimeout().toNanos(), System::nanoTime);
+        PathPatternParser parser = new PathPatternParser();
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new LimitedRoute(route, parser.parse(route.getPath()),
+                        Counter.builder("http.server.requests.throttled")
+                                .description("Requests rejected by the per-client rate limit")
+                                .tag("route", route.getMethod() + " " + route.getPath())
+                                .register(registry)))
+                .toList();
+        Gauge.builder("http.server.ratelimit.buckets", store, TokenBucketStore::size).register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        LimitedRoute route = match(request);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = route.pattern().getPatternString() + "|" + clientKey(exchange);
+        RateLimitProperties.Route config = route.config();
+        TokenBucketStore.Probe probe = store.tryConsume(key, config.getCapacity(), config.getRefillPerSecond());
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(config.getCapacity()));
+        headers.set(REMAINING_HEADER, String.valueOf(probe.remaining()));
+        if (probe.consumed()) {
+            return chain.filter(exchange);
+        }
+
+        route.throttled().increment();
+        log.warn("Rate limit exceeded for {} {}", request.getMethod(), route.pattern().getPatternString());
+        return tooManyRequests(exchange, probe);
+    }
+
+    private LimitedRoute match(ServerHttpRequest request) {
+        String method = request.getMethod().name();
+        for (LimitedRoute route : routes) {
+            if (route.config().getMethod().equalsIgnoreCase(method)
+                    && route.pattern().matches(request.getPath().pathWithinApplication())) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return "ip:" + (remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown");
+    }
+
+    private Mono<Void> tooManyRequests(ServerWebExchange exchange, TokenBucketStore.Probe probe) {
+        ServerHttpResponse response = exchange.getResponse();
+        long retryAfterSeconds = Math.max(1, (probe.nanosToNextToken() + 999_999_999L) / 1_000_000_000L);
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = "{\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private record LimitedRoute(RateLimitProperties.Route config, PathPattern pattern, Counter throttled) {
+    }
+}
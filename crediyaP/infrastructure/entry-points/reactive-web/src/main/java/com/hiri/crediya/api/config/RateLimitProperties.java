@@ -0,0 +1,30 @@
+package com.hiri.crediya.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // Máximo de buckets vivos (dirección remota x ruta) antes de expulsar los más antiguos
+    private int maxKeys = 10_000;
+    private int stripes = 16;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String method;
+        private String path;
+        private long capacity = 20;
+        private double refillPerSecond = 10;
+    }
+}
@@ -3,6 +3,8 @@ package com.hiri.crediya.api.config;
 import com.hiri.crediya.usecase.auth.AuthUseCase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
@@ -11,11 +13,25 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
 @Slf4j
 @Component
+// Después de ConcurrencyLimitFilter y RateLimitFilter: la carga que ellos descartan no llega al servicio de auth
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
 @RequiredArgsConstructor
 public class RoleAuthorizationFilter implements WebFilter {
 
+    // Identificador estable del cliente (huella del token) para auditoría
+    public static final String CLIENT_ID_ATTRIBUTE = RoleAuthorizationFilter.class.getName() + ".clientId";
+
+    // Endpoints de actuator administrativos: grabaciones JFR, operación del sharding y scoring de crédito
+    private static final List<String> ADMIN_ACTUATOR_PATHS = List.of("/actuator/jfr", "/actuator/shards", "/actuator/scoring");
+
     private final AuthUseCase authUseCase;
 
     @Override
@@ -35,13 +51,15 @@ public class RoleAuthorizationFilter implements WebFilter {
         String token = extractTokenFromRequest(request);
         if (token == null) {
             log.warn("No token found in request to: {}", path);
+            AuthorizationDecisionEvent.instant(RouteKey.of(request), "any", "no-token");
             return errorResponse(exchange, "No token found in request");
         }
+        exchange.getAttributes().put(CLIENT_ID_ATTRIBUTE, clientIdOf(token));
 
         // Validar según el endpoint
         if (requiresAdminRole(path, method)) {
             log.info("Validating admin role for endpoint: {} {}", method, path);
-            return authUseCase.isAdmin(token)
+            return AuthorizationDecisionEvent.record(RouteKey.of(request), "admin", authUseCase.isAdmin(token))
                     .flatMap(isAuthorized -> {
                         if (isAuthorized) {
                             log.info("Admin role validated successfully for: {} {}", method, path);
@@ -59,7 +77,7 @@ public class RoleAuthorizationFilter implements WebFilter {
 
         if (requiresClientRole(path, method)) {
             log.info("Validating client role for endpoint: {} {}", method, path);
-            return authUseCase.isClient(token)
+            return AuthorizationDecisionEvent.record(RouteKey.of(request), "client", authUseCase.isClient(token))
                     .flatMap(isAuthorized -> {
                         if (isAuthorized) {
                             log.info("Client role validated successfully for: {} {}", method, path);
@@ -81,16 +99,21 @@ public class RoleAuthorizationFilter implements WebFilter {
     }
 
     private boolean isPublicEndpoint(String path) {
-        return path.startsWith("/actuator") ||
+        return (path.startsWith("/actuator") && !isAdminActuatorEndpoint(path)) ||
                 path.startsWith("/swagger") ||
                 path.startsWith("/v3/api-docs") ||
                 path.startsWith("/webjars") ||
                 path.equals("/");
     }
 
+    private boolean isAdminActuatorEndpoint(String path) {
+        return ADMIN_ACTUATOR_PATHS.stream().anyMatch(path::startsWith);
+    }
+
     private boolean requiresAdminRole(String path, String method) {
         // Crear, eliminar y actualizar usuarios requiere ADMIN/ADVISOR
-        return (path.startsWith("/api/v1/usuarios") && "POST".equals(method)) ||
+        return isAdminActuatorEndpoint(path) ||
+                (path.startsWith("/api/v1/usuarios") && "POST".equals(method)) ||
                 (path.startsWith("/api/v1/usuarios") && "DELETE".equals(method)) ||
                 (path.startsWith("/api/v1/usuarios") && "PATCH".equals(method)) ||
                 (path.startsWith("/api/v1/usuarios") && "GET".equals(method)) ||
@@ -110,6 +133,15 @@ public class RoleAuthorizationFilter implements WebFilter {
         return null;
     }
 
+    private static String clientIdOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "token:" + HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     private Mono<Void> errorResponse(ServerWebExchange exchange, String message) {
         exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
         exchange.getResponse().getHeaders().add("Content-Type", "application/json");
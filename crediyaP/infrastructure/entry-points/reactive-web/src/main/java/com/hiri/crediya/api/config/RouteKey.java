@@ -0,0 +1,44 @@
+package com.hiri.crediya.api.config;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Normaliza una petición a una clave de ruta estable ("GET /api/v1/usuarios/{id}")
+ * para que los límites y métricas no crezcan con cada documento o UUID.
+ */
+public final class RouteKey {
+
+    private static final String ID_SEGMENT = "{id}";
+
+    private RouteKey() {
+    }
+
+    public static String of(ServerHttpRequest request) {
+        return request.getMethod().name() + " " + normalize(request.getPath().value());
+    }
+
+    static String normalize(String path) {
+        String[] segments = path.split("/");
+        StringBuilder sb = new StringBuilder(path.length());
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            sb.append('/').append(isIdentifier(segment) ? ID_SEGMENT : segment);
+        }
+        return sb.isEmpty() ? "/" : sb.toString();
+    }
+
+    // Documentos y UUIDs siempre contienen dígitos; las rutas literales (v1 aparte) no
+    private static boolean isIdentifier(String segment) {
+        if (segment.length() <= 2) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (Character.isDigit(segment.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
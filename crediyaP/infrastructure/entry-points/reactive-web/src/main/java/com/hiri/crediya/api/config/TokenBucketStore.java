@@ -0,0 +1,109 @@
+package com.hiri.crediya.api.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets en memoria repartidos en franjas (stripes) independientes.
+ * Cada bucket se actualiza con CAS, sin locks; cada franja tiene un tamaño acotado
+ * y expulsa primero los buckets inactivos y luego el de acceso más antiguo.
+ */
+public class TokenBucketStore {
+
+    private final Map<String, TokenBucket>[] stripes;
+    private final int maxKeysPerStripe;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketStore(int maxKeys, int stripes, long idleTimeoutNanos, LongSupplier nanoClock) {
+        int stripeCount = Math.max(1, stripes);
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public Probe tryConsume(String key, long capacity, double refillPerSecond) {
+        Map<String, TokenBucket> stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                evict(stripe, now);
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new TokenBucket(capacity, now));
+        }
+        return bucket.tryConsume(capacity, refillPerSecond, now);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Map<String, TokenBucket> stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[(h & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    private void evict(Map<String, TokenBucket> stripe, long now) {
+        String oldestKey = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<String, TokenBucket> entry : stripe.entrySet()) {
+            long lastAccess = entry.getValue().lastAccess();
+            if (now - lastAccess > idleTimeoutNanos) {
+                stripe.remove(entry.getKey(), entry.getValue());
+            } else if (lastAccess < oldestAccess) {
+                oldestAccess = lastAccess;
+                oldestKey = entry.getKey();
+            }
+        }
+        if (stripe.size() >= maxKeysPerStripe && oldestKey != null) {
+            stripe.remove(oldestKey);
+        }
+    }
+
+    public record Probe(boolean consumed, long remaining, long nanosToNextToken) {
+    }
+
+    static final class TokenBucket {
+        private final AtomicReference<State> state;
+
+        TokenBucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        Probe tryConsume(long capacity, double refillPerSecond, long now) {
+            while (true) {
+                State current = state.get();
+                double elapsedSeconds = Math.max(0, now - current.refilledAt()) / 1_000_000_000d;
+                double tokens = Math.min(capacity, current.tokens() + elapsedSeconds * refillPerSecond);
+                boolean consumed = tokens >= 1;
+                State next = new State(consumed ? tokens - 1 : tokens, Math.max(now, current.refilledAt()));
+                if (state.compareAndSet(current, next)) {
+                    long wait = consumed || refillPerSecond <= 0
+                            ? 0
+                            : (long) Math.ceil((1 - next.tokens()) / refillPerSecond * 1_000_000_000d);
+                    return new Probe(consumed, (long) next.tokens(), wait);
+                }
+            }
+        }
+
+        long lastAccess() {
+            return state.get().refilledAt();
+        }
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.hiri.crediya.api.dto;
+
+import com.hiri.crediya.model.personimport.ImportReject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Bulk import result")
+public class ImportResponse {
+
+    @Schema(description = "Data rows read from the file")
+    long total;
+
+    @Schema(description = "Rows inserted into persons")
+    long imported;
+
+    @Schema(description = "Rows rejected by validation or duplicate detection")
+    long rejected;
+
+    @Schema(description = "True when more rejects exist than the ones listed")
+    boolean rejectsTruncated;
+
+    @Schema(description = "Rejected rows with line number and reason")
+    List<ImportReject> rejects;
+}
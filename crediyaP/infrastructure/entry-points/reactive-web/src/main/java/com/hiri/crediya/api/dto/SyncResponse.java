@@ -0,0 +1,36 @@
+package com.hiri.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@Schema(description = "Batch of user changes after a sync token")
+public class SyncResponse {
+
+    @Schema(description = "Changes in commit order (transaction, then sequence)")
+    List<Entry> entries;
+
+    @Schema(description = "Opaque token to send as 'since' in the next request", example = "7421.1093")
+    String nextToken;
+
+    @Schema(description = "True when more changes are pending after this batch")
+    boolean hasMore;
+
+    @Value
+    @Builder
+    public static class Entry {
+
+        @Schema(description = "Change sequence")
+        long sequence;
+
+        @Schema(description = "True when the user was deleted")
+        boolean deleted;
+
+        @Schema(description = "User data (only id and document for deletions)")
+        PersonResponse person;
+    }
+}
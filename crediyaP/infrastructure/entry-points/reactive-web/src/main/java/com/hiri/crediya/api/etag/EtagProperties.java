@@ -0,0 +1,17 @@
+package com.hiri.crediya.api.etag;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "etag.cache")
+public class EtagProperties {
+    private boolean enabled = true;
+    // Máximo tiempo que un 304 puede responderse sin consultar la base (cambios hechos en otras instancias)
+    private Duration ttl = Duration.ofSeconds(5);
+    private int maxEntries = 10_000;
+}
@@ -0,0 +1,141 @@
+package com.hiri.crediya.api.etag;
+
+import com.hiri.crediya.model.person.Person;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ETag débil de cada persona (id + versión de la fila) y caché corta por documento, para responder
+ * If-None-Match con 304 sin ir a la base de datos. Es débil porque JSON, CBOR y Smile comparten el
+ * mismo valor: representaciones equivalentes, no idénticas byte a byte.
+ */
+@Component
+public class PersonEtagCache {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    // Entradas por id (las actualizaciones y bajas invalidan por id en O(1)) e índice documento → id
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, UUID> idByDocument = new ConcurrentHashMap<>();
+    private final EtagProperties properties;
+    private final Clock clock;
+
+    public PersonEtagCache(EtagProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    PersonEtagCache(EtagProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public static String etagOf(Person person) {
+        if (person.getId() == null || person.getVersion() == null) {
+            return null;
+        }
+        return WEAK_PREFIX + "\"" + person.getId() + "." + person.getVersion() + "\"";
+    }
+
+    // El ETag lleva el id: un 304 servido desde la caché puede auditarse sin ir a la base
+    public static UUID personIdOf(String etag) {
+        String value = opaque(etag);
+        int dot = value != null ? value.lastIndexOf('.') : -1;
+        if (dot < 2) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.substring(1, dot));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        // If-None-Match usa comparación débil: se ignora el prefijo W/ de ambos lados
+        String expected = opaque(etag);
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String value = opaque(candidate.trim());
+                if (value.equals("*") || value.equals(expected)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag != null && etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+
+    public String get(String document) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        UUID id = idByDocument.get(document);
+        Entry entry = id != null ? byId.get(id) : null;
+        if (entry == null || !entry.document().equals(document)) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            remove(id, entry);
+            return null;
+        }
+        return entry.etag();
+    }
+
+    public void put(Person person) {
+        String etag = etagOf(person);
+        if (!properties.isEnabled() || etag == null || person.getDocument() == null) {
+            return;
+        }
+        if (byId.size() >= properties.getMaxEntries()) {
+            long now = clock.millis();
+            byId.forEach((id, entry) -> {
+                if (entry.expiresAt() <= now) {
+                    remove(id, entry);
+                }
+            });
+            if (byId.size() >= properties.getMaxEntries()) {
+                return;
+            }
+        }
+        Entry previous = byId.put(person.getId(), new Entry(person.getDocument(), etag, clock.millis() + properties.getTtl().toMillis()));
+        // Un cambio de documento deja el índice viejo apuntando a la misma persona: se quita
+        if (previous != null && !previous.document().equals(person.getDocument())) {
+            idByDocument.remove(previous.document(), person.getId());
+        }
+        idByDocument.put(person.getDocument(), person.getId());
+    }
+
+    public void evict(String document) {
+        UUID id = document != null ? idByDocument.remove(document) : null;
+        if (id != null) {
+            byId.remove(id);
+        }
+    }
+
+    public void evict(UUID id) {
+        Entry entry = byId.remove(id);
+        if (entry != null) {
+            idByDocument.remove(entry.document(), id);
+        }
+    }
+
+    private void remove(UUID id, Entry entry) {
+        if (byId.remove(id, entry)) {
+            idByDocument.remove(entry.document(), id);
+        }
+    }
+
+    private record Entry(String document, String etag, long expiresAt) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.hiri.crediya.api.export;
+
+import com.hiri.crediya.model.person.Person;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialización CSV (RFC 4180) de la exportación de personas, por bloques de filas
+ * para no hacer una escritura al socket por cada persona.
+ */
+public final class PersonCsvExport {
+
+    public static final String HEADER =
+            "id,names,lastnames,document,birthdate,address,phone,email,base_salary,role\r\n";
+
+    private PersonCsvExport() {
+    }
+
+    public static Flux<byte[]> csv(Flux<Person> persons, int rowsPerChunk) {
+        return Flux.concat(Mono.just(HEADER), persons.map(PersonCsvExport::row))
+                .buffer(rowsPerChunk)
+                .map(lines -> String.join("", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String row(Person p) {
+        return String.join(",",
+                field(p.getId()), field(p.getNames()), field(p.getLastnames()), field(p.getDocument()),
+                field(p.getBirthdate()), field(p.getAddress()), field(p.getPhone()), field(p.getEmail()),
+                field(p.getBaseSalary() != null ? p.getBaseSalary().toPlainString() : null), field(p.getRole())) + "\r\n";
+    }
+
+    // Cada bloque se comprime con sync flush para que el cliente reciba datos sin esperar al final
+    public static Flux<byte[]> gzip(Flux<byte[]> chunks) {
+        return Flux.using(GzipState::new,
+                state -> chunks.map(state::write)
+                        .concatWith(Mono.fromCallable(state::finish))
+                        .filter(bytes -> bytes.length > 0),
+                GzipState::close);
+    }
+
+    private static String field(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    private static final class GzipState {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final GZIPOutputStream gzip;
+
+        GzipState() throws IOException {
+            this.gzip = new GZIPOutputStream(out, 8192, true);
+        }
+
+        byte[] write(byte[] chunk) {
+            try {
+                gzip.write(chunk);
+                gzip.flush();
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] finish() throws IOException {
+            gzip.finish();
+            return drain();
+        }
+
+        private byte[] drain() {
+            byte[] bytes = out.toByteArray();
+            out.reset();
+            return bytes;
+        }
+
+        // Libera el Deflater nativo también cuando el cliente cancela a mitad de la descarga
+        void close() {
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hiri.crediya.api.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    // memory (por instancia) o postgres (compartido entre instancias)
+    private String store = "memory";
+    private Duration ttl = Duration.ofHours(24);
+    // Vigencia de la reserva de una ejecución en curso: si la instancia cae, pasado este tiempo otra puede ejecutar
+    private Duration pendingTimeout = Duration.ofMinutes(1);
+    // Solo store=memory; debe ser positivo
+    private int maxEntries = 10_000;
+}
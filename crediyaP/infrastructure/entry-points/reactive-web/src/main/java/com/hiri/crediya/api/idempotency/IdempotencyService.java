@@ -0,0 +1,119 @@
+package com.hiri.crediya.api.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
+import com.hiri.crediya.model.idempotency.gateways.IdempotencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una operación una sola vez por Idempotency-Key: los reintentos reciben la respuesta guardada
+ * y las peticiones concurrentes con la misma llave se unen a la ejecución en curso. Entre instancias la llave
+ * se reserva en el almacén antes de ejecutar; la que no la consigue responde 409 mientras siga pendiente.
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    private final IdempotencyRepository repository;
+    private final ObjectMapper mapper;
+    private final IdempotencyProperties properties;
+    private final Map<String, Mono<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRepository repository, ObjectMapper mapper, IdempotencyProperties properties) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.properties = properties;
+    }
+
+    public Mono<IdempotentResponse> execute(String key, Object request, Supplier<Mono<IdempotentResponse>> action) {
+        return Mono.defer(() -> {
+            String fingerprint = fingerprint(request);
+            return inFlight.computeIfAbsent(key, k -> firstExecution(k, fingerprint, action))
+                    .flatMap(response -> verify(key, response, fingerprint));
+        });
+    }
+
+    public IdempotentResponse toResponse(HttpStatus status, String location, Object body) {
+        try {
+            return IdempotentResponse.builder()
+                    .status(status.value())
+                    .location(location)
+                    .body(mapper.writeValueAsString(body))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize idempotent response", e);
+        }
+    }
+
+    private Mono<IdempotentResponse> firstExecution(String key, String fingerprint, Supplier<Mono<IdempotentResponse>> action) {
+        // Solo quita su propia ejecución: una posterior con la misma llave pudo reemplazarla en el mapa
+        AtomicReference<Mono<IdempotentResponse>> self = new AtomicReference<>();
+        Mono<IdempotentResponse> execution = repository.reserve(key, fingerprint, properties.getPendingTimeout())
+                .flatMap(reserved -> reserved ? run(key, fingerprint, action) : stored(key))
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(execution);
+        return execution;
+    }
+
+    private Mono<IdempotentResponse> run(String key, String fingerprint, Supplier<Mono<IdempotentResponse>> action) {
+        return Mono.defer(action)
+                // Sin respuesta guardada un reintento debe poder ejecutar de nuevo
+                .onErrorResume(error -> repository.release(key)
+                        .onErrorResume(releaseError -> Mono.empty())
+                        .then(Mono.error(error)))
+                .map(response -> response.toBuilder().fingerprint(fingerprint).pending(false).build())
+                .flatMap(response -> repository.save(key, response, properties.getTtl()).thenReturn(response));
+    }
+
+    private Mono<IdempotentResponse> stored(String key) {
+        return repository.find(key)
+                .doOnNext(stored -> {
+                    if (!stored.isPending()) {
+                        log.info("Replaying stored response for idempotency key {}", key);
+                    }
+                })
+                // La reserva se liberó entre ambas lecturas: el cliente puede reintentar
+                .switchIfEmpty(Mono.error(() -> inProgress()));
+    }
+
+    private Mono<IdempotentResponse> verify(String key, IdempotentResponse response, String fingerprint) {
+        if (!fingerprint.equals(response.getFingerprint())) {
+            log.warn("Idempotency key {} reused with a different payload", key);
+            return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key already used with a different request payload"));
+        }
+        if (response.isPending()) {
+            log.info("Idempotency key {} is still being processed by another instance", key);
+            return Mono.error(inProgress());
+        }
+        return Mono.just(response);
+    }
+
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint request", e);
+        }
+    }
+}
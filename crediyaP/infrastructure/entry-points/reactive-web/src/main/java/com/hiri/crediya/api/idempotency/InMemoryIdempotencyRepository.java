@@ -0,0 +1,100 @@
+package com.hiri.crediya.api.idempotency;
+
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
+import com.hiri.crediya.model.idempotency.gateways.IdempotencyRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Almacén de respuestas idempotentes por instancia, con TTL y tamaño máximo.
+ * Al llenarse expulsa primero las vencidas y luego la más próxima a vencer.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyRepository implements IdempotencyRepository {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+
+    public InMemoryIdempotencyRepository(IdempotencyProperties properties) {
+        this(properties.getMaxEntries(), Clock.systemUTC());
+    }
+
+    InMemoryIdempotencyRepository(int maxEntries, Clock clock) {
+        // Con 0 o menos la expulsión nunca dejaría lugar y save quedaría girando
+        if (maxEntries <= 0) {
+            throw new IllegalStateException("idempotency.max-entries must be positive, got " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Boolean> reserve(String key, String fingerprint, Duration lease) {
+        return Mono.fromSupplier(() -> {
+            long now = clock.millis();
+            if (entries.size() >= maxEntries) {
+                evict();
+            }
+            Entry pending = new Entry(IdempotentResponse.builder().fingerprint(fingerprint).pending(true).build(),
+                    now + lease.toMillis());
+            return entries.compute(key, (k, current) -> current == null || current.expiresAt() <= now ? pending : current)
+                    == pending;
+        });
+    }
+
+    @Override
+    public Mono<IdempotentResponse> find(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= clock.millis()) {
+                entries.remove(key, entry);
+                return null;
+            }
+            return entry.response();
+        });
+    }
+
+    @Override
+    public Mono<Void> save(String key, IdempotentResponse response, Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            if (entries.size() >= maxEntries) {
+                evict();
+            }
+            Entry completed = new Entry(response, clock.millis() + ttl.toMillis());
+            entries.compute(key, (k, current) -> current == null || current.response().isPending() ? completed : current);
+        });
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> entries.computeIfPresent(key, (k, current) -> current.response().isPending() ? null : current));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        while (entries.size() >= maxEntries) {
+            entries.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().expiresAt(), b.getValue().expiresAt()))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+
+    private record Entry(IdempotentResponse response, long expiresAt) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.hiri.crediya.api.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiri.crediya.api.config.RoleAuthorizationFilter;
+import com.hiri.crediya.api.dto.ImportResponse;
+import com.hiri.crediya.model.personimport.ImportReport;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import com.hiri.crediya.usecase.personimport.PersonImportUseCase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_IMPLEMENTED;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Tag(name = "Persons")
+public class PersonImportHandler {
+
+    private final PersonImportUseCase importUseCase;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Bulk import users",
+            description = "Streams a CSV (with header) or NDJSON body, validates every row and loads the valid ones in bulk",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            requestBody = @RequestBody(
+                    description = "CSV columns: names,lastnames,document,password,birthdate,address,phone,email,base_salary",
+                    required = true,
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import finished",
+                            content = @Content(schema = @Schema(implementation = ImportResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Missing CSV columns"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "501", description = "Not available while users are sharded")
+            }
+    )
+    public Mono<ServerResponse> importPersons(ServerRequest req) {
+        boolean ndjson = req.headers().contentType()
+                .map(MediaType.APPLICATION_NDJSON::isCompatibleWith)
+                .orElse(false);
+        // El cuerpo llega por líneas; solo hay en memoria las filas en vuelo hacia el COPY
+        Flux<String> lines = req.bodyToFlux(String.class);
+        Flux<PersonImportRow> rows = ndjson ? PersonImportParser.ndjson(lines, objectMapper) : PersonImportParser.csv(lines);
+        long start = System.nanoTime();
+        return importUseCase.importPersons(rows, clientOf(req))
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(BAD_REQUEST, e.getMessage()))
+                .onErrorMap(PersonImportRow.ImportUnavailableException.class, e -> new ResponseStatusException(NOT_IMPLEMENTED, e.getMessage()))
+                .doOnNext(report -> log.info("Person import finished total={} imported={} rejected={} in {} ms",
+                        report.getTotal(), report.getImported(), report.getRejected(), (System.nanoTime() - start) / 1_000_000))
+                .flatMap(report -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(toResponse(report)));
+    }
+
+    private String clientOf(ServerRequest req) {
+        return req.attribute(RoleAuthorizationFilter.CLIENT_ID_ATTRIBUTE)
+                .map(Object::toString)
+                .orElse("anonymous");
+    }
+
+    private ImportResponse toResponse(ImportReport report) {
+        return ImportResponse.builder()
+                .total(report.getTotal())
+                .imported(report.getImported())
+                .rejected(report.getRejected())
+                .rejectsTruncated(report.isRejectsTruncated())
+                .rejects(report.getRejects())
+                .build();
+    }
+}
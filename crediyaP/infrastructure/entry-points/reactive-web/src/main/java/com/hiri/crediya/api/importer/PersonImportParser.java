@@ -0,0 +1,159 @@
+package com.hiri.crediya.api.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hiri.crediya.api.dto.PersonRequest;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.personimport.PersonImportRow;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Convierte el archivo subido, línea a línea, en filas de importación. Una línea mal formada
+ * se convierte en una fila rechazada en lugar de abortar la carga completa.
+ */
+public final class PersonImportParser {
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "names", "lastnames", "document", "password", "birthdate", "address", "phone", "email", "base_salary");
+    // Mismo rol por defecto que el alta individual (cliente)
+    private static final BigInteger DEFAULT_ROLE = BigInteger.valueOf(3);
+
+    private PersonImportParser() {
+    }
+
+    /** CSV con cabecera; las columnas se ubican por nombre, no por posición. */
+    public static Flux<PersonImportRow> csv(Flux<String> lines) {
+        return lines.index().switchOnFirst((first, all) -> {
+            if (!first.hasValue()) {
+                return all.thenMany(Flux.empty());
+            }
+            Map<String, Integer> header = header(first.get().getT2());
+            List<String> missing = CSV_COLUMNS.stream().filter(column -> !header.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                return Flux.error(new IllegalArgumentException("Missing CSV columns: " + missing));
+            }
+            return all.skip(1)
+                    .filter(line -> !line.getT2().isBlank())
+                    .map(line -> csvRow(line.getT1() + 1, line.getT2(), header));
+        });
+    }
+
+    public static Flux<PersonImportRow> ndjson(Flux<String> lines, ObjectMapper mapper) {
+        return lines.index()
+                .filter(line -> !line.getT2().isBlank())
+                .map(line -> {
+                    long lineNumber = line.getT1() + 1;
+                    try {
+                        return valid(lineNumber, toDomain(mapper.readValue(line.getT2(), PersonRequest.class)));
+                    } catch (JsonProcessingException e) {
+                        return rejected(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                    }
+                });
+    }
+
+    private static Map<String, Integer> header(String line) {
+        List<String> names = split(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    private static PersonImportRow csvRow(long lineNumber, String line, Map<String, Integer> header) {
+        List<String> fields = split(line);
+        if (fields.size() != header.size()) {
+            return rejected(lineNumber, "Expected " + header.size() + " columns but found " + fields.size());
+        }
+        try {
+            return valid(lineNumber, Person.builder()
+                    .names(field(fields, header, "names"))
+                    .lastnames(field(fields, header, "lastnames"))
+                    .document(field(fields, header, "document"))
+                    .password(field(fields, header, "password"))
+                    .birthdate(parse(field(fields, header, "birthdate"), LocalDate::parse))
+                    .address(field(fields, header, "address"))
+                    .phone(field(fields, header, "phone"))
+                    .email(field(fields, header, "email"))
+                    .baseSalary(parse(field(fields, header, "base_salary"), BigDecimal::new))
+                    .role(DEFAULT_ROLE)
+                    .build());
+        } catch (DateTimeParseException e) {
+            return rejected(lineNumber, "Invalid birthdate, expected yyyy-MM-dd");
+        } catch (NumberFormatException e) {
+            return rejected(lineNumber, "Invalid base_salary");
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String column) {
+        String value = fields.get(header.get(column));
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value.trim());
+    }
+
+    // RFC 4180 dentro de una línea: comillas dobles para campos con comas y "" como comilla escapada
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else if (c != '\r') {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static Person toDomain(PersonRequest r) {
+        return Person.builder()
+                .names(r.getNames())
+                .lastnames(r.getLastnames())
+                .password(r.getPassword())
+                .document(r.getDocument())
+                .birthdate(r.getBirthdate())
+                .address(r.getAddress())
+                .phone(r.getPhone())
+                .email(r.getEmail())
+                .baseSalary(r.getBaseSalary())
+                .role(DEFAULT_ROLE)
+                .build();
+    }
+
+    private static PersonImportRow valid(long lineNumber, Person person) {
+        return PersonImportRow.builder().lineNumber(lineNumber).person(person).build();
+    }
+
+    private static PersonImportRow rejected(long lineNumber, String error) {
+        return PersonImportRow.builder().lineNumber(lineNumber).error(error).build();
+    }
+}
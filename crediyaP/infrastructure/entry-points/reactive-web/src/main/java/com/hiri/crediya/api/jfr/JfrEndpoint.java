@@ -0,0 +1,139 @@
+package com.hiri.crediya.api.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Endpoint de actuator (/actuator/jfr, solo ADMIN) para iniciar, listar, volcar y detener grabaciones de
+ * Java Flight Recorder. Las grabaciones incluyen los eventos de la categoría "Crediya".
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    static final String ALWAYS_ON_NAME = "crediya-always-on";
+    // El nombre de la grabación lo elige quien la inicia: en el archivo solo quedan caracteres seguros
+    private static final Pattern UNSAFE_FILE_CHARS = Pattern.compile("[^A-Za-z0-9_-]");
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private final JfrProperties properties;
+
+    public JfrEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startAlwaysOn() {
+        if (properties.isAlwaysOn()) {
+            start(ALWAYS_ON_NAME, null);
+        }
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream().map(this::describe).toList();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String name, @Nullable Long maxAgeMinutes) {
+        Recording recording = new Recording(settings());
+        recording.setName(name != null ? name : "crediya-" + Instant.now().toEpochMilli());
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAgeMinutes != null ? Duration.ofMinutes(maxAgeMinutes) : properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSizeBytes());
+        recording.start();
+        log.info("JFR recording {} started ({})", recording.getName(), properties.getSettings());
+        return describe(recording);
+    }
+
+    @WriteOperation
+    public Map<String, Object> dump(@Selector long id) {
+        Recording recording = find(id);
+        Path directory = Path.of(properties.getDumpDirectory()).toAbsolutePath().normalize();
+        Path target = directory.resolve(fileName(recording)).normalize();
+        if (!target.startsWith(directory)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Invalid dump file for recording " + id);
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            recording.dump(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump JFR recording " + id, e);
+        }
+        log.info("JFR recording {} dumped to {}", recording.getName(), target);
+        Map<String, Object> result = describe(recording);
+        result.put("file", target.toString());
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop(@Selector long id) {
+        Recording recording = find(id);
+        Map<String, Object> result = describe(recording);
+        recording.close();
+        log.info("JFR recording {} stopped", recording.getName());
+        return result;
+    }
+
+    private static String fileName(Recording recording) {
+        String name = UNSAFE_FILE_CHARS.matcher(recording.getName()).replaceAll("_");
+        if (name.length() > MAX_NAME_LENGTH) {
+            name = name.substring(0, MAX_NAME_LENGTH);
+        }
+        return "recording-" + recording.getId() + "-" + name + "-" + Instant.now().toEpochMilli() + ".jfr";
+    }
+
+    private Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Recording not found: " + id));
+    }
+
+    private Configuration settings() {
+        try {
+            return Configuration.getConfiguration(properties.getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings: " + properties.getSettings(), e);
+        }
+    }
+
+    private Map<String, Object> describe(Recording recording) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", recording.getId());
+        result.put("name", recording.getName());
+        result.put("state", recording.getState().name());
+        result.put("startTime", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+        result.put("maxAge", recording.getMaxAge() != null ? recording.getMaxAge().toString() : null);
+        result.put("size", recording.getSize());
+        return result;
+    }
+}
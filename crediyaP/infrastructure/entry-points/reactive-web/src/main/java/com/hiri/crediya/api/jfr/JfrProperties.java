@@ -0,0 +1,20 @@
+package com.hiri.crediya.api.jfr;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jfr")
+public class JfrProperties {
+    // Configuración de JFR: "default" (~1% de overhead, apta para producción) o "profile" (más detalle)
+    private String settings = "default";
+    private String dumpDirectory = System.getProperty("java.io.tmpdir");
+    private Duration maxAge = Duration.ofMinutes(30);
+    private long maxSizeBytes = 100L * 1024 * 1024;
+    // Grabación continua en buffer circular desde el arranque; se vuelca a demanda con el endpoint
+    private boolean alwaysOn = false;
+}
@@ -1,7 +1,17 @@
 package com.hiri.crediya.api;
 
 import com.hiri.crediya.api.dto.PersonRequest;
+import com.hiri.crediya.api.dto.PersonResponse;
+import com.hiri.crediya.api.dto.SyncResponse;
+import com.hiri.crediya.api.etag.PersonEtagCache;
+import com.hiri.crediya.api.config.RoleAuthorizationFilter;
+import com.hiri.crediya.api.idempotency.IdempotencyService;
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
 import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.model.person.PersonSyncEntry;
+import com.hiri.crediya.model.person.PersonSyncToken;
 import com.hiri.crediya.usecase.personregistry.PersonUseCase;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
@@ -10,7 +20,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.EntityResponse;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ResponseStatusException;
@@ -21,11 +34,20 @@ import reactor.test.StepVerifier;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -39,6 +61,14 @@ class PersonHandlerTest {
     private PersonUseCase personUseCase;
     @Mock
     private Validator validator;
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private PersonEtagCache etagCache;
+    @Mock
+    private AuditTrail auditTrail;
+    @Mock
+    private ServerRequest.Headers headers;
 
     private PersonHandler personHandler;
     private PersonRequest validPersonRequest;
@@ -46,7 +76,8 @@ class PersonHandlerTest {
 
     @BeforeEach
     void setUp() {
-        personHandler = new PersonHandler(personUseCase, validator);
+        personHandler = new PersonHandler(personUseCase, validator, idempotencyService, etagCache, auditTrail);
+        lenient().when(auditTrail.record(any())).thenReturn(Mono.empty());
         
         validPerson = Person.builder()
                 .id(UUID.randomUUID())
@@ -77,6 +108,7 @@ class PersonHandlerTest {
     void shouldCreatePersonSuccessfully() {
         // Given
         ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.headers()).thenReturn(headers);
         when(serverRequest.bodyToMono(PersonRequest.class)).thenReturn(Mono.just(validPersonRequest));
         when(validator.validate(any(PersonRequest.class))).thenReturn(Collections.emptySet());
         when(personUseCase.execute(any(Person.class))).thenReturn(Mono.just(validPerson));
@@ -86,7 +118,8 @@ class PersonHandlerTest {
 
         // Then
         StepVerifier.create(responseMono)
-                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.CREATED))
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.CREATED)
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
                 .verifyComplete();
     }
 
@@ -94,6 +127,7 @@ class PersonHandlerTest {
     void shouldReturnBadRequestWhenValidationFails() {
         // Given
         ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.headers()).thenReturn(headers);
         PersonRequest invalidPersonRequest = new PersonRequest();
         @SuppressWarnings("unchecked")
         ConstraintViolation<PersonRequest> violation = mock(ConstraintViolation.class);
@@ -117,6 +151,7 @@ class PersonHandlerTest {
         // Given
         ServerRequest serverRequest = mock(ServerRequest.class);
         when(serverRequest.pathVariable("document")).thenReturn("12345678");
+        when(serverRequest.headers()).thenReturn(headers);
         when(personUseCase.findByDocument("12345678")).thenReturn(Mono.just(validPerson));
 
         // When
@@ -124,10 +159,46 @@ class PersonHandlerTest {
 
         // Then
         StepVerifier.create(responseMono)
-                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK))
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK)
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
                 .verifyComplete();
     }
 
+    @Test
+    void shouldAuditViewWithClientId() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.pathVariable("document")).thenReturn("12345678");
+        when(serverRequest.headers()).thenReturn(headers);
+        when(serverRequest.attribute(RoleAuthorizationFilter.CLIENT_ID_ATTRIBUTE)).thenReturn(Optional.of("token:abc"));
+        when(personUseCase.findByDocument("12345678")).thenReturn(Mono.just(validPerson));
+
+        // When
+        StepVerifier.create(personHandler.getPerson(serverRequest))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        verify(auditTrail).record(argThat(event -> event.getAction() == AuditAction.VIEW
+                && "token:abc".equals(event.getActor())
+                && validPerson.getId().equals(event.getPersonId())));
+    }
+
+    @Test
+    void shouldNotAuditWhenPersonNotFound() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.pathVariable("document")).thenReturn("00000000");
+        when(serverRequest.headers()).thenReturn(headers);
+        when(personUseCase.findByDocument("00000000")).thenReturn(Mono.empty());
+
+        // When
+        StepVerifier.create(personHandler.getPerson(serverRequest)).verifyComplete();
+
+        // Then
+        verify(auditTrail, never()).record(any());
+    }
+
     @Test
     void shouldGetAllPersonsSuccessfully() {
         // Given
@@ -143,7 +214,8 @@ class PersonHandlerTest {
 
         // Then
         StepVerifier.create(responseMono)
-                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK))
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK)
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
                 .verifyComplete();
     }
 
@@ -160,7 +232,8 @@ class PersonHandlerTest {
 
         // Then
         StepVerifier.create(responseMono)
-                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK))
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK)
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
                 .verifyComplete();
     }
 
@@ -178,6 +251,7 @@ class PersonHandlerTest {
         updateRequest.setBaseSalary(new BigDecimal("6000000"));
         updateRequest.setRole("3");
         
+        when(serverRequest.headers()).thenReturn(headers);
         when(serverRequest.bodyToMono(PersonRequest.class)).thenReturn(Mono.just(updateRequest));
         when(validator.validate(any(PersonRequest.class))).thenReturn(Collections.emptySet());
         when(personUseCase.update(any(Person.class))).thenReturn(Mono.just(validPerson.toBuilder().names("Updated Name").build()));
@@ -187,7 +261,156 @@ class PersonHandlerTest {
 
         // Then
         StepVerifier.create(responseMono)
-                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.ACCEPTED))
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.ACCEPTED)
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStorePublicResponseForIdempotentUpdate() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.firstHeader(PersonHandler.IDEMPOTENCY_KEY)).thenReturn("retry-456");
+        when(serverRequest.method()).thenReturn(HttpMethod.PATCH);
+        validPersonRequest.setId(validPerson.getId());
+        validPersonRequest.setRole("3");
+        when(serverRequest.bodyToMono(PersonRequest.class)).thenReturn(Mono.just(validPersonRequest));
+        when(validator.validate(any(PersonRequest.class))).thenReturn(Collections.emptySet());
+        when(personUseCase.update(any(Person.class))).thenReturn(Mono.just(validPerson));
+        when(idempotencyService.execute(eq("anonymous|PATCH|retry-456"), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<IdempotentResponse>>>getArgument(2).get());
+        when(idempotencyService.toResponse(eq(HttpStatus.ACCEPTED), isNull(), any()))
+                .thenReturn(IdempotentResponse.builder().status(202).body("{}").build());
+
+        // When
+        StepVerifier.create(personHandler.update(serverRequest))
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.ACCEPTED)
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
+                .verifyComplete();
+
+        // Then - nunca se guarda la persona del dominio, que trae el hash de la contraseña
+        verify(idempotencyService).toResponse(eq(HttpStatus.ACCEPTED), isNull(), argThat(body -> body instanceof PersonResponse));
+    }
+
+    @Test
+    void shouldReplayStoredResponseWhenIdempotencyKeyIsRepeated() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.firstHeader(PersonHandler.IDEMPOTENCY_KEY)).thenReturn("retry-123");
+        when(serverRequest.method()).thenReturn(HttpMethod.POST);
+        when(serverRequest.bodyToMono(PersonRequest.class)).thenReturn(Mono.just(validPersonRequest));
+        when(validator.validate(any(PersonRequest.class))).thenReturn(Collections.emptySet());
+        when(idempotencyService.execute(eq("anonymous|POST|retry-123"), any(), any()))
+                .thenReturn(Mono.just(IdempotentResponse.builder()
+                        .status(201)
+                        .location("/api/v1/usuarios/" + validPerson.getId())
+                        .body("{\"id\":\"" + validPerson.getId() + "\"}")
+                        .build()));
+
+        // When
+        Mono<ServerResponse> responseMono = personHandler.create(serverRequest);
+
+        // Then
+        StepVerifier.create(responseMono)
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.CREATED)
+                        && serverResponse.headers().getLocation() != null)
                 .verifyComplete();
+        verify(personUseCase, never()).execute(any(Person.class));
+    }
+
+    @Test
+    void shouldReturnNotModifiedFromCachedEtagWithoutQueryingDatabase() {
+        // Given
+        String etag = "W/\"" + validPerson.getId() + ".4\"";
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.pathVariable("document")).thenReturn("12345678");
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.header(HttpHeaders.IF_NONE_MATCH)).thenReturn(List.of(etag));
+        when(etagCache.get("12345678")).thenReturn(etag);
+
+        // When
+        Mono<ServerResponse> responseMono = personHandler.getPerson(serverRequest);
+
+        // Then
+        StepVerifier.create(responseMono)
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.NOT_MODIFIED)
+                        && etag.equals(serverResponse.headers().getETag())
+                        && serverResponse.headers().getVary().contains(HttpHeaders.ACCEPT))
+                .verifyComplete();
+        verify(personUseCase, never()).findByDocument(any());
+        verify(auditTrail).record(argThat(event -> event.getAction() == AuditAction.VIEW
+                && validPerson.getId().equals(event.getPersonId())));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenVersionIsUnchanged() {
+        // Given
+        Person versioned = validPerson.toBuilder().version(7L).build();
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.pathVariable("document")).thenReturn("12345678");
+        when(serverRequest.headers()).thenReturn(headers);
+        when(headers.header(HttpHeaders.IF_NONE_MATCH)).thenReturn(List.of(PersonEtagCache.etagOf(versioned)));
+        when(personUseCase.findByDocument("12345678")).thenReturn(Mono.just(versioned));
+
+        // When
+        Mono<ServerResponse> responseMono = personHandler.getPerson(serverRequest);
+
+        // Then
+        StepVerifier.create(responseMono)
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.NOT_MODIFIED))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnChangesAfterSequenceWithNextToken() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.queryParam("since")).thenReturn(Optional.of("700.10"));
+        when(serverRequest.queryParam("limit")).thenReturn(Optional.of("2"));
+        PersonSyncEntry updated = PersonSyncEntry.builder().transaction(700).sequence(11).person(validPerson).build();
+        PersonSyncEntry deleted = PersonSyncEntry.builder().transaction(702).sequence(9).deleted(true)
+                .person(Person.builder().id(UUID.randomUUID()).document("999").build()).build();
+        when(personUseCase.changesSince(new PersonSyncToken(700L, 10L), 2)).thenReturn(Flux.just(updated, deleted));
+
+        // When
+        Mono<ServerResponse> responseMono = personHandler.sync(serverRequest);
+
+        // Then - el token sigue a la última entrada aunque su secuencia sea menor
+        StepVerifier.create(responseMono)
+                .expectNextMatches(serverResponse -> serverResponse.statusCode().equals(HttpStatus.OK)
+                        && serverResponse instanceof EntityResponse<?> entity
+                        && entity.entity() instanceof SyncResponse body
+                        && "702.9".equals(body.getNextToken()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldAnswerNotImplementedWhenSyncIsUnavailable() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.queryParam("since")).thenReturn(Optional.of("0"));
+        when(serverRequest.queryParam("limit")).thenReturn(Optional.empty());
+        when(personUseCase.changesSince(PersonSyncToken.START, 500)).thenReturn(Flux.error(
+                new PersonSyncEntry.SyncUnavailableException("Incremental sync is not available with sharded persons")));
+
+        // When & Then
+        StepVerifier.create(personHandler.sync(serverRequest))
+                .expectErrorMatches(error -> error instanceof ResponseStatusException e
+                        && e.getStatusCode().equals(HttpStatus.NOT_IMPLEMENTED))
+                .verify();
+    }
+
+    @Test
+    void shouldRejectNonNumericSyncToken() {
+        // Given
+        ServerRequest serverRequest = mock(ServerRequest.class);
+        when(serverRequest.queryParam("since")).thenReturn(Optional.of("abc"));
+
+        // When & Then
+        StepVerifier.create(personHandler.sync(serverRequest))
+                .expectError(ResponseStatusException.class)
+                .verify();
     }
 }
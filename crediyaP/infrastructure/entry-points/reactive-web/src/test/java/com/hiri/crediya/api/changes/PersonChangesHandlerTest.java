@@ -0,0 +1,96 @@
+package com.hiri.crediya.api.changes;
+
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.person.PersonChange;
+import com.hiri.crediya.usecase.personchanges.PersonChangesUseCase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for PersonChangesHandler.
+ * Uses a multicast sink in place of the Postgres LISTEN connection.
+ */
+class PersonChangesHandlerTest {
+
+    private Sinks.Many<PersonChange> feed;
+    private SimpleMeterRegistry registry;
+    private List<AuditEvent> audited;
+    private PersonChangesHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        feed = Sinks.many().multicast().directBestEffort();
+        registry = new SimpleMeterRegistry();
+        PersonChangesProperties properties = new PersonChangesProperties();
+        properties.setSubscriberBuffer(2);
+        properties.setHeartbeat(Duration.ofHours(1));
+        audited = new ArrayList<>();
+        handler = new PersonChangesHandler(new PersonChangesUseCase(feed::asFlux), properties,
+                event -> Mono.fromRunnable(() -> audited.add(event)), registry);
+    }
+
+    private PersonChange change(long version) {
+        return PersonChange.builder()
+                .type(PersonChange.Type.UPDATED)
+                .id(UUID.randomUUID())
+                .version(version)
+                .at(Instant.now())
+                .build();
+    }
+
+    @Test
+    void shouldDropOldestChangesForSlowSubscriber() {
+        // When - el suscriptor no pide nada mientras llegan más cambios de los que caben en su buffer
+        StepVerifier.create(handler.events(), 0)
+                .then(() -> {
+                    for (long version = 1; version <= 40; version++) {
+                        feed.tryEmitNext(change(version));
+                    }
+                })
+                .thenRequest(1)
+                .expectNextMatches(event -> "UPDATED".equals(event.event()))
+                .thenCancel()
+                .verify();
+
+        // Then
+        assertThat(registry.get("person.changes.dropped").counter().count()).isPositive();
+        assertThat(registry.get("person.changes.lag").timer().count()).isPositive();
+        assertThat(registry.get("person.changes.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldAuditEverySubscription() {
+        // When & Then
+        StepVerifier.create(handler.changes(mock(ServerRequest.class)))
+                .expectNextMatches(response -> response.statusCode().equals(HttpStatus.OK))
+                .verifyComplete();
+        assertThat(audited).singleElement()
+                .matches(event -> event.getAction() == AuditAction.LIST && "anonymous".equals(event.getActor()));
+    }
+
+    @Test
+    void shouldDeliverChangesToEverySubscriber() {
+        // When & Then
+        StepVerifier.create(Mono.zip(handler.events().next(), handler.events().next()))
+                .then(() -> feed.tryEmitNext(change(1)))
+                .expectNextMatches(pair -> pair.getT1().data().getVersion() == 1
+                        && pair.getT2().data().getVersion() == 1)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,112 @@
+package com.hiri.crediya.api.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.hiri.crediya.api.dto.PersonResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BinaryCodecsConfig.
+ * Uses WebTestClient bound to a stub route for negotiation, plus a small size/time comparison against JSON.
+ */
+@Slf4j
+class BinaryCodecsConfigTest {
+
+    private static final int PERSONS = 1000;
+    private static final int ROUNDS = 50;
+
+    private final CodecCustomizer customizer = new BinaryCodecsConfig().binaryCodecsCustomizer(snakeCaseBuilder());
+
+    @Test
+    void shouldNegotiateCborAndKeepJsonAsDefault() {
+        // Given
+        PersonResponse person = person(1);
+        WebTestClient client = WebTestClient
+                .bindToRouterFunction(RouterFunctions.route()
+                        .GET("/person", req -> ServerResponse.ok().bodyValue(person))
+                        .build())
+                .handlerStrategies(HandlerStrategies.builder().codecs(customizer::customize).build())
+                .configureClient()
+                .codecs(customizer::customize)
+                .build();
+
+        // When & Then
+        client.get().uri("/person").accept(MediaType.APPLICATION_CBOR).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(JsonNode.class)
+                .value(node -> assertThat(node.get("lastnames").asText()).isEqualTo(person.getLastnames()));
+        client.get().uri("/person").exchange()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.document").isEqualTo(person.getDocument());
+    }
+
+    @Test
+    void binaryFormatsShouldBeSmallerThanJson() throws Exception {
+        // Given
+        List<PersonResponse> persons = IntStream.range(0, PERSONS).mapToObj(this::person).toList();
+        ObjectMapper json = snakeCaseBuilder().build();
+        ObjectMapper cbor = BinaryCodecsConfig.mapperFor(snakeCaseBuilder(), new CBORFactory());
+        ObjectMapper smile = BinaryCodecsConfig.mapperFor(snakeCaseBuilder(), new SmileFactory());
+
+        // When
+        byte[] jsonBytes = measure("json", json, persons);
+        byte[] cborBytes = measure("cbor", cbor, persons);
+        byte[] smileBytes = measure("smile", smile, persons);
+
+        // Then - mismo contenido, menos bytes
+        assertThat(cbor.readTree(cborBytes)).isEqualTo(json.readTree(jsonBytes));
+        assertThat(smile.readTree(smileBytes)).isEqualTo(json.readTree(jsonBytes));
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        assertThat(smileBytes.length).isLessThan(jsonBytes.length);
+    }
+
+    // Los tiempos solo se registran: varían demasiado entre máquinas para usarlos como aserción
+    private byte[] measure(String format, ObjectMapper mapper, List<PersonResponse> persons) throws Exception {
+        byte[] bytes = mapper.writeValueAsBytes(persons);
+        long encode = 0;
+        long decode = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            mapper.writeValueAsBytes(persons);
+            encode += System.nanoTime() - start;
+            start = System.nanoTime();
+            mapper.readTree(bytes);
+            decode += System.nanoTime() - start;
+        }
+        log.info("{}: {} bytes, encode {} us, decode {} us", format, bytes.length,
+                encode / ROUNDS / 1000, decode / ROUNDS / 1000);
+        return bytes;
+    }
+
+    private static Jackson2ObjectMapperBuilder snakeCaseBuilder() {
+        return Jackson2ObjectMapperBuilder.json().propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+    }
+
+    private PersonResponse person(int i) {
+        return PersonResponse.builder()
+                .id(UUID.randomUUID())
+                .names("Persona " + i)
+                .lastnames("Apellido " + i)
+                .document(String.valueOf(10_000_000 + i))
+                .email("persona" + i + "@crediya.com")
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.hiri.crediya.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConcurrencyLimitFilter.
+ * Uses a slowed stub chain to simulate a degraded database or auth service.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitProperties properties;
+    private SimpleMeterRegistry registry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setLatencyFloor(Duration.ofMillis(1));
+        registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(properties, registry);
+        filter = new ConcurrencyLimitFilter(limiter, properties);
+    }
+
+    @Test
+    void shouldShedRequestsAboveLimitWithRetryAfter() {
+        // Given - a slow request holding the only permit
+        WebFilterChain slowChain = exchange -> Mono.delay(Duration.ofMillis(200)).then();
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/12345678"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/87654321"));
+
+        // When
+        filter.filter(first, slowChain).subscribe();
+        StepVerifier.create(filter.filter(second, slowChain)).verifyComplete();
+
+        // Then
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(registry.get("http.server.concurrency.rejected")
+                .tag("route", "GET /api/v1/usuarios/{id}").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReduceLimitWhenLatencyDegrades() {
+        // Given
+        properties.setInitialLimit(10);
+        AdaptiveConcurrencyLimiter.RouteLimit limit = limiter.forRoute("GET /api/v1/usuarios");
+
+        // When - a fast baseline followed by a slow sample
+        assertThat(limit.tryAcquire()).isTrue();
+        limit.onSample(Duration.ofMillis(5).toNanos(), false);
+        assertThat(limit.tryAcquire()).isTrue();
+        limit.onSample(Duration.ofMillis(500).toNanos(), false);
+
+        // Then
+        assertThat(limit.getLimit()).isLessThan(10.0);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldReduceLimitWhenRequestTimesOut() {
+        // Given
+        properties.setInitialLimit(10);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/usuarios"));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.error(new TimeoutException("pool acquire timed out"))))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        // Then
+        assertThat(limiter.forRoute("POST /api/v1/usuarios").getLimit()).isEqualTo(9.0);
+    }
+
+    @Test
+    void shouldKeepLimitWhenRequestFailsWithClientOrDomainError() {
+        // Given
+        properties.setInitialLimit(10);
+        MockServerWebExchange badRequest = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/usuarios"));
+        MockServerWebExchange duplicate = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/usuarios"));
+
+        // When
+        StepVerifier.create(filter.filter(badRequest, ex -> Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST))))
+                .expectError(ResponseStatusException.class)
+                .verify();
+        StepVerifier.create(filter.filter(duplicate, ex -> Mono.error(new RuntimeException("User already exists"))))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        // Then - ninguno habla de la carga: el límite no baja
+        assertThat(limiter.forRoute("POST /api/v1/usuarios").getLimit()).isEqualTo(10.0);
+    }
+
+    @Test
+    void shouldClassifyOnlyOverloadAsDrop() {
+        // When & Then
+        assertThat(ConcurrencyLimitFilter.isOverload(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE))).isTrue();
+        assertThat(ConcurrencyLimitFilter.isOverload(new IllegalStateException("wrapped", new TimeoutException()))).isTrue();
+        assertThat(ConcurrencyLimitFilter.isOverload(new ResponseStatusException(HttpStatus.NOT_FOUND))).isFalse();
+        assertThat(ConcurrencyLimitFilter.isOverload(new IllegalArgumentException("invalid document"))).isFalse();
+    }
+
+    @Test
+    void shouldNotLimitPublicEndpoints() {
+        // Given
+        properties.setInitialLimit(0);
+        properties.setMinLimit(0);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.empty())).verifyComplete();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void shouldNotLimitStreamingEndpoints() {
+        // Given
+        properties.setInitialLimit(0);
+        properties.setMinLimit(0);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/changes"));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.empty())).verifyComplete();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isNull();
+    }
+}
@@ -0,0 +1,89 @@
+package com.hiri.crediya.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RateLimitFilter bucket keys and filter order.
+ * Uses mock exchanges with a bearer token and remote address, and a pass-through chain.
+ */
+class RateLimitFilterTest {
+
+    private static final WebFilterChain PASS = exchange -> Mono.empty();
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setMethod("GET");
+        route.setPath("/api/v1/usuarios/{document}");
+        route.setCapacity(1);
+        route.setRefillPerSecond(0.001);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldShareRemoteAddressBucketAmongTokens() {
+        // Given - dos tokens inventados desde la misma dirección
+        MockServerWebExchange first = exchange("aaa", "10.0.0.7");
+        MockServerWebExchange second = exchange("bbb", "10.0.0.7");
+
+        // When
+        StepVerifier.create(filter.filter(first, PASS)).verifyComplete();
+        StepVerifier.create(filter.filter(second, PASS)).verifyComplete();
+
+        // Then - cambiar de token no abre un bucket nuevo
+        assertThat(first.getResponse().getStatusCode()).isNull();
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void shouldGiveEachRemoteAddressItsOwnBucket() {
+        // Given
+        MockServerWebExchange first = exchange("aaa", "10.0.0.7");
+        MockServerWebExchange second = exchange("aaa", "10.0.0.8");
+
+        // When
+        StepVerifier.create(filter.filter(first, PASS)).verifyComplete();
+        StepVerifier.create(filter.filter(second, PASS)).verifyComplete();
+
+        // Then
+        assertThat(first.getResponse().getStatusCode()).isNull();
+        assertThat(second.getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void shouldRunAfterConcurrencyLimitAndBeforeAuthorization() {
+        // When
+        Integer concurrency = OrderUtils.getOrder(ConcurrencyLimitFilter.class);
+        Integer rateLimit = OrderUtils.getOrder(RateLimitFilter.class);
+        Integer authorization = OrderUtils.getOrder(RoleAuthorizationFilter.class);
+
+        // Then - un menor orden es un filtro más externo
+        assertThat(concurrency).isLessThan(rateLimit);
+        assertThat(rateLimit).isLessThan(authorization);
+    }
+
+    private static MockServerWebExchange exchange(String token, String address) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/usuarios/12345678")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .remoteAddress(new InetSocketAddress(address, 40000)));
+    }
+}
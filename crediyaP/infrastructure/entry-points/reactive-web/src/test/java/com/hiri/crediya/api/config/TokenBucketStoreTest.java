@@ -0,0 +1,75 @@
+package com.hiri.crediya.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TokenBucketStore.
+ * Uses a manual clock so refill and idle eviction are deterministic.
+ */
+class TokenBucketStoreTest {
+
+    private AtomicLong clock;
+    private TokenBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(0);
+        store = new TokenBucketStore(4, 2, Duration.ofMinutes(1).toNanos(), clock::get);
+    }
+
+    @Test
+    void shouldRejectWhenBucketIsEmpty() {
+        // When
+        TokenBucketStore.Probe first = store.tryConsume("client-a", 2, 1);
+        TokenBucketStore.Probe second = store.tryConsume("client-a", 2, 1);
+        TokenBucketStore.Probe third = store.tryConsume("client-a", 2, 1);
+
+        // Then
+        assertThat(first.consumed()).isTrue();
+        assertThat(second.consumed()).isTrue();
+        assertThat(second.remaining()).isZero();
+        assertThat(third.consumed()).isFalse();
+        assertThat(third.nanosToNextToken()).isEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void shouldRefillTokensOverTime() {
+        // Given
+        store.tryConsume("client-a", 1, 2);
+        assertThat(store.tryConsume("client-a", 1, 2).consumed()).isFalse();
+
+        // When
+        clock.addAndGet(Duration.ofMillis(500).toNanos());
+
+        // Then
+        assertThat(store.tryConsume("client-a", 1, 2).consumed()).isTrue();
+    }
+
+    @Test
+    void shouldKeepClientsIndependent() {
+        // Given
+        store.tryConsume("client-a", 1, 1);
+
+        // When & Then
+        assertThat(store.tryConsume("client-a", 1, 1).consumed()).isFalse();
+        assertThat(store.tryConsume("client-b", 1, 1).consumed()).isTrue();
+    }
+
+    @Test
+    void shouldStayBoundedByEvictingIdleAndOldestBuckets() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(Duration.ofSeconds(1).toNanos());
+            store.tryConsume("client-" + i, 5, 1);
+        }
+
+        // Then
+        assertThat(store.size()).isLessThanOrEqualTo(4);
+    }
+}
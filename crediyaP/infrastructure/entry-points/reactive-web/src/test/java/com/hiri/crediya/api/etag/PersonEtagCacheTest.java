@@ -0,0 +1,123 @@
+package com.hiri.crediya.api.etag;
+
+import com.hiri.crediya.model.person.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonEtagCache.
+ * Uses a fixed clock to check expiry without waiting.
+ */
+class PersonEtagCacheTest {
+
+    private EtagProperties properties;
+    private Person person;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EtagProperties();
+        properties.setTtl(Duration.ofSeconds(5));
+        person = Person.builder()
+                .id(UUID.randomUUID())
+                .document("12345678")
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    void shouldBuildEtagFromIdAndVersion() {
+        // When
+        String etag = PersonEtagCache.etagOf(person);
+
+        // Then
+        assertThat(etag).isEqualTo("W/\"" + person.getId() + ".3\"");
+        assertThat(PersonEtagCache.etagOf(person.toBuilder().version(null).build())).isNull();
+        assertThat(PersonEtagCache.personIdOf(etag)).isEqualTo(person.getId());
+        assertThat(PersonEtagCache.personIdOf("\"other\"")).isNull();
+    }
+
+    @Test
+    void shouldMatchWeakAndStrongListAndWildcardValidators() {
+        // Given
+        String etag = PersonEtagCache.etagOf(person);
+
+        // Then
+        assertThat(PersonEtagCache.matches(List.of("\"other\", " + etag), etag)).isTrue();
+        assertThat(PersonEtagCache.matches(List.of(etag.substring(2)), etag)).isTrue();
+        assertThat(PersonEtagCache.matches(List.of("*"), etag)).isTrue();
+        assertThat(PersonEtagCache.matches(List.of("\"other\""), etag)).isFalse();
+        assertThat(PersonEtagCache.matches(List.of("*"), null)).isFalse();
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        // Given
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        PersonEtagCache cache = new PersonEtagCache(properties, clock);
+        cache.put(person);
+
+        // When
+        String fresh = cache.get("12345678");
+        now.set(now.get().plusSeconds(6));
+        String expired = cache.get("12345678");
+
+        // Then
+        assertThat(fresh).isEqualTo(PersonEtagCache.etagOf(person));
+        assertThat(expired).isNull();
+    }
+
+    @Test
+    void shouldEvictByIdAfterUpdateOrDelete() {
+        // Given
+        PersonEtagCache cache = new PersonEtagCache(properties);
+        cache.put(person);
+
+        // When
+        cache.evict(person.getId());
+
+        // Then
+        assertThat(cache.get("12345678")).isNull();
+    }
+
+    @Test
+    void shouldForgetPreviousDocumentWhenItChanges() {
+        // Given
+        PersonEtagCache cache = new PersonEtagCache(properties);
+        cache.put(person);
+        Person moved = person.toBuilder().document("87654321").version(4L).build();
+
+        // When
+        cache.put(moved);
+
+        // Then
+        assertThat(cache.get("12345678")).isNull();
+        assertThat(cache.get("87654321")).isEqualTo(PersonEtagCache.etagOf(moved));
+    }
+}
@@ -0,0 +1,85 @@
+package com.hiri.crediya.api.export;
+
+import com.hiri.crediya.model.person.Person;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonCsvExport.
+ * Uses in-memory fluxes of persons; gzip output is checked by decompressing it.
+ */
+class PersonCsvExportTest {
+
+    private Person person(int i) {
+        return Person.builder()
+                .id(UUID.randomUUID())
+                .names("Juan " + i)
+                .lastnames("Pérez")
+                .document("doc-" + i)
+                .password("secret")
+                .email("user" + i + "@example.com")
+                .baseSalary(new BigDecimal("5000000.00"))
+                .role(BigInteger.valueOf(3))
+                .build();
+    }
+
+    @Test
+    void shouldQuoteFieldsWithSeparatorsAndNeverExportPassword() {
+        // Given
+        Person person = person(1).toBuilder().address("Calle 1, \"Apto\" 2").build();
+
+        // When
+        String row = PersonCsvExport.row(person);
+
+        // Then
+        assertThat(row).contains(",\"Calle 1, \"\"Apto\"\" 2\",")
+                .contains(",5000000.00,3\r\n")
+                .doesNotContain("secret");
+    }
+
+    @Test
+    void shouldEmitHeaderAndRowsInChunks() {
+        // Given
+        Flux<Person> persons = Flux.range(0, 5).map(this::person);
+
+        // When & Then - cabecera + 5 filas en bloques de 4
+        StepVerifier.create(PersonCsvExport.csv(persons, 4).map(bytes -> new String(bytes, StandardCharsets.UTF_8)))
+                .expectNextMatches(chunk -> chunk.startsWith(PersonCsvExport.HEADER) && chunk.split("\r\n").length == 4)
+                .expectNextMatches(chunk -> chunk.split("\r\n").length == 2)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldProduceValidGzipStream() throws IOException {
+        // Given
+        Flux<byte[]> csv = PersonCsvExport.csv(Flux.fromStream(IntStream.range(0, 1000).mapToObj(this::person)), 100);
+
+        // When
+        List<byte[]> compressed = PersonCsvExport.gzip(csv).collectList().block();
+
+        // Then
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        compressed.forEach(joined::writeBytes);
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(joined.toByteArray()))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(text).startsWith(PersonCsvExport.HEADER);
+        assertThat(text.split("\r\n")).hasSize(1001);
+        assertThat(compressed).hasSizeGreaterThan(1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.hiri.crediya.api.idempotency;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.hiri.crediya.api.dto.PersonRequest;
+import com.hiri.crediya.model.idempotency.IdempotentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for IdempotencyService.
+ * Uses the in-memory store so replay and coalescing run without a database.
+ */
+class IdempotencyServiceTest {
+
+    private InMemoryIdempotencyRepository repository;
+    private IdempotencyService service;
+    private PersonRequest request;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryIdempotencyRepository(100, Clock.systemUTC());
+        service = new IdempotencyService(repository, JsonMapper.builder().findAndAddModules().build(), new IdempotencyProperties());
+        request = new PersonRequest();
+        request.setDocument("12345678");
+        request.setEmail("juan.perez@example.com");
+        executions = new AtomicInteger();
+    }
+
+    private Mono<IdempotentResponse> action() {
+        return Mono.fromSupplier(() -> {
+            executions.incrementAndGet();
+            return service.toResponse(HttpStatus.CREATED, "/api/v1/usuarios/1", Map.of("document", "12345678"));
+        });
+    }
+
+    @Test
+    void shouldReplayStoredResponseOnRetry() {
+        // Given
+        service.execute("key-1", request, this::action).block();
+
+        // When & Then
+        StepVerifier.create(service.execute("key-1", request, this::action))
+                .expectNextMatches(response -> response.getStatus() == 201
+                        && response.getBody().contains("12345678"))
+                .verifyComplete();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentDuplicates() {
+        // Given - a slow first execution
+        Mono<IdempotentResponse> slow = Mono.delay(Duration.ofMillis(100)).then(action());
+
+        // When
+        Mono<IdempotentResponse> first = service.execute("key-2", request, () -> slow);
+        Mono<IdempotentResponse> second = service.execute("key-2", request, () -> slow);
+
+        // Then
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextMatches(pair -> pair.getT1().getBody().equals(pair.getT2().getBody()))
+                .verifyComplete();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentPayload() {
+        // Given
+        service.execute("key-3", request, this::action).block();
+        PersonRequest other = new PersonRequest();
+        other.setDocument("87654321");
+
+        // When & Then
+        StepVerifier.create(service.execute("key-3", other, this::action))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode().equals(HttpStatus.UNPROCESSABLE_ENTITY))
+                .verify();
+    }
+
+    @Test
+    void shouldAnswerConflictWhileAnotherInstanceHoldsTheKey() {
+        // Given - dos instancias sobre el mismo almacén; la primera sigue ejecutando
+        IdempotencyService otherInstance = new IdempotencyService(repository,
+                JsonMapper.builder().findAndAddModules().build(), new IdempotencyProperties());
+        Sinks.One<IdempotentResponse> slow = Sinks.one();
+        service.execute("key-5", request, slow::asMono).subscribe();
+
+        // When & Then - la segunda no ejecuta la acción
+        StepVerifier.create(otherInstance.execute("key-5", request, this::action))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode().equals(HttpStatus.CONFLICT))
+                .verify();
+        assertThat(executions.get()).isZero();
+
+        // When - la primera termina
+        slow.tryEmitValue(service.toResponse(HttpStatus.CREATED, "/api/v1/usuarios/1", Map.of("document", "12345678")));
+
+        // Then - la segunda reproduce la respuesta guardada
+        StepVerifier.create(otherInstance.execute("key-5", request, this::action))
+                .expectNextMatches(response -> response.getStatus() == 201)
+                .verifyComplete();
+        assertThat(executions.get()).isZero();
+    }
+
+    @Test
+    void shouldRejectNonPositiveMaxEntries() {
+        // When & Then
+        assertThatThrownBy(() -> new InMemoryIdempotencyRepository(0, Clock.systemUTC()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldNotStoreFailedExecutions() {
+        // Given
+        service.execute("key-4", request, () -> Mono.error(new IllegalStateException("db down")))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+
+        // When & Then
+        StepVerifier.create(service.execute("key-4", request, this::action))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.hiri.crediya.api.importer;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PersonImportParser.
+ * Uses in-memory line fluxes in place of the uploaded request body.
+ */
+class PersonImportParserTest {
+
+    @Test
+    void shouldParseCsvByHeaderNamesAndKeepLineNumbers() {
+        // Given - columnas en otro orden y una dirección con coma
+        Flux<String> lines = Flux.just(
+                "document,names,lastnames,password,birthdate,address,phone,email,base_salary",
+                "100,Juan,Pérez,secret,1990-05-15,\"Calle 1, Apto 2\",300,juan@example.com,5000000",
+                "",
+                "101,Ana,Gómez,secret,15/05/1990,Calle 2,301,ana@example.com,4000000");
+
+        // When & Then
+        StepVerifier.create(PersonImportParser.csv(lines))
+                .expectNextMatches(row -> row.getLineNumber() == 2
+                        && !row.isRejected()
+                        && row.getPerson().getDocument().equals("100")
+                        && row.getPerson().getAddress().equals("Calle 1, Apto 2")
+                        && row.getPerson().getBirthdate().equals(LocalDate.of(1990, 5, 15))
+                        && row.getPerson().getBaseSalary().compareTo(new BigDecimal("5000000")) == 0)
+                .expectNextMatches(row -> row.getLineNumber() == 4 && row.getError().startsWith("Invalid birthdate"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenCsvHeaderIsMissingColumns() {
+        // When & Then
+        StepVerifier.create(PersonImportParser.csv(Flux.just("names,document", "Juan,100")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldRejectMalformedNdjsonLinesOnly() {
+        // Given
+        JsonMapper mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .build();
+        Flux<String> lines = Flux.just(
+                "{\"names\":\"Juan\",\"document\":\"100\",\"base_salary\":5000000,\"birthdate\":\"1990-05-15\"}",
+                "{not json");
+
+        // When & Then
+        StepVerifier.create(PersonImportParser.ndjson(lines, mapper))
+                .expectNextMatches(row -> row.getLineNumber() == 1
+                        && row.getPerson().getBaseSalary().compareTo(new BigDecimal("5000000")) == 0)
+                .expectNextMatches(row -> row.getLineNumber() == 2 && row.getError().startsWith("Malformed JSON"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSplitQuotedFields() {
+        // Then
+        assertThat(PersonImportParser.split("a,\"b,\"\"c\"\"\",,d\r")).containsExactly("a", "b,\"c\"", "", "d");
+    }
+}
@@ -0,0 +1,83 @@
+package com.hiri.crediya.api.jfr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for JfrEndpoint.
+ * Uses the JVM's own Flight Recorder with a temporary dump directory.
+ */
+class JfrEndpointTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private JfrEndpoint endpoint;
+    private Long recordingId;
+
+    @BeforeEach
+    void setUp() {
+        JfrProperties properties = new JfrProperties();
+        properties.setDumpDirectory(dumpDirectory.toString());
+        endpoint = new JfrEndpoint(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (recordingId != null) {
+            try {
+                endpoint.stop(recordingId);
+            } catch (ResponseStatusException ignored) {
+                // ya detenida por el test
+            }
+        }
+    }
+
+    @Test
+    void shouldStartDumpAndStopRecording() throws Exception {
+        // Given
+        Map<String, Object> started = endpoint.start("test-recording", 5L);
+        recordingId = (Long) started.get("id");
+
+        // When
+        Map<String, Object> dumped = endpoint.dump(recordingId);
+        Map<String, Object> stopped = endpoint.stop(recordingId);
+
+        // Then
+        assertThat(started).containsEntry("name", "test-recording").containsEntry("state", "RUNNING");
+        assertThat(Files.size(Path.of((String) dumped.get("file")))).isPositive();
+        assertThat(stopped).containsEntry("id", recordingId);
+        assertThat(endpoint.recordings()).noneMatch(r -> recordingId.equals(r.get("id")));
+    }
+
+    @Test
+    void shouldKeepDumpInsideDumpDirectoryWhateverTheName() throws Exception {
+        // Given
+        Map<String, Object> started = endpoint.start("../../etc/cron.d/x", 5L);
+        recordingId = (Long) started.get("id");
+
+        // When
+        Path file = Path.of((String) endpoint.dump(recordingId).get("file"));
+
+        // Then
+        assertThat(file.getParent()).isEqualTo(dumpDirectory.toAbsolutePath().normalize());
+        assertThat(file.getFileName().toString()).startsWith("recording-" + recordingId + "-______etc_cron_d_x-");
+        assertThat(Files.size(file)).isPositive();
+    }
+
+    @Test
+    void shouldFailForUnknownRecording() {
+        // When & Then
+        assertThatThrownBy(() -> endpoint.dump(-1L)).isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hiri.crediya.rsocket.controller;
+
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.AuditEvent;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.rsocket.dto.PersonMessage;
+import com.hiri.crediya.usecase.auth.AuthUseCase;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import io.rsocket.RSocket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.annotation.ConnectMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consultas de personas para servicios internos sobre RSocket. La autorización se valida una sola vez
+ * en el SETUP (token de ADMIN en los datos del setup); una conexión rechazada se cierra, así que toda
+ * petición que llegue por una conexión abierta ya está autorizada. Cada consulta se audita con el cliente
+ * que abrió la conexión, identificado igual que en HTTP (hash del token).
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class PersonRSocketController {
+
+    private final PersonUseCase personUseCase;
+    private final AuthUseCase authUseCase;
+    private final AuditTrail auditTrail;
+    // Actor de cada conexión aceptada; se quita al cerrarse la conexión
+    private final Map<RSocketRequester, String> actors = new ConcurrentHashMap<>();
+
+    @ConnectMapping
+    public Mono<Void> connect(@Payload(required = false) String token, RSocketRequester requester) {
+        if (token == null || token.isBlank()) {
+            log.warn("RSocket setup rejected: no token");
+            return Mono.error(new RSocketAccessDeniedException("No token found in setup payload"));
+        }
+        return authUseCase.isAdmin(token)
+                .onErrorMap(error -> new RSocketAccessDeniedException("Role validation failed: " + error.getMessage()))
+                .flatMap(authorized -> {
+                    if (Boolean.TRUE.equals(authorized)) {
+                        log.info("RSocket connection accepted");
+                        actors.put(requester, clientIdOf(token));
+                        RSocket rsocket = requester.rsocket();
+                        if (rsocket != null) {
+                            rsocket.onClose()
+                                    .onErrorResume(error -> Mono.empty())
+                                    .doFinally(signal -> actors.remove(requester))
+                                    .subscribe();
+                        }
+                        return Mono.<Void>empty();
+                    }
+                    log.warn("RSocket setup rejected: admin role required");
+                    return Mono.error(new RSocketAccessDeniedException("Admin role required"));
+                });
+    }
+
+    @MessageMapping("persons.by-document")
+    public Mono<PersonMessage> findByDocument(String document, RSocketRequester requester) {
+        return personUseCase.findByDocument(document)
+                .flatMap(p -> audit(requester, AuditAction.VIEW, p.getId(), p.getDocument()).thenReturn(p))
+                .map(this::toMessage);
+    }
+
+    @MessageMapping("persons.by-id")
+    public Mono<PersonMessage> findById(UUID id, RSocketRequester requester) {
+        return personUseCase.findById(id)
+                .flatMap(p -> audit(requester, AuditAction.VIEW, p.getId(), p.getDocument()).thenReturn(p))
+                .map(this::toMessage);
+    }
+
+    // Request-stream: el cursor de la base avanza al ritmo del request(n) del cliente
+    @MessageMapping("persons.stream")
+    public Flux<PersonMessage> streamAll(RSocketRequester requester) {
+        return audit(requester, AuditAction.EXPORT, null, null)
+                .thenMany(personUseCase.exportAll())
+                .map(this::toMessage);
+    }
+
+    private Mono<Void> audit(RSocketRequester requester, AuditAction action, UUID personId, String document) {
+        return auditTrail.record(AuditEvent.builder()
+                .actor(actors.getOrDefault(requester, "rsocket"))
+                .action(action)
+                .personId(personId)
+                .document(document)
+                .build());
+    }
+
+    // Mismo formato que RoleAuthorizationFilter, para que un cliente sea el mismo actor en HTTP y RSocket
+    static String clientIdOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "token:" + HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private PersonMessage toMessage(Person p) {
+        return PersonMessage.builder()
+                .id(p.getId())
+                .names(p.getNames())
+                .lastnames(p.getLastnames())
+                .document(p.getDocument())
+                .email(p.getEmail())
+                .build();
+    }
+
+    public static class RSocketAccessDeniedException extends RuntimeException {
+        public RSocketAccessDeniedException(String msg) {
+            super(msg);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hiri.crediya.rsocket.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+// Vista de la persona para llamadas internas: nunca incluye la contraseña
+@Value
+@Builder
+public class PersonMessage {
+    UUID id;
+    String names;
+    String lastnames;
+    String document;
+    String email;
+}
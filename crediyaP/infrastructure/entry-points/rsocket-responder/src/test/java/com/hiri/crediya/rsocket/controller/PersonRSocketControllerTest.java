@@ -0,0 +1,131 @@
+package com.hiri.crediya.rsocket.controller;
+
+import com.hiri.crediya.model.audit.AuditAction;
+import com.hiri.crediya.model.audit.gateways.AuditTrail;
+import com.hiri.crediya.model.person.Person;
+import com.hiri.crediya.usecase.auth.AuthUseCase;
+import com.hiri.crediya.usecase.personregistry.PersonUseCase;
+import io.rsocket.RSocket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PersonRSocketController.
+ * Uses mocks for PersonUseCase, AuthUseCase, AuditTrail and the connection requester; no RSocket transport is started.
+ */
+@ExtendWith(MockitoExtension.class)
+class PersonRSocketControllerTest {
+
+    @Mock
+    private PersonUseCase personUseCase;
+    @Mock
+    private AuthUseCase authUseCase;
+    @Mock
+    private AuditTrail auditTrail;
+    @Mock
+    private RSocketRequester requester;
+    @Mock
+    private RSocket rsocket;
+
+    private PersonRSocketController controller;
+    private Person person;
+
+    @BeforeEach
+    void setUp() {
+        controller = new PersonRSocketController(personUseCase, authUseCase, auditTrail);
+        lenient().when(auditTrail.record(any())).thenReturn(Mono.empty());
+        lenient().when(requester.rsocket()).thenReturn(rsocket);
+        lenient().when(rsocket.onClose()).thenReturn(Mono.never());
+        person = Person.builder()
+                .id(UUID.randomUUID())
+                .names("Juan")
+                .lastnames("Pérez")
+                .document("12345678")
+                .email("juan@crediya.com")
+                .password("secret")
+                .build();
+    }
+
+    @Test
+    void shouldAcceptSetupWithAdminToken() {
+        // Given
+        when(authUseCase.isAdmin("admin-token")).thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(controller.connect("admin-token", requester)).verifyComplete();
+    }
+
+    @Test
+    void shouldRejectSetupWithoutAdminRole() {
+        // Given
+        when(authUseCase.isAdmin("client-token")).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(controller.connect("client-token", requester))
+                .expectError(PersonRSocketController.RSocketAccessDeniedException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldRejectSetupWithoutToken() {
+        // When & Then
+        StepVerifier.create(controller.connect(null, requester))
+                .expectError(PersonRSocketController.RSocketAccessDeniedException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldFindByDocumentWithoutExposingPassword() {
+        // Given
+        when(personUseCase.findByDocument("12345678")).thenReturn(Mono.just(person));
+
+        // When & Then
+        StepVerifier.create(controller.findByDocument("12345678", requester))
+                .expectNextMatches(m -> m.getId().equals(person.getId()) && m.getEmail().equals(person.getEmail()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldAuditLookupsWithTheConnectionActor() {
+        // Given
+        when(authUseCase.isAdmin("admin-token")).thenReturn(Mono.just(true));
+        when(personUseCase.findById(person.getId())).thenReturn(Mono.just(person));
+        StepVerifier.create(controller.connect("admin-token", requester)).verifyComplete();
+
+        // When
+        StepVerifier.create(controller.findById(person.getId(), requester)).expectNextCount(1).verifyComplete();
+
+        // Then
+        verify(auditTrail).record(argThat(event -> event.getAction() == AuditAction.VIEW
+                && person.getId().equals(event.getPersonId())
+                && PersonRSocketController.clientIdOf("admin-token").equals(event.getActor())));
+    }
+
+    @Test
+    void shouldStreamAllPersons() {
+        // Given
+        when(personUseCase.exportAll()).thenReturn(Flux.just(person, person.toBuilder().id(UUID.randomUUID()).build()));
+
+        // When & Then
+        StepVerifier.create(controller.streamAll(requester), 1)
+                .expectNextCount(1)
+                .thenRequest(1)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+}